@@ -0,0 +1,22 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures server startup: parsing the campus data files and building the campus graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CampusMapBenchmark {
+
+    @Benchmark
+    public CampusMap newCampusMap() {
+        return new CampusMap();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import pathfinder.CampusMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks representative building pairs from a campus map, so that routing benchmarks measure the same
+ * short, medium and long walks on every run.
+ */
+public final class CampusRoutes {
+
+    /**
+     * How far along the list of routes, sorted by cost, each route length is taken from.
+     */
+    public enum Length {
+        SHORT(0.1), MEDIUM(0.5), LONG(1.0);
+
+        private final double percentile;
+
+        Length(double percentile) {
+            this.percentile = percentile;
+        }
+    }
+
+    private CampusRoutes() {
+    }
+
+    /**
+     * @param map    The campus map to pick a route from.
+     * @param length Which route length to pick.
+     * @return The start and destination short names of the route of the given length.
+     */
+    public static String[] pick(CampusMap map, Length length) {
+        List<String[]> routes = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        for(String start : map.buildingNames().keySet()) {
+            for(Map.Entry<String, Double> dest : map.distancesFrom(start).entrySet()) {
+                if(dest.getValue() > 0) {
+                    routes.add(new String[]{start, dest.getKey()});
+                    costs.add(dest.getValue());
+                }
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for(int i = 0; i < routes.size(); i++) {
+            order.add(i);
+        }
+        // Break cost ties by name so the same pair is picked on every run.
+        order.sort((a, b) -> {
+            int byCost = Double.compare(costs.get(a), costs.get(b));
+            if(byCost != 0) {
+                return byCost;
+            }
+            int byStart = routes.get(a)[0].compareTo(routes.get(b)[0]);
+            return byStart != 0 ? byStart : routes.get(a)[1].compareTo(routes.get(b)[1]);
+        });
+        int index = (int) Math.round(length.percentile * (order.size() - 1));
+        return routes.get(order.get(index));
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.Point;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic walking networks of any size, so that benchmarks can show how graph
+ * construction and routing scale beyond the campus map.
+ */
+public final class GridGraphs {
+
+    private GridGraphs() {
+    }
+
+    /**
+     * Builds a square grid of side * side Points one unit apart, where every point is connected in
+     * both directions to its horizontal and vertical neighbours. Like campus paths, each connection
+     * costs at least its straight-line length: between 1 and 1.5 times it, chosen at random.
+     *
+     * @param side The number of points along each side of the grid.
+     * @param seed The seed of the random connection costs, so that runs are repeatable.
+     * @return A new grid graph.
+     * @throws IllegalArgumentException if side is not positive.
+     */
+    public static Graph<Point, Double> grid(int side, long seed) {
+        if(side <= 0) {
+            throw new IllegalArgumentException("Grid side must be positive.");
+        }
+        Random random = new Random(seed);
+        Graph<Point, Double> graph = new Graph<>();
+        @SuppressWarnings("unchecked")
+        Node<Point, Double>[] nodes = (Node<Point, Double>[]) new Node[side * side];
+        for(int y = 0; y < side; y++) {
+            for(int x = 0; x < side; x++) {
+                Node<Point, Double> node = new Node<>(new Point(x, y));
+                nodes[y * side + x] = node;
+                graph.addNode(node);
+            }
+        }
+        for(int y = 0; y < side; y++) {
+            for(int x = 0; x < side; x++) {
+                Node<Point, Double> node = nodes[y * side + x];
+                if(x + 1 < side) {
+                    connect(graph, node, nodes[y * side + x + 1], random);
+                }
+                if(y + 1 < side) {
+                    connect(graph, node, nodes[(y + 1) * side + x], random);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return The point in the corner of a grid opposite from (0, 0).
+     */
+    public static Point farCorner(int side) {
+        return new Point(side - 1, side - 1);
+    }
+
+    private static void connect(Graph<Point, Double> graph, Node<Point, Double> a, Node<Point, Double> b,
+                                Random random) {
+        double cost = 1.0 + random.nextDouble() / 2;
+        graph.addEdge(a, b, cost);
+        graph.addEdge(b, a, cost);
+    }
+}
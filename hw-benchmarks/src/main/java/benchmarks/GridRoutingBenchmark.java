@@ -0,0 +1,70 @@
+package benchmarks;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.DijkstraUtil;
+import pathfinder.EuclideanHeuristic;
+import pathfinder.IndexedDijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how graph construction and corner-to-corner routing scale with the size of a synthetic
+ * grid graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridRoutingBenchmark {
+
+    private static final long SEED = 331;
+
+    @Param({"32", "64", "128", "256"})
+    public int side;
+
+    private Graph<Point, Double> graph;
+    private CsrGraph<Point> compact;
+    private EuclideanHeuristic heuristic;
+    private Point start;
+    private Point dest;
+
+    @Setup
+    public void setUp() {
+        graph = GridGraphs.grid(side, SEED);
+        compact = new CsrGraph<>(graph);
+        heuristic = new EuclideanHeuristic(compact);
+        start = new Point(0, 0);
+        dest = GridGraphs.farCorner(side);
+    }
+
+    @Benchmark
+    public Graph<Point, Double> buildGraph() {
+        return GridGraphs.grid(side, SEED);
+    }
+
+    @Benchmark
+    public CsrGraph<Point> buildCsrGraph() {
+        return new CsrGraph<>(graph);
+    }
+
+    @Benchmark
+    public Path<Point> dijkstraSearch() {
+        return DijkstraUtil.dijkstraSearch(graph, start, dest);
+    }
+
+    @Benchmark
+    public Path<Point> indexedDijkstraSearch() {
+        return IndexedDijkstra.dijkstraSearch(compact, start, dest);
+    }
+
+    @Benchmark
+    public Path<Point> aStarSearch() {
+        return IndexedDijkstra.aStarSearch(compact, heuristic, start, dest, null);
+    }
+}
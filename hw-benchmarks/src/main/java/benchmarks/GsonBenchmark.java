@@ -0,0 +1,40 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing a route to JSON the way the Spark server does for /path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GsonBenchmark {
+
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public CampusRoutes.Length length;
+
+    private Gson gson;
+    private Path<Point> path;
+
+    @Setup
+    public void setUp() {
+        CampusMap map = new CampusMap();
+        String[] route = CampusRoutes.pick(map, length);
+        path = map.findShortestPath(route[0], route[1]);
+        gson = new Gson();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(path);
+    }
+}
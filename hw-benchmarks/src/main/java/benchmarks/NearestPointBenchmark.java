@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.KdTree;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the node nearest to a coordinate, as a coordinate route request does twice, with
+ * the k-d tree against scanning every node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearestPointBenchmark {
+
+    @Param({"2000", "100000"})
+    public int nodes;
+
+    private List<Point> points;
+    private KdTree tree;
+    private double[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(331);
+        points = new ArrayList<>(nodes);
+        for(int i = 0; i < nodes; i++) {
+            points.add(new Point(random.nextDouble() * 4000, random.nextDouble() * 2500));
+        }
+        tree = new KdTree(points);
+        queries = new double[2 * 1024];
+        for(int i = 0; i < queries.length; i += 2) {
+            queries[i] = random.nextDouble() * 4000;
+            queries[i + 1] = random.nextDouble() * 2500;
+        }
+    }
+
+    @Benchmark
+    public int kdTree() {
+        next = (next + 2) & (queries.length - 1);
+        return tree.nearest(queries[next], queries[next + 1]);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        next = (next + 2) & (queries.length - 1);
+        double x = queries[next];
+        double y = queries[next + 1];
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for(int i = 0; i < points.size(); i++) {
+            double dx = x - points.get(i).getX();
+            double dy = y - points.get(i).getY();
+            double distance = dx * dx + dy * dy;
+            if(distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
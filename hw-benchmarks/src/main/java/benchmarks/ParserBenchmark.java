@@ -0,0 +1,105 @@
+package benchmarks;
+
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusGraphBuilder;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a large campus paths file into a campus graph, parsing it sequentially and in
+ * parallel on pools of different sizes, to show how parallel loading scales with the number of
+ * cores. Each load includes giving every point its node id and building the finished graph, since
+ * the graph is filled one line at a time however the file is parsed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    /**
+     * A campus paths file, written once for every benchmark run on it
+     */
+    @State(Scope.Benchmark)
+    public static class PathsFile {
+
+        @Param({"500000"})
+        public int lines;
+
+        private Path file;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("campus_paths", ".tsv");
+            // Coordinates and distances with as many digits as the campus data. Every point ends
+            // about four paths, as on campus, so most lines find their ends already have node ids.
+            Random random = new Random(331);
+            double[] points = new double[lines];
+            for(int i = 0; i < points.length; i++) {
+                points[i] = random.nextDouble() * 4000;
+            }
+            try(BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("start-x\tstart-y\tend-x\tend-y\tdistance\n");
+                for(int i = 0; i < lines; i++) {
+                    int start = 2 * random.nextInt(lines / 2);
+                    int end = 2 * random.nextInt(lines / 2);
+                    writer.write(points[start] + "\t" + points[start + 1] + "\t"
+                                 + points[end] + "\t" + points[end + 1] + "\t"
+                                 + random.nextDouble() * 100 + "\n");
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * The pool the parallel parser runs on
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setUp() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public CsrGraph<Point> sequential(PathsFile paths) {
+        CampusGraphBuilder builder = new CampusGraphBuilder(Collections.emptyList());
+        CampusPathsParser.parseCampusPaths(paths.file, builder);
+        return builder.build();
+    }
+
+    @Benchmark
+    public CsrGraph<Point> parallel(PathsFile paths, Pool pool) {
+        CampusGraphBuilder builder = new CampusGraphBuilder(Collections.emptyList());
+        CampusPathsParser.parseCampusPathsParallel(paths.file, builder, pool.pool, 1 << 20);
+        return builder.build();
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a path one segment at a time with Path#extend, which every search does for each
+ * node it reaches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int segments;
+
+    private Point[] points;
+
+    @Setup
+    public void setUp() {
+        points = new Point[segments + 1];
+        for(int i = 0; i <= segments; i++) {
+            points[i] = new Point(i, i);
+        }
+    }
+
+    @Benchmark
+    public Path<Point> extendChain() {
+        Path<Point> path = new Path<>(points[0]);
+        for(int i = 1; i <= segments; i++) {
+            path = path.extend(points[i], 1.0);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.RoutingStrategy;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single campus route query, for each routing strategy, on a short, a medium and a long
+ * walk between buildings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public CampusRoutes.Length length;
+
+    @Param({"DIJKSTRA", "INDEXED_DIJKSTRA", "ASTAR", "BIDIRECTIONAL", "CONTRACTION_HIERARCHY", "PRECOMPUTED"})
+    public RoutingStrategy strategy;
+
+    private CampusMap map;
+    private String start;
+    private String dest;
+
+    @Setup
+    public void setUp() {
+        // Building the map with the strategy as its default also runs any preprocessing it needs.
+        map = new CampusMap(strategy);
+        String[] route = CampusRoutes.pick(map, length);
+        start = route[0];
+        dest = route[1];
+    }
+
+    @Benchmark
+    public Path<Point> findShortestPath() {
+        return map.findShortestPath(start, dest);
+    }
+}
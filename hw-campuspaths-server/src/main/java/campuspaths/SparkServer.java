@@ -1,9 +1,19 @@
 package campuspaths;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import pathfinder.CampusMap;
+import pathfinder.CampusMapHolder;
+import pathfinder.EdgeAttributes;
+import pathfinder.EdgeOverrides;
+import pathfinder.RoutingProfile;
+import pathfinder.RoutingStrategy;
+import pathfinder.SearchStats;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser;
 import pathfinder.textInterface.CoordinateProperties;
 import pathfinder.textInterface.Direction;
 import spark.Request;
@@ -12,9 +22,96 @@ import spark.Route;
 import spark.Spark;
 
 import campuspaths.utils.CORSFilter;
+import campuspaths.utils.MapReloader;
+import campuspaths.utils.ResponseCache;
+
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 public class SparkServer {
 
+    /**
+     * Gson instances are thread-safe, so every request shares this one
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * the declared type of every path in a batch response
+     */
+    private static final Type PATH_TYPE = new TypeToken<Path<Point>>(){}.getType();
+
+    /**
+     * system property naming a graph file written by CampusGraphFile to load the campus from instead
+     * of parsing the campus TSV files, which makes startup faster
+     */
+    private static final String GRAPH_FILE_PROPERTY = "campuspaths.graph";
+
+    /**
+     * system property naming a directory holding campus_buildings.tsv and campus_paths.tsv to load
+     * the campus from instead of the ones packaged with the server
+     */
+    private static final String DATA_DIRECTORY_PROPERTY = "campuspaths.data";
+
+    /**
+     * system property that, when true, reloads the campus map whenever the file or files it was
+     * loaded from change on disk
+     */
+    private static final String WATCH_PROPERTY = "campuspaths.watch";
+
+    private static final String BUILDINGS_FILE = "campus_buildings.tsv";
+    private static final String PATHS_FILE = "campus_paths.tsv";
+
+    /**
+     * optional file in the data directory describing the slope, stairs and shelter of segments, for
+     * routing profiles; without it every segment is flat, outdoors and has no stairs
+     */
+    private static final String SEGMENTS_FILE = "campus_segments.tsv";
+
+    /**
+     * the most points one /nearest request may ask for
+     */
+    private static final int MAX_NEAREST = 100;
+
+    /**
+     * the most routes one /paths/alternatives request may ask for
+     */
+    private static final int MAX_ALTERNATIVES = 10;
+
+    /**
+     * system property setting how many finished /path and how many /email-directions responses to
+     * cache; 0 turns the caches off
+     */
+    private static final String CACHE_SIZE_PROPERTY = "campuspaths.cache.size";
+
+    /**
+     * system property setting the order cached responses are evicted in, LRU or FIFO
+     */
+    private static final String CACHE_EVICTION_PROPERTY = "campuspaths.cache.eviction";
+
+    /**
+     * enough room for both endpoints' responses for every pair of campus buildings
+     */
+    private static final int DEFAULT_CACHE_SIZE = 8192;
+
+    /**
+     * system property holding the token that requests changing the campus map must send in
+     * ADMIN_TOKEN_HEADER; without it those requests are refused
+     */
+    private static final String ADMIN_TOKEN_PROPERTY = "campuspaths.admin.token";
+
+    /**
+     * request header carrying the admin token. Browsers will not send it cross-origin, since the
+     * CORS headers do not allow it, so a web page cannot change the map for a visitor.
+     */
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -23,61 +120,583 @@ public class SparkServer {
         // comes from a different server.
         // You should leave these two lines at the very beginning of main().
 
-        //Initialize one CampusMap for the server
-        CampusMap UW = new CampusMap();
+        //Initialize one CampusMap for the server. Every request reads the current map from the
+        //holder once and answers from it alone, so replacing the map never needs a lock.
+        String graphFile = System.getProperty(GRAPH_FILE_PROPERTY);
+        String dataDirectory = System.getProperty(DATA_DIRECTORY_PROPERTY);
+        Supplier<CampusMap> loader;
+        if(graphFile != null){
+            loader = () -> new CampusMap(RoutingStrategy.PRECOMPUTED, Paths.get(graphFile));
+        } else if(dataDirectory != null){
+            loader = () -> {
+                CampusMap map = new CampusMap(RoutingStrategy.PRECOMPUTED,
+                                              Paths.get(dataDirectory, BUILDINGS_FILE),
+                                              Paths.get(dataDirectory, PATHS_FILE));
+                java.nio.file.Path segments = Paths.get(dataDirectory, SEGMENTS_FILE);
+                if(Files.exists(segments)){
+                    map = map.withEdgeAttributes(EdgeAttributes.of(CampusPathsParser.parseCampusSegments(segments)));
+                }
+                return map;
+            };
+        } else {
+            loader = () -> new CampusMap(RoutingStrategy.PRECOMPUTED);
+        }
+        CampusMapHolder maps = new CampusMapHolder(loader.get());
+
+        //Cache the finished JSON of repeated route requests, so hot routes skip UW entirely
+        int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+        ResponseCache.Eviction eviction =
+                ResponseCache.Eviction.valueOf(System.getProperty(CACHE_EVICTION_PROPERTY, "LRU"));
+        ResponseCache<CachedRoute> pathCache = new ResponseCache<>(cacheSize, eviction);
+        ResponseCache<CachedDirections> directionsCache = new ResponseCache<>(cacheSize, eviction);
+        //each routing profile's routes are cached apart from the default ones and from each other
+        Map<RoutingProfile, ResponseCache<CachedRoute>> profileCaches = new LinkedHashMap<>();
+        for(RoutingProfile profile : Arrays.asList(RoutingProfile.ACCESSIBLE, RoutingProfile.COVERED)){
+            profileCaches.put(profile, new ResponseCache<>(cacheSize, eviction));
+        }
+
+        //Only requests sending this token may change the campus map
+        byte[] adminToken = System.getProperty(ADMIN_TOKEN_PROPERTY, "").getBytes(StandardCharsets.UTF_8);
+
+        //Build replacement maps off the request path. Cached responses are keyed by map version, so
+        //once a new map is current the old responses are never served again and can be dropped.
+        MapReloader reloader = new MapReloader(maps, loader, snapshot -> {
+            pathCache.removeOlderThan(snapshot.getVersion());
+            directionsCache.removeOlderThan(snapshot.getVersion());
+            for(ResponseCache<CachedRoute> cache : profileCaches.values()){
+                cache.removeOlderThan(snapshot.getVersion());
+            }
+        });
+        if(Boolean.getBoolean(WATCH_PROPERTY)){
+            if(graphFile != null){
+                java.nio.file.Path file = Paths.get(graphFile).toAbsolutePath();
+                reloader.watch(file.getParent(), Collections.singleton(file.getFileName().toString()));
+            } else if(dataDirectory != null){
+                reloader.watch(Paths.get(dataDirectory),
+                               new HashSet<>(Arrays.asList(BUILDINGS_FILE, PATHS_FILE, SEGMENTS_FILE)));
+            }
+        }
 
         //gets the building names of every building on the map
         Spark.get("/buildings", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
-                Gson gson = new Gson();
-                return gson.toJson(UW.buildingNames());
+                CampusMap UW = maps.current().getMap();
+                return GSON.toJson(UW.buildingNames());
             }
         });
 
-        //gets the shortest path between start and destination building
-        //route: "/path?start=BUILDING-ABR&dest=BUILDING-ABR"
+        //gets the shortest path between start and destination building, or between the walkable
+        //points nearest to start and destination coordinates. Between buildings, a profile other than
+        //shortest (the default) finds the cheapest path by that profile's costs instead: accessible
+        //avoids stairs and steep segments, covered keeps indoors where it can
+        //route: "/path?start=BUILDING-ABR&dest=BUILDING-ABR&profile=shortest|accessible|covered"
+        //route: "/path?startX=X&startY=Y&destX=X&destY=Y"
         Spark.get("/path", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
+                CampusMapHolder.Snapshot snapshot = maps.current();
+                CampusMap UW = snapshot.getMap();
                 String startString = request.queryParams("start");
                 String destString = request.queryParams("dest");
-                if(startString == null || destString == null){
+                boolean byCoordinates = startString == null && destString == null
+                        && request.queryParams("startX") != null;
+                if(!byCoordinates && (startString == null || destString == null)){
                     Spark.halt(400, "Must have a start and destination building");
                 }
+                String profileString = request.queryParams("profile");
+                RoutingProfile profile = profileString == null ? RoutingProfile.SHORTEST
+                                                               : RoutingProfile.named(profileString);
+                if(profile == null){
+                    Spark.halt(400, "profile must be shortest, accessible or covered");
+                }
+                if(profile != RoutingProfile.SHORTEST){
+                    if(byCoordinates){
+                        Spark.halt(400, "Must have a start and destination building to route by profile");
+                    }
+                    //a profile may cost a segment differently each way, so its routes are cached by direction
+                    ResponseCache<CachedRoute> profileCache = profileCaches.get(profile);
+                    CachedRoute cached = profileCache.get(snapshot.getVersion(), "/path", startString, destString);
+                    if(cached != null){
+                        response.header("X-Cache", "HIT");
+                        response.header("X-Nodes-Settled", "0");
+                        return cached.json(startString);
+                    }
+                    Path<Point> cheapestPath = null;
+                    SearchStats stats = new SearchStats();
+                    try{
+                        cheapestPath = UW.findShortestPath(startString, destString, profile, stats);
+                    } catch (Exception e){
+                        Spark.halt(400, "Building is not part of campus map");
+                    }
+                    response.header("X-Nodes-Settled", Long.toString(stats.getSettled()));
+                    CachedRoute route = new CachedRoute(startString, cheapestPath);
+                    response.header("X-Cache", "MISS");
+                    profileCache.put(snapshot.getVersion(), "/path", startString, destString, route);
+                    return route.json(startString);
+                }
+
+                //on a symmetric campus one cached route answers both directions, so its key ignores direction
+                boolean swap = !byCoordinates && UW.isSymmetric() && startString.compareTo(destString) > 0;
+                String first = swap ? destString : startString;
+                String second = swap ? startString : destString;
+                if(!byCoordinates){
+                    CachedRoute cached = pathCache.get(snapshot.getVersion(), "/path", first, second);
+                    if(cached != null){
+                        response.header("X-Cache", "HIT");
+                        response.header("X-Nodes-Settled", "0");
+                        return cached.json(startString);
+                    }
+                }
 
                 Path<Point> shortestPath = null;
+                SearchStats stats = new SearchStats();
+                if(byCoordinates){
+                    double startX = coordinate(request, "startX");
+                    double startY = coordinate(request, "startY");
+                    double destX = coordinate(request, "destX");
+                    double destY = coordinate(request, "destY");
+                    shortestPath = UW.findShortestPath(startX, startY, destX, destY, UW.getStrategy(), stats);
+                } else {
+                    try{
+                        shortestPath = UW.findShortestPath(startString, destString, UW.getStrategy(), stats);
+                    } catch (Exception e){
+                        Spark.halt(400, "Building is not part of campus map");
+                    }
+                }
+                //report the search effort so load tests can compare routing strategies
+                response.header("X-Nodes-Settled", Long.toString(stats.getSettled()));
+                if(byCoordinates){
+                    return GSON.toJson(shortestPath);
+                }
+                CachedRoute route = new CachedRoute(startString, shortestPath);
+                response.header("X-Cache", "MISS");
+                pathCache.put(snapshot.getVersion(), "/path", first, second, route);
+                return route.json(startString);
+            }
+        });
+
+        //gets up to k different routes between start and destination building, shortest first; no
+        //route visits a point twice
+        //route: "/paths/alternatives?start=BUILDING-ABR&dest=BUILDING-ABR&k=COUNT", where k is 3 if left out
+        Spark.get("/paths/alternatives", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap UW = maps.current().getMap();
+                String startString = request.queryParams("start");
+                String destString = request.queryParams("dest");
+                if(startString == null || destString == null){
+                    Spark.halt(400, "Must have a start and destination building");
+                }
+                int k = 3;
+                String kString = request.queryParams("k");
+                if(kString != null){
+                    try{
+                        k = Integer.parseInt(kString);
+                    } catch (NumberFormatException e){
+                        Spark.halt(400, "k must be a whole number");
+                    }
+                    if(k < 0 || k > MAX_ALTERNATIVES){
+                        Spark.halt(400, "k must be between 0 and " + MAX_ALTERNATIVES);
+                    }
+                }
+
+                if(!UW.shortNameExists(startString) || !UW.shortNameExists(destString)){
+                    Spark.halt(400, "Building is not part of campus map");
+                }
+
+                //the request is checked in full above, so anything thrown from here on is a server error
+                SearchStats stats = new SearchStats();
+                List<Path<Point>> paths = UW.findAlternativePaths(startString, destString, k, stats);
+                response.header("X-Nodes-Settled", Long.toString(stats.getSettled()));
+                return GSON.toJson(paths);
+            }
+        });
+
+        //gets the k walkable points nearest to a coordinate, nearest first
+        //route: "/nearest?x=X&y=Y&k=COUNT", where k is 1 if left out
+        Spark.get("/nearest", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap UW = maps.current().getMap();
+                double x = coordinate(request, "x");
+                double y = coordinate(request, "y");
+                int k = 1;
+                String kString = request.queryParams("k");
+                if(kString != null){
+                    try{
+                        k = Integer.parseInt(kString);
+                    } catch (NumberFormatException e){
+                        Spark.halt(400, "k must be a whole number");
+                    }
+                    if(k < 0 || k > MAX_NEAREST){
+                        Spark.halt(400, "k must be between 0 and " + MAX_NEAREST);
+                    }
+                }
+                return GSON.toJson(UW.nearestPoints(x, y, k));
+            }
+        });
+
+        //gets the buildings within a radius of a coordinate, with their distances, nearest first.
+        //by=straight (the default) measures straight-line distance in map coordinates; by=walking
+        //measures walking distance from the nearest walkable point, in the units of path costs
+        //route: "/nearby?x=X&y=Y&r=RADIUS&by=straight|walking"
+        Spark.get("/nearby", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap UW = maps.current().getMap();
+                double x = coordinate(request, "x");
+                double y = coordinate(request, "y");
+                double radius = coordinate(request, "r");
+                if(radius < 0){
+                    Spark.halt(400, "Radius cannot be negative");
+                }
+                String by = request.queryParams("by");
+                Map<String, Double> nearby = null;
+                if(by == null || by.equals("straight")){
+                    nearby = UW.buildingsWithin(x, y, radius);
+                } else if(by.equals("walking")){
+                    nearby = UW.buildingsWithinWalk(x, y, radius);
+                } else {
+                    Spark.halt(400, "by must be straight or walking");
+                }
+                return GSON.toJson(nearby);
+            }
+        });
+
+        //gets the walking distance from start to every building reachable from it
+        //route: "/distances?start=BUILDING-ABR"
+        Spark.get("/distances", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap UW = maps.current().getMap();
+                String startString = request.queryParams("start");
+                if(startString == null){
+                    Spark.halt(400, "Must have a start building");
+                }
+
+                Map<String, Double> distances = null;
                 try{
-                    shortestPath = UW.findShortestPath(startString, destString);
+                    distances = UW.distancesFrom(startString);
                 } catch (Exception e){
                     Spark.halt(400, "Building is not part of campus map");
                 }
-                Gson gson = new Gson();
-                return gson.toJson(shortestPath);
+                return GSON.toJson(distances);
+            }
+        });
+
+        //gets the shortest path for every start and destination pair in the request body, in order
+        //route: POST "/paths/batch" with body [{"start": "BUILDING-ABR", "dest": "BUILDING-ABR"}, ...]
+        Spark.post("/paths/batch", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap UW = maps.current().getMap();
+                RoutePair[] pairs = null;
+                try{
+                    pairs = GSON.fromJson(request.body(), RoutePair[].class);
+                } catch (JsonParseException e){
+                    Spark.halt(400, "Body must be an array of start and destination pairs");
+                }
+                if(pairs == null){
+                    Spark.halt(400, "Body must be an array of start and destination pairs");
+                }
+
+                //group the pairs by start so each start building is only searched from once
+                Map<String, List<Integer>> byStart = new LinkedHashMap<>();
+                for(int i = 0; i < pairs.length; i++){
+                    if(pairs[i] == null || !UW.shortNameExists(pairs[i].start)
+                            || !UW.shortNameExists(pairs[i].dest)){
+                        Spark.halt(400, "Building is not part of campus map");
+                    }
+                    byStart.computeIfAbsent(pairs[i].start, start -> new ArrayList<>()).add(i);
+                }
+
+                RoutePair[] batch = pairs;
+                List<Path<Point>> shortestPaths = new ArrayList<>(Collections.nCopies(batch.length, null));
+                byStart.entrySet().parallelStream().forEach(group -> {
+                    List<String> dests = new ArrayList<>();
+                    for(int i : group.getValue()){
+                        dests.add(batch[i].dest);
+                    }
+                    List<Path<Point>> found = UW.findShortestPaths(group.getKey(), dests);
+                    for(int j = 0; j < found.size(); j++){
+                        //each index belongs to exactly one group, so no two threads set the same slot
+                        shortestPaths.set(group.getValue().get(j), found.get(j));
+                    }
+                });
+
+                //write the paths out one at a time rather than building the whole response in memory
+                response.type("application/json");
+                JsonWriter writer = new JsonWriter(new OutputStreamWriter(response.raw().getOutputStream(),
+                                                                          StandardCharsets.UTF_8));
+                writer.beginArray();
+                for(Path<Point> path : shortestPaths){
+                    GSON.toJson(path, PATH_TYPE, writer);
+                }
+                writer.endArray();
+                writer.flush();
+                return "";
             }
         });
 
         Spark.get("/email-directions", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
+                CampusMapHolder.Snapshot snapshot = maps.current();
+                CampusMap UW = snapshot.getMap();
                 String startString = request.queryParams("start");
                 String destString = request.queryParams("dest");
                 if(startString == null || destString == null){
                     Spark.halt(400, "Must have a start and destination building");
                 }
 
+                CachedDirections cached = directionsCache.get(snapshot.getVersion(), "/email-directions", startString, destString);
+                if(cached != null){
+                    response.header("X-Cache", "HIT");
+                    return cached.body;
+                }
+
                 Path<Point> shortestPath = null;
                 try{
                     shortestPath = UW.findShortestPath(startString, destString);
                 } catch (Exception e){
                     Spark.halt(400, "Building is not part of campus map");
                 }
-                Gson gson = new Gson();
-                return gson.toJson(showPath(UW.longNameForShort(startString),
-                                            UW.longNameForShort(destString),
-                                            shortestPath));
+                byte[] body = GSON.toJson(showPath(UW.longNameForShort(startString),
+                                                   UW.longNameForShort(destString),
+                                                   shortestPath)).getBytes(StandardCharsets.UTF_8);
+                response.header("X-Cache", "MISS");
+                directionsCache.put(snapshot.getVersion(), "/email-directions", startString, destString,
+                                    new CachedDirections(shortestPath, body));
+                return body;
             }
         });
+
+        //reports each response cache's size and hit, miss and eviction counts
+        //route: "/admin/cache"
+        Spark.get("/admin/cache", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("/path", pathCache.stats());
+                stats.put("/email-directions", directionsCache.stats());
+                for(Map.Entry<RoutingProfile, ResponseCache<CachedRoute>> cache : profileCaches.entrySet()){
+                    stats.put("/path:" + cache.getKey().getName(), cache.getValue().stats());
+                }
+                return GSON.toJson(stats);
+            }
+        });
+
+        //closes walk-able segments, changes their cost, or undoes either, in order. Each change applies
+        //to both directions of the segment between two points: "closed": true closes it, a "cost"
+        //makes it cost that much, and a change with neither gives it back its cost from the campus data.
+        //Only the cached routes through a changed segment are dropped, unless a segment got cheaper.
+        //Needs the admin token.
+        //route: POST "/admin/edges" with body [{"from": {"x": X, "y": Y}, "to": {"x": X, "y": Y},
+        //       "closed": true|false, "cost": COST}, ...]
+        Spark.post("/admin/edges", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                checkAdmin(request, adminToken);
+                EdgeChange[] changes = null;
+                try{
+                    changes = GSON.fromJson(request.body(), EdgeChange[].class);
+                } catch (JsonParseException e){
+                    Spark.halt(400, "Body must be an array of segment changes");
+                }
+                if(changes == null){
+                    Spark.halt(400, "Body must be an array of segment changes");
+                }
+                CampusMap UW = maps.current().getMap();
+                for(EdgeChange change : changes){
+                    if(change == null || change.from == null || change.to == null
+                            || !UW.hasSegment(change.from, change.to)){
+                        Spark.halt(400, "Segment is not part of campus map");
+                    }
+                    if(change.cost != null && (change.cost.isNaN() || change.cost < 0)){
+                        Spark.halt(400, "Cost cannot be negative");
+                    }
+                }
+
+                //apply the changes to whichever map is current when the new one replaces it
+                CampusMapHolder.Snapshot before;
+                CampusMapHolder.Snapshot after;
+                do{
+                    before = maps.current();
+                    EdgeOverrides overrides = before.getMap().edgeOverrides();
+                    for(EdgeChange change : changes){
+                        overrides = change.applyTo(overrides);
+                    }
+                    CampusMap next = before.getMap().withEdgeOverrides(overrides);
+                    after = next == before.getMap() ? before : maps.replace(before, next);
+                } while(after == null);
+
+                int keptRoutes = 0;
+                if(after != before){
+                    CampusMap next = after.getMap();
+                    keptRoutes += pathCache.carryOver(before.getVersion(), after.getVersion(),
+                                                      route -> next.keepsRoute(route.path));
+                    keptRoutes += directionsCache.carryOver(before.getVersion(), after.getVersion(),
+                                                            directions -> next.keepsRoute(directions.path));
+                    //keepsRoute only knows the default costs, so no profile's routes are kept
+                    for(ResponseCache<CachedRoute> cache : profileCaches.values()){
+                        cache.removeOlderThan(after.getVersion());
+                    }
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("version", after.getVersion());
+                result.put("changedSegments", after.getMap().edgeOverrides().size());
+                result.put("keptRoutes", keptRoutes);
+                return GSON.toJson(result);
+            }
+        });
+
+        //rebuilds the campus map from the server's data and makes it current, answering once it is.
+        //Requests keep being answered from the old map while the new one is built.
+        //Needs the admin token.
+        //route: POST "/admin/reload"
+        Spark.post("/admin/reload", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                checkAdmin(request, adminToken);
+                CampusMapHolder.Snapshot snapshot = null;
+                try{
+                    snapshot = reloader.reload().get();
+                } catch (ExecutionException e){
+                    Spark.halt(500, "Could not reload the campus map: " + e.getCause().getMessage());
+                }
+                return GSON.toJson(Collections.singletonMap("version", snapshot.getVersion()));
+            }
+        });
+    }
+
+    /**
+     * Checks that a request may change the campus map, halting with 403 if no admin token is set
+     * and with 401 if the request does not send it
+     *
+     * @param request the request to check
+     * @param token   the admin token, empty if none is set
+     */
+    private static void checkAdmin(Request request, byte[] token) {
+        if(token.length == 0){
+            Spark.halt(403, "Set " + ADMIN_TOKEN_PROPERTY + " to allow changing the campus map");
+        }
+        String sent = request.headers(ADMIN_TOKEN_HEADER);
+        //compared in constant time so the token cannot be guessed a byte at a time
+        if(sent == null || !MessageDigest.isEqual(token, sent.getBytes(StandardCharsets.UTF_8))){
+            Spark.halt(401, "Missing or wrong " + ADMIN_TOKEN_HEADER);
+        }
+    }
+
+    /**
+     * Reads a coordinate from a query parameter, halting with 400 if it is missing or not a number
+     *
+     * @param request the request to read from
+     * @param name    the name of the query parameter
+     * @return the value of the parameter
+     */
+    private static double coordinate(Request request, String name) {
+        String value = request.queryParams(name);
+        if(value == null){
+            Spark.halt(400, "Must have coordinate " + name);
+        }
+        double coordinate = Double.NaN;
+        try{
+            coordinate = Double.parseDouble(value);
+        } catch (NumberFormatException e){
+            //left as NaN and rejected below
+        }
+        if(!Double.isFinite(coordinate)){
+            Spark.halt(400, "Coordinate " + name + " must be a number");
+        }
+        return coordinate;
+    }
+
+    /**
+     * A cached route between two buildings. On a symmetric campus it also answers the route the
+     * other way, as the reverse of its path, without searching again. The JSON of each direction
+     * is made the first time that direction is asked for.
+     */
+    private static class CachedRoute {
+        private final String start;
+        private final Path<Point> path;
+        private volatile byte[] forward;
+        private volatile byte[] backward;
+
+        /**
+         * @param start the short name of the building path starts at
+         * @param path  the shortest path, or null if there is none
+         */
+        CachedRoute(String start, Path<Point> path) {
+            this.start = start;
+            this.path = path;
+        }
+
+        /**
+         * @param from the short name of the building the requested route starts at, either end of
+         *             this route
+         * @return the JSON of the route starting at 'from'
+         */
+        byte[] json(String from) {
+            if(from.equals(start)){
+                byte[] body = forward;
+                if(body == null){
+                    body = GSON.toJson(path).getBytes(StandardCharsets.UTF_8);
+                    forward = body;
+                }
+                return body;
+            }
+            byte[] body = backward;
+            if(body == null){
+                body = GSON.toJson(path == null ? null : path.reverse()).getBytes(StandardCharsets.UTF_8);
+                backward = body;
+            }
+            return body;
+        }
+    }
+
+    /**
+     * A cached /email-directions response, with the path it describes
+     */
+    private static class CachedDirections {
+        private final Path<Point> path;
+        private final byte[] body;
+
+        CachedDirections(Path<Point> path, byte[] body) {
+            this.path = path;
+            this.body = body;
+        }
+    }
+
+    /**
+     * One segment change of an /admin/edges request
+     */
+    private static class EdgeChange {
+        private Point from;
+        private Point to;
+        private boolean closed;
+        private Double cost;
+
+        /**
+         * @return overrides with this change made to them
+         */
+        EdgeOverrides applyTo(EdgeOverrides overrides) {
+            if(closed){
+                return overrides.close(from, to);
+            }
+            if(cost != null){
+                return overrides.withCost(from, to, cost);
+            }
+            return overrides.reopen(from, to);
+        }
+    }
+
+    /**
+     * One start and destination pair of a batch path request
+     */
+    private static class RoutePair {
+        private String start;
+        private String dest;
     }
 
     private static String showPath(String start, String end, Path<Point> path) {
@@ -55,9 +55,11 @@ public class CORSFilter {
         Filter filter = new Filter() {
             @Override
             public void handle(Request request, Response response) {
-                corsHeaders.forEach(response::header);
+                // setHeader rather than Response#header, which appends a duplicate on the second pass.
+                corsHeaders.forEach(response.raw()::setHeader);
             }
         };
+        Spark.before(filter); // Routes that stream their body commit the headers before any after-filter runs.
         Spark.afterAfter(filter); // Applies this filter even if there's a halt() or exception.
         //
         Logger logger = LoggerFactory.getLogger("CampusPaths Server");
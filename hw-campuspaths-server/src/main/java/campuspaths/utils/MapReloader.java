@@ -0,0 +1,191 @@
+package campuspaths.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pathfinder.CampusMap;
+import pathfinder.CampusMapHolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The MapReloader builds a new campus map from the server's data, on a background thread so no
+ * request waits for the parse or the preprocessing, and then makes it current in a
+ * {@link CampusMapHolder}. Requests that already read the old map finish with it.
+ * <p>
+ * Segments closed or changed in cost on the current map, see {@link CampusMap#edgeOverrides()}, stay
+ * closed or changed on the reloaded one.
+ * <p>
+ * A reload can be asked for directly, or made to happen whenever the data files in a directory
+ * change. Reloads asked for while one is waiting to start are merged into it; one asked for while
+ * a map is being built waits for that build and starts another, so the map made last always
+ * reflects the files as they were after the last change.
+ */
+public class MapReloader {
+
+    /**
+     * how long the watched files must go without changing before they are reloaded, so a file that
+     * is written in several steps is only read once it is whole
+     */
+    private static final long QUIET_MILLIS = 500;
+
+    private final Logger logger = LoggerFactory.getLogger("CampusPaths Server");
+
+    private final CampusMapHolder maps;
+    private final Supplier<CampusMap> loader;
+    private final Consumer<CampusMapHolder.Snapshot> onReplace;
+
+    /**
+     * builds maps one at a time, on a daemon thread
+     */
+    private final ExecutorService builder;
+
+    /**
+     * the reload that has been asked for but not started yet, or null; guarded by this
+     */
+    private Future<CampusMapHolder.Snapshot> queued;
+
+    /**
+     * Creates a new reloader. No map is built until a reload is asked for.
+     *
+     * @param maps      the holder to make each new map current in
+     * @param loader    builds a new campus map from the server's data, throwing if it cannot
+     * @param onReplace told about each new snapshot right after it becomes current, on the thread
+     *                  that built it; used to drop whatever was derived from older maps
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public MapReloader(CampusMapHolder maps, Supplier<CampusMap> loader,
+                       Consumer<CampusMapHolder.Snapshot> onReplace) {
+        if(maps == null || loader == null || onReplace == null) {
+            throw new IllegalArgumentException();
+        }
+        this.maps = maps;
+        this.loader = loader;
+        this.onReplace = onReplace;
+        this.builder = Executors.newSingleThreadExecutor(task -> daemon(task, "campus-map-builder"));
+    }
+
+    /**
+     * Asks for a new campus map to be built and made current.
+     *
+     * @return the reload, which completes with the new current snapshot, or with the exception that
+     * kept the map from being built, in which case the old map stays current
+     */
+    public synchronized Future<CampusMapHolder.Snapshot> reload() {
+        if(queued == null) {
+            queued = builder.submit(this::build);
+        }
+        return queued;
+    }
+
+    /**
+     * Reloads the campus map whenever any of the named files in a directory is created or modified,
+     * once the files have been quiet for a moment. The directory is watched on a daemon thread for
+     * as long as the server runs.
+     *
+     * @param directory the directory holding the data files
+     * @param names     the names of the data files within directory
+     * @throws IllegalArgumentException if either argument is null
+     * @throws UncheckedIOException if directory cannot be watched
+     */
+    public void watch(Path directory, Set<String> names) {
+        if(directory == null || names == null) {
+            throw new IllegalArgumentException();
+        }
+        WatchService watcher;
+        try {
+            watcher = directory.getFileSystem().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                               StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch(IOException e) {
+            throw new UncheckedIOException("Cannot watch " + directory, e);
+        }
+        daemon(() -> watchLoop(watcher, names), "campus-map-watcher").start();
+        logger.info("Watching {} for changes to {}", directory, names);
+    }
+
+    /**
+     * Builds a new map and makes it current, on the builder thread.
+     *
+     * @return the snapshot of the new map
+     */
+    private CampusMapHolder.Snapshot build() {
+        synchronized(this) {
+            // Any reload asked for from now on may follow a change this build has not read.
+            queued = null;
+        }
+        long start = System.nanoTime();
+        CampusMap next;
+        try {
+            next = loader.get();
+        } catch(RuntimeException e) {
+            logger.error("Could not reload the campus map; keeping version {}",
+                         maps.current().getVersion(), e);
+            throw e;
+        }
+        CampusMapHolder.Snapshot snapshot;
+        do {
+            // Carry over the segment changes of whichever map is current when the new one replaces it.
+            CampusMapHolder.Snapshot current = maps.current();
+            snapshot = maps.replace(current, next.withEdgeOverrides(current.getMap().edgeOverrides()));
+        } while(snapshot == null);
+        onReplace.accept(snapshot);
+        logger.info("Reloaded the campus map as version {} in {} ms", snapshot.getVersion(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return snapshot;
+    }
+
+    private void watchLoop(WatchService watcher, Set<String> names) {
+        try {
+            while(true) {
+                if(!changed(watcher.take(), names)) {
+                    continue;
+                }
+                // Wait until the files stop changing, then reload once.
+                WatchKey key;
+                while((key = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed(key, names);
+                }
+                reload();
+            }
+        } catch(InterruptedException | ClosedWatchServiceException e) {
+            // The server is shutting down.
+        }
+    }
+
+    /**
+     * Drains the events of a watch key and readies it for more.
+     *
+     * @return true if any event was for one of the named files
+     */
+    private static boolean changed(WatchKey key, Set<String> names) {
+        boolean changed = false;
+        for(WatchEvent<?> event : key.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW
+               || names.contains(String.valueOf(event.context()))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,274 @@
+package campuspaths.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * The ResponseCache holds finished responses, keyed by the version of the campus map that answered
+ * them, the endpoint that made them and the start and destination they were asked for, so that
+ * repeated requests for the same route can be answered without searching the campus map or
+ * serializing the path again. A response is never served for a different map version than the one
+ * that made it. Callers that know a response serves both directions of a route can put start and
+ * destination in a fixed order, so one entry answers both.
+ * <p>
+ * The cache holds at most a fixed number of responses. It is split into segments, each guarded by
+ * its own lock, so requests for different routes rarely wait on each other; each segment evicts its
+ * least recently used (or, if asked, its oldest) response once it is full.
+ *
+ * @param <V> Type of the cached responses
+ */
+public class ResponseCache<V> {
+
+    /**
+     * The order responses are evicted in once the cache is full
+     */
+    public enum Eviction {
+        /**
+         * evict the response least recently read or written
+         */
+        LRU,
+        /**
+         * evict the response written longest ago
+         */
+        FIFO
+    }
+
+    /**
+     * The most segments the cache is split into
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Each segment is an insertion or access ordered map; only read or written holding its lock
+     */
+    private final List<Segment> segments;
+
+    private final int capacity;
+    private final Eviction eviction;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param capacity the most responses to hold; 0 makes a cache that holds nothing
+     * @param eviction the order to evict responses in once the cache is full
+     * @throws IllegalArgumentException if capacity is negative or eviction is null
+     */
+    public ResponseCache(int capacity, Eviction eviction) {
+        if(capacity < 0 || eviction == null) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        // Small caches get fewer segments, so that no segment is left with room for nothing.
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity)));
+        segments = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            // Spread the capacity so the segments hold exactly capacity responses between them.
+            segments.add(new Segment(capacity / count + (i < capacity % count ? 1 : 0),
+                                     eviction == Eviction.LRU));
+        }
+    }
+
+    /**
+     * Looks up a response, counting a hit or a miss.
+     *
+     * @param version  the version of the campus map the response is for
+     * @param endpoint the endpoint that makes the response
+     * @param start    the start the response was asked for
+     * @param dest     the destination the response was asked for
+     * @return the cached response, or null if there is none
+     */
+    public V get(long version, String endpoint, String start, String dest) {
+        Key key = new Key(version, endpoint, start, dest);
+        Segment segment = segmentFor(key);
+        V body;
+        synchronized(segment) {
+            body = segment.get(key);
+        }
+        (body == null ? misses : hits).increment();
+        return body;
+    }
+
+    /**
+     * Caches a response, replacing any already cached for the same key.
+     *
+     * @param version  the version of the campus map that made the response
+     * @param endpoint the endpoint that makes the response
+     * @param start    the start the response was asked for
+     * @param dest     the destination the response was asked for
+     * @param body     the finished response, which must not be modified afterwards
+     * @throws IllegalArgumentException if body is null
+     */
+    public void put(long version, String endpoint, String start, String dest, V body) {
+        if(body == null) {
+            throw new IllegalArgumentException();
+        }
+        if(capacity == 0) {
+            return;
+        }
+        Key key = new Key(version, endpoint, start, dest);
+        Segment segment = segmentFor(key);
+        synchronized(segment) {
+            segment.put(key, body);
+        }
+    }
+
+    /**
+     * Removes every cached response made by a campus map older than a version, which can never be
+     * served again once that version is current; the counters keep counting.
+     *
+     * @param version the oldest map version to keep responses for
+     */
+    public void removeOlderThan(long version) {
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                segment.keySet().removeIf(key -> key.version < version);
+            }
+        }
+    }
+
+    /**
+     * Moves the responses made by one map version that are still right for a newer version over to
+     * the newer version, and removes every other response older than it. This lets a map that only
+     * differs from the one before it in a few places keep most of the responses of the old one. A
+     * response already cached for the newer version is not replaced.
+     *
+     * @param from the version of the map the newer one was made from
+     * @param to   the newer version
+     * @param keep tells whether a response made by version 'from' is still right for version 'to'
+     * @return the number of responses moved
+     */
+    public int carryOver(long from, long to, Predicate<V> keep) {
+        List<Key> keys = new ArrayList<>();
+        List<V> bodies = new ArrayList<>();
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                Iterator<Map.Entry<Key, V>> entries = segment.entrySet().iterator();
+                while(entries.hasNext()) {
+                    Map.Entry<Key, V> entry = entries.next();
+                    Key key = entry.getKey();
+                    if(key.version < to) {
+                        if(key.version == from && keep.test(entry.getValue())) {
+                            keys.add(new Key(to, key.endpoint, key.start, key.dest));
+                            bodies.add(entry.getValue());
+                        }
+                        entries.remove();
+                    }
+                }
+            }
+        }
+        // The moved responses have new keys, which may belong to other segments.
+        for(int i = 0; i < keys.size(); i++) {
+            Segment segment = segmentFor(keys.get(i));
+            synchronized(segment) {
+                segment.putIfAbsent(keys.get(i), bodies.get(i));
+            }
+        }
+        return keys.size();
+    }
+
+    /**
+     * @return the number of responses cached now
+     */
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the counters of this cache and its settings, for reporting
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("eviction", eviction.name());
+        stats.put("size", size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments.get(h & (segments.size() - 1));
+    }
+
+    /**
+     * One lock's share of the cache, evicting its eldest entry once it holds more than its limit
+     */
+    private final class Segment extends LinkedHashMap<Key, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int limit;
+
+        Segment(int limit, boolean accessOrder) {
+            super(16, 0.75f, accessOrder);
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+            if(size() > limit) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The map version, endpoint, start and destination a response was made for
+     */
+    private static final class Key {
+
+        private final long version;
+        private final String endpoint;
+        private final String start;
+        private final String dest;
+        private final int hash;
+
+        Key(long version, String endpoint, String start, String dest) {
+            this.version = version;
+            this.endpoint = endpoint;
+            this.start = start;
+            this.dest = dest;
+            int h = Long.hashCode(version);
+            h = 31 * h + String.valueOf(endpoint).hashCode();
+            h = 31 * h + String.valueOf(start).hashCode();
+            this.hash = 31 * h + String.valueOf(dest).hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && version == other.version && Objects.equals(endpoint, other.endpoint)
+                   && Objects.equals(start, other.start) && Objects.equals(dest, other.dest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <b>CsrGraph</b> represents an immutable snapshot of a directed graph with Double edge labels,
+ *  stored in compressed sparse row (CSR) form.
+ *
+ * <p>Every node of the snapshot is given a dense integer id in {@code 0..size()-1}. The outgoing edges
+ * of node {@code v} are the edge ids {@code firstEdge(v) .. endEdge(v)-1}, and edge {@code e} leads to
+ * node {@code target(e)} with cost {@code weight(e)}. Because all of the adjacency lives in three flat
+ * arrays, searches over a CsrGraph never hash a label or follow a pointer per relaxation.</p>
+ *
+ * <p>The snapshot does not observe later changes to the Graph it was built from.</p>
+ *
+ * @see IndexedGraph
+ *
+ * @param <N> Type of the node label
+ */
+public final class CsrGraph<N> implements IndexedGraph<N> {
+    /**
+     * Abstract Function:
+     * AF(this): a graph with nodes {labels[0], ..., labels[n-1]} where, for every node v, the edges
+     *              {labels[v] -> labels[targets[e]] with cost weights[e] | offsets[v] <= e < offsets[v+1]}
+     *              are the outgoing edges of labels[v]
+     *
+     * Rep Invariant:
+     *      labels != null && ids != null && offsets != null && targets != null && weights != null &&
+     *      offsets.length == labels.size() + 1 && offsets[0] == 0 &&
+     *      offsets[labels.size()] == targets.length == weights.length &&
+     *      offsets is non-decreasing &&
+     *      0 <= targets[e] < labels.size() for every edge e &&
+     *      ids.get(labels.get(v)) == v for every node v
+     */
+
+    /**
+     * setting for expensive (runtime O(n) or above checks in Graph ADT
+     */
+    private static final boolean DEBUG = false;
+    private final List<N> labels;
+    private final Map<N, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    /**
+     * whether every edge has a reverse of the same cost, null until isSymmetric is first called
+     */
+    private volatile Boolean symmetric;
+
+    /**
+     * Builds a CSR snapshot of every node and edge currently in 'graph'
+     *
+     * @param graph the graph to take a snapshot of
+     * @spec.requires graph != null
+     * @spec.effects Constructs a new CsrGraph with the same nodes and edges as 'graph'
+     */
+    public CsrGraph(Graph<N, Double> graph){
+        Collection<Node<N, Double>> nodes = graph.getNodes();
+        int n = nodes.size();
+        List<N> labelList = new ArrayList<>(n);
+        ids = new HashMap<>();
+        for(Node<N, Double> node : nodes){
+            ids.put(node.getLabel(), labelList.size());
+            labelList.add(node.getLabel());
+        }
+        labels = Collections.unmodifiableList(labelList);
+
+        offsets = new int[n + 1];
+        int edgeCount = 0;
+        for(Node<N, Double> node : nodes){
+            edgeCount += node.getEdges().size();
+        }
+        targets = new int[edgeCount];
+        weights = new double[edgeCount];
+
+        int v = 0;
+        int e = 0;
+        for(Node<N, Double> node : nodes){
+            offsets[v] = e;
+            for(Node<N, Double>.DirectedEdge edge : node.getEdges()){
+                targets[e] = ids.get(edge.getEnd().getLabel());
+                weights[e] = edge.getLabel();
+                e++;
+            }
+            v++;
+        }
+        offsets[n] = e;
+        checkRep();
+    }
+
+    /**
+     * Builds a CsrGraph from its node labels and edge arrays, for example ones read back from a file.
+     * Node v of the new graph is labels.get(v), and its outgoing edges are the edges
+     * {@code offsets[v] .. offsets[v+1]-1} of targets and weights. The arrays are copied.
+     *
+     * @param labels the label of each node, indexed by node id
+     * @param offsets the first edge of each node, followed by the number of edges
+     * @param targets the node each edge leads to
+     * @param weights the cost of each edge
+     * @throws IllegalArgumentException if any argument is null, a label is null or repeated, or the
+     *          arrays do not describe edges between nodes of this graph as above
+     * @spec.effects Constructs a new CsrGraph with the given nodes and edges
+     */
+    public CsrGraph(List<N> labels, int[] offsets, int[] targets, double[] weights){
+        if(labels == null || offsets == null || targets == null || weights == null){
+            throw new IllegalArgumentException("CsrGraph arrays cannot be null");
+        }
+        int n = labels.size();
+        if(offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length
+                || targets.length != weights.length){
+            throw new IllegalArgumentException("CsrGraph arrays have inconsistent lengths");
+        }
+        Map<N, Integer> idMap = new HashMap<>();
+        for(int v = 0; v < n; v++){
+            N label = labels.get(v);
+            if(label == null || idMap.put(label, v) != null){
+                throw new IllegalArgumentException("CsrGraph labels must be non-null and unique");
+            }
+            if(offsets[v] > offsets[v + 1]){
+                throw new IllegalArgumentException("CsrGraph offsets must be non-decreasing");
+            }
+        }
+        for(int target : targets){
+            if(target < 0 || target >= n){
+                throw new IllegalArgumentException("CsrGraph edge leads outside the graph");
+            }
+        }
+        this.labels = Collections.unmodifiableList(new ArrayList<>(labels));
+        this.ids = idMap;
+        this.offsets = offsets.clone();
+        this.targets = targets.clone();
+        this.weights = weights.clone();
+        checkRep();
+    }
+
+    /**
+     * @spec.effects Constructs a new CsrGraph directly from its representation
+     */
+    private CsrGraph(List<N> labels, Map<N, Integer> ids, int[] offsets, int[] targets, double[] weights){
+        this.labels = labels;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        checkRep();
+    }
+
+    /**
+     * Returns the transpose of this graph, which has the same nodes and node ids but every edge
+     * reversed: for every edge u -&gt; v with cost w in this graph, the transpose has an edge v -&gt; u
+     * with cost w. Searching the transpose from a node searches this graph backwards towards it.
+     *
+     * @return the transpose of this graph
+     */
+    public CsrGraph<N> transpose(){
+        int n = labels.size();
+        int[] reverseOffsets = new int[n + 1];
+        for(int target : targets){
+            reverseOffsets[target + 1]++;
+        }
+        for(int v = 0; v < n; v++){
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = new double[weights.length];
+        for(int v = 0; v < n; v++){
+            for(int e = offsets[v]; e < offsets[v + 1]; e++){
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = v;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        return new CsrGraph<>(labels, ids, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Returns a graph with the same nodes and edges as this graph, and the same node and edge ids,
+     * but with the cost of some edges changed, for example to close a segment or to make it cost
+     * more. The new graph is an overlay: it shares its labels and adjacency with this graph, which
+     * it leaves unchanged, and only has its own copy of the edge costs.
+     *
+     * @param changes the new cost of each changed edge, keyed by edge id; positive infinity closes
+     *                an edge
+     * @return a graph with the costs of this graph, except those in 'changes'
+     * @throws IllegalArgumentException if changes is null, holds an edge id outside this graph, or
+     *          holds a cost that is null, NaN or negative
+     */
+    public CsrGraph<N> withWeights(Map<Integer, Double> changes){
+        if(changes == null){
+            throw new IllegalArgumentException("CsrGraph weight changes cannot be null");
+        }
+        double[] changed = weights.clone();
+        for(Map.Entry<Integer, Double> change : changes.entrySet()){
+            Integer edge = change.getKey();
+            Double cost = change.getValue();
+            if(edge == null || edge < 0 || edge >= targets.length){
+                throw new IllegalArgumentException("CsrGraph has no edge " + edge);
+            }
+            if(cost == null || Double.isNaN(cost) || cost < 0){
+                throw new IllegalArgumentException("CsrGraph edge costs must be non-negative");
+            }
+            changed[edge] = cost;
+        }
+        return new CsrGraph<>(labels, ids, offsets, targets, changed);
+    }
+
+    /**
+     * Returns a graph with the same nodes and edges as this graph, and the same node and edge ids,
+     * but with every edge cost replaced, for example by costs computed from attributes of the edges
+     * other than their length. Like {@link #withWeights(Map)} the new graph shares its labels and
+     * adjacency with this graph.
+     *
+     * @param costs the cost of each edge of the new graph, by edge id; positive infinity closes an
+     *              edge. The array is copied.
+     * @return a graph with the adjacency of this graph and the given costs
+     * @throws IllegalArgumentException if costs is null, is not as long as the number of edges of this
+     *          graph, or holds a cost that is NaN or negative
+     */
+    public CsrGraph<N> withWeights(double[] costs){
+        if(costs == null || costs.length != targets.length){
+            throw new IllegalArgumentException("CsrGraph needs one cost for each of its " + targets.length + " edges");
+        }
+        double[] changed = costs.clone();
+        for(double cost : changed){
+            if(Double.isNaN(cost) || cost < 0){
+                throw new IllegalArgumentException("CsrGraph edge costs must be non-negative");
+            }
+        }
+        return new CsrGraph<>(labels, ids, offsets, targets, changed);
+    }
+
+    /**
+     * Builds a new mutable Graph with the same nodes and edges as this graph. Edges that have the
+     * same start, end and cost appear only once in the result, and closed edges, which cost positive
+     * infinity, are left out.
+     *
+     * @return a new Graph with the nodes and edges of this graph
+     */
+    public Graph<N, Double> toGraph(){
+        Graph<N, Double> graph = new Graph<>();
+        List<Node<N, Double>> nodes = new ArrayList<>(labels.size());
+        for(N label : labels){
+            Node<N, Double> node = new Node<>(label);
+            graph.addNode(node);
+            nodes.add(node);
+        }
+        for(int v = 0; v < labels.size(); v++){
+            for(int e = offsets[v]; e < offsets[v + 1]; e++){
+                if(weights[e] != Double.POSITIVE_INFINITY){
+                    graph.addEdge(nodes.get(v), nodes.get(targets[e]), weights[e]);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return the number of nodes in this graph
+     */
+    @Override
+    public int size(){
+        return labels.size();
+    }
+
+    /**
+     * @return the number of directed edges in this graph
+     */
+    @Override
+    public int edgeCount(){
+        return targets.length;
+    }
+
+    /**
+     * Returns the id of the node labeled 'label'
+     * @param label the label of the node
+     * @return the id of the node with the specified label, -1 if no such node is in this graph
+     */
+    @Override
+    public int idOf(N label){
+        Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the label of a node
+     * @param id the id of the node
+     * @return the label of the node with id 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    @Override
+    public N labelOf(int id){
+        return labels.get(id);
+    }
+
+    /**
+     * @return a list of every node label in this graph, indexed by node id
+     */
+    public List<N> labels(){
+        return labels;
+    }
+
+    /**
+     * @param id the id of a node
+     * @return the id of the first outgoing edge of node 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    @Override
+    public int firstEdge(int id){
+        return offsets[id];
+    }
+
+    /**
+     * @param id the id of a node
+     * @return one past the id of the last outgoing edge of node 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    @Override
+    public int endEdge(int id){
+        return offsets[id + 1];
+    }
+
+    /**
+     * @param edge the id of an edge
+     * @return the id of the node that edge 'edge' leads to
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     */
+    @Override
+    public int target(int edge){
+        return targets[edge];
+    }
+
+    /**
+     * @param edge the id of an edge
+     * @return the cost of edge 'edge'
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     */
+    @Override
+    public double weight(int edge){
+        return weights[edge];
+    }
+
+    /**
+     * Returns whether every edge of this graph can be walked back at the same cost. The answer is
+     * computed the first time it is asked for and then remembered.
+     *
+     * @return true iff for every edge u -&gt; v with cost w there is an edge v -&gt; u with cost w
+     */
+    @Override
+    public boolean isSymmetric(){
+        Boolean result = symmetric;
+        if(result == null){
+            // Racing threads compute the same answer, so it does not matter which one is kept.
+            result = IndexedGraph.super.isSymmetric();
+            symmetric = result;
+        }
+        return result;
+    }
+
+    private void checkRep(){
+        assert labels != null && ids != null : "labels not initialized";
+        assert offsets != null && targets != null && weights != null : "edge arrays not initialized";
+        assert offsets.length == labels.size() + 1 : "offsets has the wrong length";
+        assert targets.length == weights.length : "targets and weights differ in length";
+        assert offsets[labels.size()] == targets.length : "offsets does not cover every edge";
+        if(DEBUG) {
+            for(int v = 0; v < labels.size(); v++){
+                assert offsets[v] <= offsets[v + 1] : "offsets is not sorted";
+                assert ids.get(labels.get(v)) == v : "label index is inconsistent";
+            }
+            for(int target : targets){
+                assert target >= 0 && target < labels.size() : "edge leads outside the graph";
+            }
+        }
+    }
+}
@@ -5,6 +5,13 @@ import java.util.*;
 /**
  * <b>Graph</b> represents a mutable directed labeled graph ADT made up of
  *  Nodes and DirectedEdges.
+ *
+ * <p>A Graph is not thread-safe. Any number of threads may read a Graph at once, but only if no
+ * thread changes it or its Nodes any more and it was safely published to them, for example through
+ * a final or volatile field. Code that needs to change a graph that other threads are reading should
+ * change a copy and publish that instead; routing servers should search an immutable
+ * {@link CsrGraph} snapshot.</p>
+ *
  * @param <N> Type of the node label
  * @param <E> Type of the edge label
  */
@@ -0,0 +1,105 @@
+package graph;
+
+/**
+ * <b>IndexedGraph</b> is the read-only view of a directed graph with Double edge costs that routing
+ * searches run on. Every node has a dense integer id in {@code 0..size()-1}, and every edge a dense
+ * integer id in {@code 0..edgeCount()-1}. The outgoing edges of node {@code v} are the edge ids
+ * {@code firstEdge(v) .. endEdge(v)-1}, and edge {@code e} leads to node {@code target(e)} with cost
+ * {@code weight(e)}.
+ *
+ * <p>An edge may cost positive infinity, which closes it: no path can use it, and searches never
+ * follow it.</p>
+ *
+ * <p>Implementations may keep their nodes and edges on the heap, like {@link CsrGraph}, or anywhere
+ * else, such as in a memory-mapped file. An IndexedGraph never changes, so it may be searched by any
+ * number of threads at once.</p>
+ *
+ * @param <N> Type of the node label
+ */
+public interface IndexedGraph<N> {
+
+    /**
+     * @return the number of nodes in this graph
+     */
+    int size();
+
+    /**
+     * @return the number of directed edges in this graph
+     */
+    int edgeCount();
+
+    /**
+     * Returns the id of the node labeled 'label'
+     * @param label the label of the node
+     * @return the id of the node with the specified label, -1 if no such node is in this graph
+     */
+    int idOf(N label);
+
+    /**
+     * Returns the label of a node
+     * @param id the id of the node
+     * @return the label of the node with id 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    N labelOf(int id);
+
+    /**
+     * @param id the id of a node
+     * @return the id of the first outgoing edge of node 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    int firstEdge(int id);
+
+    /**
+     * @param id the id of a node
+     * @return one past the id of the last outgoing edge of node 'id'
+     * @spec.requires 0 &lt;= id &lt; size()
+     */
+    int endEdge(int id);
+
+    /**
+     * @param edge the id of an edge
+     * @return the id of the node that edge 'edge' leads to
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     */
+    int target(int edge);
+
+    /**
+     * @param edge the id of an edge
+     * @return the cost of edge 'edge'
+     * @spec.requires 0 &lt;= edge &lt; edgeCount()
+     */
+    double weight(int edge);
+
+    /**
+     * Returns whether every edge of this graph can be walked back at the same cost: for every edge
+     * u -&gt; v with cost w there is also an edge v -&gt; u with cost w. In a symmetric graph, the
+     * reverse of a minimum cost path from u to v is a minimum cost path from v to u.
+     *
+     * <p>This default checks every edge against the outgoing edges of its target.</p>
+     *
+     * @return true iff this graph is symmetric
+     */
+    default boolean isSymmetric() {
+        for(int v = 0; v < size(); v++) {
+            for(int e = firstEdge(v); e < endEdge(v); e++) {
+                if(!hasEdge(this, target(e), v, weight(e))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true iff 'graph' has an edge from node 'from' to node 'to' with cost 'cost'
+     */
+    private static boolean hasEdge(IndexedGraph<?> graph, int from, int to, double cost) {
+        for(int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+            if(graph.target(e) == to && Double.compare(graph.weight(e), cost) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
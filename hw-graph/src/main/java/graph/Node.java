@@ -7,6 +7,9 @@ import java.util.*;
  *  Abstract value: a Node has a collection of edges represented as
  *                  {e_1, e_2, ... , e_n}
  *
+ *  Like {@link Graph}, a Node is not thread-safe: many threads may read it at once only after every
+ *  thread has stopped changing it.
+ *
  * @param <N> Type of the node label
  * @param <E> Type of the edge label
  */
@@ -0,0 +1,239 @@
+package graph.implTest;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.Node;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CsrGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    Graph<String, Double> graph;
+    Node<String, Double> a, b, c, d;
+
+    @Before
+    public void setUp(){
+        graph = new Graph<>();
+        a = new Node<>("A");
+        b = new Node<>("B");
+        c = new Node<>("C");
+        d = new Node<>("D");
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addEdge(a, b, 1.0);
+        graph.addEdge(a, c, 2.5);
+        graph.addEdge(a, b, 3.0);
+        graph.addEdge(b, c, 4.0);
+        graph.addEdge(c, c, 0.5);
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        CsrGraph<String> csr = new CsrGraph<>(new Graph<String, Double>());
+        assertEquals(0, csr.size());
+        assertEquals(0, csr.edgeCount());
+        assertEquals(-1, csr.idOf("A"));
+    }
+
+    @Test
+    public void testNodeIds() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        assertEquals(4, csr.size());
+        Set<Integer> seen = new HashSet<>();
+        for(String label : new String[]{"A", "B", "C", "D"}){
+            int id = csr.idOf(label);
+            assertTrue(id >= 0 && id < csr.size());
+            assertEquals(label, csr.labelOf(id));
+            seen.add(id);
+        }
+        assertEquals(4, seen.size());
+        assertEquals(-1, csr.idOf("E"));
+    }
+
+    @Test
+    public void testEdges() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        assertEquals(5, csr.edgeCount());
+        assertEquals(edgesOf(a), edgesOf(csr, "A"));
+        assertEquals(edgesOf(b), edgesOf(csr, "B"));
+        assertEquals(edgesOf(c), edgesOf(csr, "C"));
+        int dId = csr.idOf("D");
+        assertEquals(csr.firstEdge(dId), csr.endEdge(dId));
+    }
+
+    @Test
+    public void testSnapshotIgnoresLaterChanges() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        graph.addNode(new Node<>("E"));
+        graph.addEdge(d, a, 7.0);
+        assertEquals(4, csr.size());
+        assertEquals(5, csr.edgeCount());
+        assertEquals(-1, csr.idOf("E"));
+    }
+
+    @Test
+    public void testTranspose() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        CsrGraph<String> reverse = csr.transpose();
+        assertEquals(csr.size(), reverse.size());
+        assertEquals(csr.edgeCount(), reverse.edgeCount());
+        for(String label : new String[]{"A", "B", "C", "D"}){
+            assertEquals(csr.idOf(label), reverse.idOf(label));
+        }
+        Set<String> expected = new HashSet<>();
+        expected.add("A:1.0");
+        expected.add("A:3.0");
+        assertEquals(expected, edgesOf(reverse, "B"));
+        expected.clear();
+        expected.add("A:2.5");
+        expected.add("B:4.0");
+        expected.add("C:0.5");
+        assertEquals(expected, edgesOf(reverse, "C"));
+        assertEquals(new HashSet<String>(), edgesOf(reverse, "A"));
+    }
+
+    @Test
+    public void testFromArrays() {
+        CsrGraph<String> csr = new CsrGraph<>(Arrays.asList("X", "Y", "Z"),
+                new int[]{0, 2, 2, 3}, new int[]{1, 2, 0}, new double[]{1.0, 2.0, 3.0});
+        assertEquals(3, csr.size());
+        assertEquals(3, csr.edgeCount());
+        assertEquals(1, csr.idOf("Y"));
+        Set<String> expected = new HashSet<>();
+        expected.add("Y:1.0");
+        expected.add("Z:2.0");
+        assertEquals(expected, edgesOf(csr, "X"));
+        assertEquals(new HashSet<String>(), edgesOf(csr, "Y"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysRejectsEdgeOutsideGraph() {
+        new CsrGraph<>(Arrays.asList("X", "Y"), new int[]{0, 1, 1}, new int[]{2}, new double[]{1.0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysRejectsRepeatedLabel() {
+        new CsrGraph<>(Arrays.asList("X", "X"), new int[]{0, 0, 0}, new int[0], new double[0]);
+    }
+
+    @Test
+    public void testToGraph() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        Graph<String, Double> copy = csr.toGraph();
+        assertEquals(4, copy.getNodes().size());
+        for(String label : new String[]{"A", "B", "C", "D"}){
+            assertEquals(edgesOf(graph.getNode(label)), edgesOf(copy.getNode(label)));
+        }
+    }
+
+    private static Set<String> edgesOf(Node<String, Double> n){
+        Set<String> edges = new HashSet<>();
+        for(Node<String, Double>.DirectedEdge e : n.getEdges()){
+            edges.add(e.getEnd().getLabel() + ":" + e.getLabel());
+        }
+        return edges;
+    }
+
+    private static Set<String> edgesOf(CsrGraph<String> csr, String label){
+        Set<String> edges = new HashSet<>();
+        int v = csr.idOf(label);
+        for(int e = csr.firstEdge(v); e < csr.endEdge(v); e++){
+            edges.add(csr.labelOf(csr.target(e)) + ":" + csr.weight(e));
+        }
+        return edges;
+    }
+
+    @Test
+    public void testIsSymmetric() {
+        assertFalse(new CsrGraph<>(graph).isSymmetric());
+        assertTrue(new CsrGraph<>(new Graph<String, Double>()).isSymmetric());
+        CsrGraph<String> twoWay = new CsrGraph<>(Arrays.asList("X", "Y", "Z"),
+                new int[]{0, 1, 3, 4}, new int[]{1, 0, 2, 1}, new double[]{1.0, 1.0, 2.0, 2.0});
+        assertTrue(twoWay.isSymmetric());
+        assertTrue(twoWay.transpose().isSymmetric());
+        CsrGraph<String> differentCosts = new CsrGraph<>(Arrays.asList("X", "Y"),
+                new int[]{0, 1, 2}, new int[]{1, 0}, new double[]{1.0, 2.0});
+        assertFalse(differentCosts.isSymmetric());
+    }
+
+    @Test
+    public void testWithWeights() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        int closed = -1;
+        int changed = -1;
+        for(int e = csr.firstEdge(csr.idOf("A")); e < csr.endEdge(csr.idOf("A")); e++){
+            if(csr.target(e) == csr.idOf("C")){
+                closed = e;
+            }
+        }
+        for(int e = csr.firstEdge(csr.idOf("B")); e < csr.endEdge(csr.idOf("B")); e++){
+            changed = e;
+        }
+        Map<Integer, Double> changes = new HashMap<>();
+        changes.put(closed, Double.POSITIVE_INFINITY);
+        changes.put(changed, 9.0);
+        CsrGraph<String> overlay = csr.withWeights(changes);
+        assertEquals(csr.size(), overlay.size());
+        assertEquals(csr.edgeCount(), overlay.edgeCount());
+        for(int e = 0; e < csr.edgeCount(); e++){
+            assertEquals(csr.target(e), overlay.target(e));
+        }
+        assertEquals(2.5, csr.weight(closed), 0.0);
+        assertEquals(4.0, csr.weight(changed), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, overlay.weight(closed), 0.0);
+        assertEquals(9.0, overlay.weight(changed), 0.0);
+
+        Graph<String, Double> copy = overlay.toGraph();
+        assertEquals(new HashSet<>(Arrays.asList("B:1.0", "B:3.0")), edgesOf(copy.getNode("A")));
+        assertEquals(new HashSet<>(Arrays.asList("C:9.0")), edgesOf(copy.getNode("B")));
+        assertEquals(edgesOf(graph.getNode("A")), edgesOf(csr.toGraph().getNode("A")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithNegativeWeight() {
+        new CsrGraph<>(graph).withWeights(Collections.singletonMap(0, -1.0));
+    }
+
+    @Test
+    public void testWithAllWeights() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        double[] costs = new double[csr.edgeCount()];
+        for(int e = 0; e < costs.length; e++){
+            costs[e] = e == 0 ? Double.POSITIVE_INFINITY : csr.weight(e) * 2;
+        }
+        CsrGraph<String> overlay = csr.withWeights(costs);
+        costs[1] = 100.0;
+        assertEquals(Double.POSITIVE_INFINITY, overlay.weight(0), 0.0);
+        for(int e = 1; e < csr.edgeCount(); e++){
+            assertEquals(csr.target(e), overlay.target(e));
+            assertEquals(csr.weight(e) * 2, overlay.weight(e), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithWrongNumberOfWeights() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        csr.withWeights(new double[csr.edgeCount() + 1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithWeightOfMissingEdge() {
+        new CsrGraph<>(graph).withWeights(Collections.singletonMap(5, 1.0));
+    }
+}
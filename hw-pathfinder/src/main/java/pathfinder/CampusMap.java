@@ -11,19 +11,28 @@
 
 package pathfinder;
 
+import graph.CsrGraph;
 import graph.Graph;
-import graph.Node;
+import pathfinder.datastructures.KdTree;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
-import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusGraphBuilder;
+import pathfinder.parser.CampusGraphFile;
 import pathfinder.parser.CampusPathsParser;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This represents an immutable campus map of UW, also cached a version of abbreviated names mapped
  * to the longer names for efficient access.
+ *
+ * <p>A CampusMap is thread-safe: any number of threads may route on it at once without locking.
+ * Everything it is built from is assigned once, to final fields, while it is constructed and never
+ * changed, so it is safely published to every thread. The structures it builds later, on first use,
+ * are published through volatile fields or a ConcurrentHashMap. A map that needs to change is
+ * replaced as a whole by a new CampusMap; see {@link CampusMapHolder}.</p>
  */
 public class CampusMap implements ModelAPI {
 
@@ -42,17 +51,107 @@ public class CampusMap implements ModelAPI {
     /**
      * map of short name abbreviations to the long names they represent
      */
-    private Map<String, String> abbrevToLongName;
+    private final Map<String, String> abbrevToLongName;
 
     /**
      * map of short name abbreviations to the points they represent
      */
-    private Map<String, Point> abbrevToPoint;
+    private final Map<String, Point> abbrevToPoint;
 
     /**
-     * graph representing campus map
+     * graph representing campus map, null until the DIJKSTRA strategy is first used
      */
-    private Graph<Point, Double> campusMap;
+    private volatile Graph<Point, Double> campusMap;
+
+    /**
+     * read-only compressed graph of the campus map as read from its data, built straight from the
+     * interned node ids of the parsed data
+     */
+    private final CsrGraph<Point> baseMap;
+
+    /**
+     * the segments whose cost in compactMap differs from their cost in baseMap
+     */
+    private final EdgeOverrides overrides;
+
+    /**
+     * what walking each segment is like beyond its length, for routing profiles
+     */
+    private final EdgeAttributes attributes;
+
+    /**
+     * attributes copied into arrays by the edge ids of baseMap, which compactMap shares
+     */
+    private final EdgeAttributes.Table attributeTable;
+
+    /**
+     * the graph, and whatever is precomputed over it, for each routing profile other than
+     * SHORTEST that has been routed with, each built on first use
+     */
+    private final Map<RoutingProfile, ProfileGraph> profiles;
+
+    /**
+     * baseMap with overrides applied, sharing its node and edge ids, and used by every strategy
+     * except DIJKSTRA
+     */
+    private final CsrGraph<Point> compactMap;
+
+    /**
+     * the edges, keyed by segmentKey, whose cost differs from the map this one was made from by
+     * withEdgeOverrides, or null if this map was not made that way or a route of that map is not
+     * necessarily still a shortest route of this one
+     */
+    private final Set<Long> changedSegments;
+
+    /**
+     * transpose of compactMap, searched backwards from the destination by bidirectional search
+     */
+    private final CsrGraph<Point> reverseMap;
+
+    /**
+     * map of short name abbreviations to the index of their building among the sites of routeTable
+     */
+    private final Map<String, Integer> buildingIndex;
+
+    /**
+     * spatial index over the buildings, where the index of each building is its index in buildingIndex
+     */
+    private final KdTree buildingTree;
+
+    /**
+     * short name abbreviation of each building, by its index in buildingIndex
+     */
+    private final String[] buildingByIndex;
+
+    /**
+     * routes between every pair of buildings, null until the PRECOMPUTED strategy is first used
+     */
+    private volatile RouteTable<Point> routeTable;
+
+    /**
+     * contraction hierarchy of compactMap, null until the CONTRACTION_HIERARCHY strategy is first used
+     */
+    private volatile ContractionHierarchy<Point> hierarchy;
+
+    /**
+     * shortest path trees from the buildings that have been asked for one, keyed by short name
+     */
+    private final Map<String, ShortestPathTree<Point>> treeCache;
+
+    /**
+     * straight-line distance bound over compactMap, used by A*
+     */
+    private final EuclideanHeuristic heuristic;
+
+    /**
+     * spatial index over the nodes of compactMap, where the index of each point is its node id
+     */
+    private final KdTree spatialIndex;
+
+    /**
+     * search algorithm used to answer findShortestPath
+     */
+    private final RoutingStrategy strategy;
 
     private static final boolean DEBUG = false;
 
@@ -61,42 +160,271 @@ public class CampusMap implements ModelAPI {
      * Essentially this represents a map of all the walk-able segments on the UW campus
      */
     public CampusMap(){
-        abbrevToLongName = new HashMap<>();
-        abbrevToPoint = new HashMap<>();
-        campusMap = new Graph<>();
-
-        Iterator<CampusBuilding> itr = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv").iterator();
-        List<CampusPath> cpLst = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
-
-        //initialize the map of shortNames to longNames and all the Nodes of the graph
-        while(itr.hasNext()){
-            CampusBuilding cb = itr.next();
-            abbrevToLongName.put(cb.getShortName(), cb.getLongName());
-
-            Point pt = new Point(cb.getX(), cb.getY());
-            abbrevToPoint.put(cb.getShortName(), pt);
-            campusMap.addNode(new Node<Point, Double>(pt));
-        }
-
-        //initialize the edges
-        for(CampusPath cp: cpLst){
-            Node<Point, Double> start = campusMap.getNode(new Point(cp.getX1(), cp.getY1()));
-            //start not in graph
-            if(start == null){
-                start = new Node<>(new Point(cp.getX1(), cp.getY1()));
-                campusMap.addNode(start);
+        this(RoutingStrategy.DIJKSTRA);
+    }
+
+    /**
+     * Creates a new CampusMap based on the data in campus_buildings.tsv and campus_paths.tsv that
+     * answers shortest path queries with an already preprocessed contraction hierarchy of the campus.
+     *
+     * @param hierarchy a contraction hierarchy of a graph holding every walk-able segment on campus
+     * @throws IllegalArgumentException if hierarchy is null
+     */
+    public CampusMap(ContractionHierarchy<Point> hierarchy){
+        this(RoutingStrategy.CONTRACTION_HIERARCHY, readTsvFiles(), requireNonNull(hierarchy));
+    }
+
+    /**
+     * Creates a new CampusMap based on the data in campus_buildings.tsv and campus_paths.tsv that
+     * answers shortest path queries with the given search algorithm.
+     *
+     * @param strategy the search algorithm findShortestPath should use
+     * @throws IllegalArgumentException if strategy is null
+     */
+    public CampusMap(RoutingStrategy strategy){
+        this(requireNonNull(strategy), readTsvFiles(), null);
+    }
+
+    /**
+     * Creates a new CampusMap from a graph file written by {@link CampusGraphFile}, instead of from
+     * campus_buildings.tsv and campus_paths.tsv, that answers shortest path queries with the given
+     * search algorithm.
+     *
+     * @param strategy  the search algorithm findShortestPath should use
+     * @param graphFile the graph file to load the campus from
+     * @throws IllegalArgumentException if strategy or graphFile is null
+     * @throws CampusPathsParser.ParserException if graphFile cannot be read or is not a graph file
+     */
+    public CampusMap(RoutingStrategy strategy, java.nio.file.Path graphFile){
+        this(requireNonNull(strategy), readGraphFile(requireNonNull(graphFile)), null);
+    }
+
+    /**
+     * Creates a new CampusMap from campus buildings and campus paths files on disk, in the same
+     * formats as campus_buildings.tsv and campus_paths.tsv, that answers shortest path queries with
+     * the given search algorithm. The paths file is parsed in parallel on the common fork-join pool;
+     * the map is the same as one built by parsing the files sequentially.
+     *
+     * @param strategy      the search algorithm findShortestPath should use
+     * @param buildingsFile the campus buildings file
+     * @param pathsFile     the campus paths file
+     * @throws IllegalArgumentException if any argument is null
+     * @throws CampusPathsParser.ParserException if either file cannot be read or parsed
+     */
+    public CampusMap(RoutingStrategy strategy, java.nio.file.Path buildingsFile, java.nio.file.Path pathsFile){
+        this(requireNonNull(strategy), readFiles(requireNonNull(buildingsFile), requireNonNull(pathsFile)), null);
+    }
+
+    /**
+     * Fills in the building names and everything derived from the campus graph, and runs any
+     * preprocessing strategy needs. Every field but the lazily built ones is assigned here, once,
+     * and the lazily built ones are volatile, so a CampusMap is safely published to any thread that
+     * gets a reference to it, however it gets it.
+     *
+     * @param strategy  the search algorithm findShortestPath should use
+     * @param data      the buildings and walking graph of campus
+     * @param hierarchy a contraction hierarchy of data's graph, or null to build one when needed
+     */
+    private CampusMap(RoutingStrategy strategy, CampusData data, ContractionHierarchy<Point> hierarchy){
+        this.strategy = strategy;
+        this.baseMap = data.graph;
+        this.overrides = EdgeOverrides.none();
+        this.attributes = EdgeAttributes.none();
+        this.attributeTable = attributes.tableFor(baseMap);
+        this.profiles = new ConcurrentHashMap<>();
+        this.compactMap = data.graph;
+        this.changedSegments = null;
+        this.hierarchy = hierarchy;
+        Map<String, String> longNames = new HashMap<>();
+        Map<String, Point> points = new HashMap<>();
+        for(CampusBuilding cb : data.buildings){
+            longNames.put(cb.getShortName(), cb.getLongName());
+            points.put(cb.getShortName(), new Point(cb.getX(), cb.getY()));
+        }
+        abbrevToLongName = Collections.unmodifiableMap(longNames);
+        abbrevToPoint = Collections.unmodifiableMap(points);
+        reverseMap = compactMap.transpose();
+        heuristic = new EuclideanHeuristic(compactMap);
+        List<Point> nodes = new ArrayList<>(compactMap.size());
+        for(int v = 0; v < compactMap.size(); v++){
+            nodes.add(compactMap.labelOf(v));
+        }
+        spatialIndex = new KdTree(nodes);
+        treeCache = new ConcurrentHashMap<>();
+        Map<String, Integer> indices = new HashMap<>();
+        buildingByIndex = new String[abbrevToPoint.size()];
+        List<Point> buildingPoints = new ArrayList<>(abbrevToPoint.size());
+        for(String shortName : abbrevToPoint.keySet()){
+            buildingByIndex[indices.size()] = shortName;
+            indices.put(shortName, indices.size());
+            buildingPoints.add(abbrevToPoint.get(shortName));
+        }
+        buildingIndex = Collections.unmodifiableMap(indices);
+        buildingTree = new KdTree(buildingPoints);
+        if(strategy == RoutingStrategy.PRECOMPUTED){
+            getRouteTable();
+        }
+        if(strategy == RoutingStrategy.CONTRACTION_HIERARCHY){
+            getHierarchy();
+        }
+        checkRep();
+    }
+
+    /**
+     * Makes a map of the same campus as another, with different edge overrides or edge attributes.
+     * Everything that only depends on the points and buildings of campus is shared with the other
+     * map. If the overrides are the same, so are the default edge costs, and everything built over
+     * them is shared too, so only the routing profiles start over. Otherwise everything that depends
+     * on edge costs is derived again, except the precomputed routes, of which only those through a
+     * changed edge are searched again, and the contraction hierarchy, which is only built again if
+     * some edge cost changed, and then not until it is first routed with.
+     *
+     * @param previous   the map to derive this one from
+     * @param overrides  the segment changes to apply to the base graph of previous
+     * @param attributes the attributes of the segments of campus
+     */
+    private CampusMap(CampusMap previous, EdgeOverrides overrides, EdgeAttributes attributes){
+        this.strategy = previous.strategy;
+        this.baseMap = previous.baseMap;
+        this.overrides = overrides;
+        this.attributes = attributes;
+        this.attributeTable = attributes == previous.attributes ? previous.attributeTable
+                                                                : attributes.tableFor(baseMap);
+        this.profiles = new ConcurrentHashMap<>();
+        abbrevToLongName = previous.abbrevToLongName;
+        abbrevToPoint = previous.abbrevToPoint;
+        spatialIndex = previous.spatialIndex;
+        buildingIndex = previous.buildingIndex;
+        buildingByIndex = previous.buildingByIndex;
+        buildingTree = previous.buildingTree;
+        if(overrides == previous.overrides){
+            this.compactMap = previous.compactMap;
+            this.changedSegments = Collections.emptySet();
+            this.campusMap = previous.campusMap;
+            this.hierarchy = previous.hierarchy;
+            reverseMap = previous.reverseMap;
+            heuristic = previous.heuristic;
+            // The trees only depend on compactMap, which both maps share.
+            treeCache = previous.treeCache;
+            routeTable = previous.routeTable;
+        } else {
+            Map<Integer, Double> weights = new HashMap<>();
+            overrides.forEach((a, b, cost) -> {
+                overrideEdges(baseMap, baseMap.idOf(a), baseMap.idOf(b), cost, weights);
+                overrideEdges(baseMap, baseMap.idOf(b), baseMap.idOf(a), cost, weights);
+            });
+            this.compactMap = baseMap.withWeights(weights);
+            this.changedSegments = changedSegments(previous.compactMap, compactMap);
+            // Changing what a segment costs can call for shortcuts the old hierarchy's witness
+            // searches left out, so it is only kept if every edge costs what it did.
+            this.hierarchy = changedSegments != null && changedSegments.isEmpty() ? previous.hierarchy : null;
+            reverseMap = compactMap.transpose();
+            heuristic = new EuclideanHeuristic(compactMap);
+            treeCache = new ConcurrentHashMap<>();
+            RouteTable<Point> table = previous.routeTable;
+            routeTable = table == null ? null : table.reweighted(compactMap);
+        }
+        if(strategy == RoutingStrategy.PRECOMPUTED){
+            getRouteTable();
+        }
+        checkRep();
+    }
+
+    /**
+     * Gives every edge of graph from node 'from' to node 'to' the cost 'cost' in weights, if both
+     * nodes are in graph
+     */
+    private static void overrideEdges(CsrGraph<Point> graph, int from, int to, double cost,
+                                      Map<Integer, Double> weights){
+        if(from == -1 || to == -1){
+            return;
+        }
+        for(int e = graph.firstEdge(from); e < graph.endEdge(from); e++){
+            if(graph.target(e) == to){
+                weights.put(e, cost);
             }
-            Node<Point, Double> end = campusMap.getNode(new Point(cp.getX2(), cp.getY2()));
-            //end not in graph
-            if(end == null){
-                end = new Node<>(new Point(cp.getX2(), cp.getY2()));
-                campusMap.addNode(end);
+        }
+    }
+
+    /**
+     * @return the keys of the edges whose cost differs between two graphs with the same nodes and
+     * edges, or null if an edge got cheaper or only one of the graphs is symmetric, so that a
+     * shortest route of before may not be one of after even if it uses no changed edge
+     */
+    private static Set<Long> changedSegments(CsrGraph<Point> before, CsrGraph<Point> after){
+        Set<Long> changed = new HashSet<>();
+        for(int v = 0; v < before.size(); v++){
+            for(int e = before.firstEdge(v); e < before.endEdge(v); e++){
+                int compare = Double.compare(after.weight(e), before.weight(e));
+                if(compare < 0){
+                    return null;
+                }
+                if(compare > 0){
+                    changed.add(segmentKey(v, before.target(e)));
+                }
             }
+        }
+        return before.isSymmetric() == after.isSymmetric() ? changed : null;
+    }
 
-            campusMap.addEdge(start, end, cp.getDistance());
-            campusMap.addEdge(end, start, cp.getDistance());
+    /**
+     * @return a key identifying the edges from node 'from' to node 'to'
+     */
+    private static long segmentKey(int from, int to){
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    /**
+     * The buildings and walking graph of campus, read from one of the sources a CampusMap can be
+     * built from
+     */
+    private static final class CampusData {
+        private final List<CampusBuilding> buildings;
+        private final CsrGraph<Point> graph;
+
+        CampusData(List<CampusBuilding> buildings, CsrGraph<Point> graph){
+            this.buildings = buildings;
+            this.graph = graph;
         }
-        checkRep();
+    }
+
+    /**
+     * @return the campus read from campus_buildings.tsv and campus_paths.tsv
+     */
+    private static CampusData readTsvFiles(){
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        CampusGraphBuilder builder = new CampusGraphBuilder(buildings);
+        CampusPathsParser.parseCampusPaths("campus_paths.tsv", builder);
+        return new CampusData(buildings, builder.build());
+    }
+
+    /**
+     * @return the campus read from a graph file written by {@link CampusGraphFile}
+     */
+    private static CampusData readGraphFile(java.nio.file.Path graphFile){
+        CampusGraphFile file = CampusGraphFile.load(graphFile);
+        return new CampusData(file.getBuildings(), file.getGraph());
+    }
+
+    /**
+     * @return the campus read from buildings and paths files on disk, parsing the paths in parallel
+     */
+    private static CampusData readFiles(java.nio.file.Path buildingsFile, java.nio.file.Path pathsFile){
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingsFile);
+        CampusGraphBuilder builder = new CampusGraphBuilder(buildings);
+        CampusPathsParser.parseCampusPathsParallel(pathsFile, builder);
+        return new CampusData(buildings, builder.build());
+    }
+
+    /**
+     * @return value, checked before any work is done with it
+     * @throws IllegalArgumentException if value is null
+     */
+    private static <T> T requireNonNull(T value){
+        if(value == null){
+            throw new IllegalArgumentException();
+        }
+        return value;
     }
 
     /**
@@ -129,7 +457,7 @@ public class CampusMap implements ModelAPI {
     @Override
     public Map<String, String> buildingNames() {
         checkRep();
-        return Collections.unmodifiableMap(abbrevToLongName);
+        return abbrevToLongName;
     }
 
     /**
@@ -145,10 +473,580 @@ public class CampusMap implements ModelAPI {
      */
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(startShortName, endShortName, strategy, null);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings using the given
+     * search algorithm.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param strategy       The search algorithm to find the path with.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or {@code strategy} is {@literal null}.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingStrategy strategy) {
+        return findShortestPath(startShortName, endShortName, strategy, null);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings using the given
+     * search algorithm, and counts the work the search did.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param strategy       The search algorithm to find the path with.
+     * @param stats          Record to add the work done to, or {@literal null} to not count it.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or {@code strategy} is {@literal null}.
+     * @spec.modifies stats
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingStrategy strategy,
+                                        SearchStats stats) {
         checkRep();
-        return DijkstraUtil.dijkstraSearch(campusMap,
-                abbrevToPoint.get(startShortName),
-                abbrevToPoint.get(endShortName));
+        if(strategy == null){
+            throw new IllegalArgumentException();
+        }
+        Point start = abbrevToPoint.get(startShortName);
+        Point end = abbrevToPoint.get(endShortName);
+        if(strategy == RoutingStrategy.PRECOMPUTED){
+            if(start == null || end == null){
+                throw new IllegalArgumentException();
+            }
+            return getRouteTable().path(buildingIndex.get(startShortName),
+                                        buildingIndex.get(endShortName));
+        }
+        return search(start, end, strategy, stats);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the points of the walking graph nearest to two
+     * coordinates, using the given search algorithm, and counts the work the search did. Since the
+     * precomputed routes only join buildings, the PRECOMPUTED strategy searches with A* instead.
+     *
+     * @param startX   The x coordinate to start from.
+     * @param startY   The y coordinate to start from.
+     * @param endX     The x coordinate to end at.
+     * @param endY     The y coordinate to end at.
+     * @param strategy The search algorithm to find the path with.
+     * @param stats    Record to add the work done to, or {@literal null} to not count it.
+     * @return A path between the points nearest to {@code (startX, startY)} and {@code (endX, endY)},
+     * or {@literal null} if none exists.
+     * @throws IllegalArgumentException if any coordinate is NaN or {@code strategy} is {@literal null}.
+     * @spec.modifies stats
+     */
+    public Path<Point> findShortestPath(double startX, double startY, double endX, double endY,
+                                        RoutingStrategy strategy, SearchStats stats) {
+        checkRep();
+        if(strategy == null){
+            throw new IllegalArgumentException();
+        }
+        Point start = nearestPoint(startX, startY);
+        Point end = nearestPoint(endX, endY);
+        return search(start, end, strategy == RoutingStrategy.PRECOMPUTED ? RoutingStrategy.ASTAR : strategy,
+                      stats);
+    }
+
+    /**
+     * Finds the point of the walking graph nearest to a coordinate, by straight-line distance.
+     *
+     * @param x The x coordinate to search from.
+     * @param y The y coordinate to search from.
+     * @return The point of this campus map nearest to {@code (x, y)}, or {@literal null} if the map
+     * has no points.
+     * @throws IllegalArgumentException if x or y is NaN.
+     */
+    public Point nearestPoint(double x, double y) {
+        int id = spatialIndex.nearest(x, y);
+        return id == -1 ? null : compactMap.labelOf(id);
+    }
+
+    /**
+     * Finds the points of the walking graph nearest to a coordinate, by straight-line distance.
+     *
+     * @param x The x coordinate to search from.
+     * @param y The y coordinate to search from.
+     * @param k The number of points to find.
+     * @return The {@code k} points of this campus map nearest to {@code (x, y)}, nearest first, or
+     * every point if there are fewer than {@code k}.
+     * @throws IllegalArgumentException if x or y is NaN, or k is negative.
+     */
+    public List<Point> nearestPoints(double x, double y, int k) {
+        int[] ids = spatialIndex.nearest(x, y, k);
+        List<Point> points = new ArrayList<>(ids.length);
+        for(int id : ids){
+            points.add(compactMap.labelOf(id));
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    /**
+     * Finds the buildings within a straight-line distance of a coordinate.
+     *
+     * @param x      The x coordinate to search from.
+     * @param y      The y coordinate to search from.
+     * @param radius The greatest straight-line distance, in the units of the map's coordinates, to
+     *               return buildings at.
+     * @return A mapping from the short name of every building at most {@code radius} from
+     * {@code (x, y)} to its straight-line distance, iterating nearest first.
+     * @throws IllegalArgumentException if x, y or radius is NaN, or radius is negative.
+     */
+    public Map<String, Double> buildingsWithin(double x, double y, double radius) {
+        checkRep();
+        Map<String, Double> nearby = new LinkedHashMap<>();
+        for(int i : buildingTree.withinRadius(x, y, radius)){
+            Point building = abbrevToPoint.get(buildingByIndex[i]);
+            nearby.put(buildingByIndex[i], Math.hypot(x - building.getX(), y - building.getY()));
+        }
+        return Collections.unmodifiableMap(nearby);
+    }
+
+    /**
+     * Finds the buildings within a walking distance of the point of the walking graph nearest to a
+     * coordinate. The search stops once it has settled every point within {@code maxCost}, and only
+     * the buildings close enough in a straight line to possibly be within it are checked.
+     *
+     * @param x       The x coordinate to search from.
+     * @param y       The y coordinate to search from.
+     * @param maxCost The greatest walking distance, in the units of path costs, to return buildings at.
+     * @return A mapping from the short name of every building whose shortest path from the point
+     * nearest to {@code (x, y)} costs at most {@code maxCost} to that cost, iterating cheapest first.
+     * @throws IllegalArgumentException if x, y or maxCost is NaN, or maxCost is negative.
+     */
+    public Map<String, Double> buildingsWithinWalk(double x, double y, double maxCost) {
+        checkRep();
+        if(Double.isNaN(maxCost) || maxCost < 0){
+            throw new IllegalArgumentException();
+        }
+        Point start = nearestPoint(x, y);
+        if(start == null){
+            return Collections.emptyMap();
+        }
+        ShortestPathTree<Point> tree = IndexedDijkstra.shortestPathTree(compactMap, start, maxCost);
+        // No path is cheaper than the scaled straight-line distance, so farther buildings are skipped.
+        double reach = heuristic.getScale() > 0 ? maxCost / heuristic.getScale() : Double.POSITIVE_INFINITY;
+        List<String> reached = new ArrayList<>();
+        for(int i : buildingTree.withinRadius(start.getX(), start.getY(), reach)){
+            Point building = abbrevToPoint.get(buildingByIndex[i]);
+            if(tree.isReachable(building)){
+                reached.add(buildingByIndex[i]);
+            }
+        }
+        reached.sort(Comparator.comparingDouble((String name) -> tree.costTo(abbrevToPoint.get(name)))
+                               .thenComparing(Comparator.naturalOrder()));
+        Map<String, Double> nearby = new LinkedHashMap<>();
+        for(String name : reached){
+            nearby.put(name, tree.costTo(abbrevToPoint.get(name)));
+        }
+        return Collections.unmodifiableMap(nearby);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between two points of the walking graph with any strategy
+     * but PRECOMPUTED, which only knows the buildings.
+     *
+     * @throws IllegalArgumentException if start or end is null or not in the walking graph
+     */
+    private Path<Point> search(Point start, Point end, RoutingStrategy strategy, SearchStats stats) {
+        switch(strategy){
+            case INDEXED_DIJKSTRA:
+                return IndexedDijkstra.dijkstraSearch(compactMap, start, end, stats);
+            case ASTAR:
+                return IndexedDijkstra.aStarSearch(compactMap, heuristic, start, end, stats);
+            case BIDIRECTIONAL:
+                return IndexedDijkstra.bidirectionalSearch(compactMap, reverseMap, start, end, stats);
+            case CONTRACTION_HIERARCHY:
+                if(start == null || end == null){
+                    throw new IllegalArgumentException();
+                }
+                return getHierarchy().findShortestPath(start, end, stats);
+            default:
+                return DijkstraUtil.dijkstraSearch(getCampusMap(), start, end, stats);
+        }
+    }
+
+    /**
+     * Finds the shortest paths, by distance, from the provided building to every point on campus it
+     * can reach. The tree for each building is computed once and then reused.
+     *
+     * @param startShortName The short name of the building every path starts at.
+     * @return A tree of the shortest paths from {@code startShortName}.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null}, or not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public ShortestPathTree<Point> shortestPathTree(String startShortName) {
+        checkRep();
+        Point start = startShortName == null ? null : abbrevToPoint.get(startShortName);
+        if(start == null){
+            throw new IllegalArgumentException();
+        }
+        return treeCache.computeIfAbsent(startShortName,
+                                         name -> IndexedDijkstra.shortestPathTree(compactMap, start));
+    }
+
+    /**
+     * Finds the shortest paths, by distance, from one building to each of several buildings, with
+     * a single search.
+     *
+     * @param startShortName The short name of the building every path starts at.
+     * @param endShortNames  The short names of the buildings to find paths to.
+     * @return A list holding, for each element of {@code endShortNames} in order, a path from
+     * {@code startShortName} to that building, or {@literal null} if none exists.
+     * @throws IllegalArgumentException if {@code endShortNames} is {@literal null}, or
+     *                                  {@code startShortName} or any of {@code endShortNames} are
+     *                                  {@literal null} or not valid short names of buildings in this
+     *                                  campus map.
+     */
+    public List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+        if(endShortNames == null){
+            throw new IllegalArgumentException();
+        }
+        List<Point> ends = new ArrayList<>(endShortNames.size());
+        for(String endShortName : endShortNames){
+            Point end = endShortName == null ? null : abbrevToPoint.get(endShortName);
+            if(end == null){
+                throw new IllegalArgumentException();
+            }
+            ends.add(end);
+        }
+        ShortestPathTree<Point> tree = shortestPathTree(startShortName);
+        List<Path<Point>> paths = new ArrayList<>(ends.size());
+        for(Point end : ends){
+            paths.add(tree.pathTo(end));
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the cost of the shortest path, by distance, from the provided building to every building
+     * in this campus map, with a single search.
+     *
+     * @param startShortName The short name of the building every path starts at.
+     * @return A mapping from the short name of every building reachable from {@code startShortName}
+     * to the cost of the shortest path there.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null}, or not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public Map<String, Double> distancesFrom(String startShortName) {
+        ShortestPathTree<Point> tree = shortestPathTree(startShortName);
+        Map<String, Double> distances = new HashMap<>();
+        for(Map.Entry<String, Point> building : abbrevToPoint.entrySet()){
+            if(tree.isReachable(building.getValue())){
+                distances.put(building.getKey(), tree.costTo(building.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(distances);
+    }
+
+    /**
+     * Finds up to k different routes, by distance, between two buildings, cheapest first. No route
+     * visits a point twice, and the first is a shortest path. On a symmetric campus the shortest path
+     * tree of {@code endShortName} is shared with {@link #shortestPathTree(String)}, so asking again
+     * for alternatives to the same building does not search the whole campus again.
+     *
+     * @param startShortName The short name of the building at the beginning of the routes.
+     * @param endShortName   The short name of the building at the end of the routes.
+     * @param k              The most routes to find.
+     * @param stats          Record to add the work done to, or {@literal null} to not count it.
+     * @return The cheapest routes from {@code startShortName} to {@code endShortName}, cheapest first;
+     * fewer than k if there are not k, and none if {@code endShortName} cannot be reached.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortName} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or k is negative.
+     * @spec.modifies stats
+     */
+    public List<Path<Point>> findAlternativePaths(String startShortName, String endShortName, int k,
+                                                  SearchStats stats) {
+        checkRep();
+        Point start = startShortName == null ? null : abbrevToPoint.get(startShortName);
+        Point end = endShortName == null ? null : abbrevToPoint.get(endShortName);
+        if(start == null || end == null || k < 0){
+            throw new IllegalArgumentException();
+        }
+        if(!compactMap.isSymmetric()){
+            return KShortestPaths.kShortestPaths(compactMap, reverseMap, start, end, k, stats);
+        }
+        return KShortestPaths.kShortestPaths(compactMap, shortestPathTree(endShortName), compactMap.idOf(start),
+                                             compactMap.idOf(end), k, stats);
+    }
+
+    /**
+     * Finds the cheapest path between two buildings under a routing profile, for example one that
+     * avoids stairs. {@link RoutingProfile#SHORTEST} routes exactly as
+     * {@link #findShortestPath(String, String, RoutingStrategy, SearchStats)} does with this map's
+     * strategy. Any other profile is routed on a graph of its own costs, computed the first time the
+     * profile is used on this map, with a contraction hierarchy of its own if this map's strategy is
+     * CONTRACTION_HIERARCHY, and with bidirectional search otherwise.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param profile        What each segment costs.
+     * @param stats          Record to add the work done to, or {@literal null} to not count it.
+     * @return The cheapest path from {@code startShortName} to {@code endShortName} under profile, or
+     * {@literal null} if the profile leaves no way there.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortName} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or profile is {@literal null} or gives a
+     *                                  segment a cost that is NaN or negative.
+     * @spec.modifies stats
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingProfile profile,
+                                        SearchStats stats) {
+        if(profile == RoutingProfile.SHORTEST){
+            return findShortestPath(startShortName, endShortName, strategy, stats);
+        }
+        checkRep();
+        Point start = startShortName == null ? null : abbrevToPoint.get(startShortName);
+        Point end = endShortName == null ? null : abbrevToPoint.get(endShortName);
+        if(start == null || end == null || profile == null){
+            throw new IllegalArgumentException();
+        }
+        return profiles.computeIfAbsent(profile, this::buildProfileGraph).findShortestPath(start, end, stats);
+    }
+
+    /**
+     * @return the graph of compactMap's edges costed by profile, with what strategy precomputes over it
+     */
+    private ProfileGraph buildProfileGraph(RoutingProfile profile) {
+        CsrGraph<Point> graph = compactMap.withWeights(profile.weigh(compactMap, baseMap, attributeTable));
+        return new ProfileGraph(graph, strategy == RoutingStrategy.CONTRACTION_HIERARCHY
+                                       ? new ContractionHierarchy<>(graph) : null);
+    }
+
+    /**
+     * The graph of one routing profile and the structures precomputed over it, kept apart from those
+     * of every other profile
+     */
+    private static final class ProfileGraph {
+        private final CsrGraph<Point> graph;
+        private final CsrGraph<Point> reverse;
+        private final ContractionHierarchy<Point> hierarchy;
+
+        /**
+         * @param graph     the campus graph, costed by the profile
+         * @param hierarchy a contraction hierarchy of graph, or null to route with bidirectional search
+         */
+        ProfileGraph(CsrGraph<Point> graph, ContractionHierarchy<Point> hierarchy) {
+            this.graph = graph;
+            this.reverse = hierarchy == null ? graph.transpose() : null;
+            this.hierarchy = hierarchy;
+        }
+
+        Path<Point> findShortestPath(Point start, Point end, SearchStats stats) {
+            if(hierarchy != null){
+                return hierarchy.findShortestPath(start, end, stats);
+            }
+            return IndexedDijkstra.bidirectionalSearch(graph, reverse, start, end, stats);
+        }
+    }
+
+    /**
+     * Returns the contraction hierarchy of this campus map, preprocessing it if this is the first time
+     * it is needed
+     *
+     * @return the contraction hierarchy of this campus map
+     */
+    private ContractionHierarchy<Point> getHierarchy() {
+        ContractionHierarchy<Point> result = hierarchy;
+        if(result == null){
+            synchronized(this){
+                result = hierarchy;
+                if(result == null){
+                    result = new ContractionHierarchy<>(compactMap);
+                    hierarchy = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the contraction hierarchy of this campus map, which can be passed to
+     * {@link #CampusMap(ContractionHierarchy)} to skip preprocessing when creating another map
+     */
+    public ContractionHierarchy<Point> contractionHierarchy() {
+        checkRep();
+        return getHierarchy();
+    }
+
+    /**
+     * Returns the graph searched by the DIJKSTRA strategy, building it from compactMap if this is
+     * the first time it is needed
+     *
+     * @return a graph with the same nodes and edges as compactMap
+     */
+    private Graph<Point, Double> getCampusMap() {
+        Graph<Point, Double> graph = campusMap;
+        if(graph == null){
+            synchronized(this){
+                graph = campusMap;
+                if(graph == null){
+                    graph = compactMap.toGraph();
+                    campusMap = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the table of routes between every pair of buildings, computing it if this is the first
+     * time it is needed
+     *
+     * @return the routes between every pair of buildings in this campus map
+     */
+    RouteTable<Point> getRouteTable() {
+        RouteTable<Point> table = routeTable;
+        if(table == null){
+            synchronized(this){
+                table = routeTable;
+                if(table == null){
+                    List<Point> sites = new ArrayList<>(Collections.nCopies(buildingIndex.size(), (Point) null));
+                    for(Map.Entry<String, Integer> entry : buildingIndex.entrySet()){
+                        sites.set(entry.getValue(), abbrevToPoint.get(entry.getKey()));
+                    }
+                    table = new RouteTable<>(compactMap, sites);
+                    routeTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Makes a map of the same campus with some segments closed or costing differently, replacing any
+     * changes this map has. This map is not changed. Everything that only depends on where the points
+     * and buildings of campus are is shared with this map rather than built again, and precomputed
+     * routes that use no changed segment are kept; see {@link #keepsRoute(Path)}.
+     *
+     * @param overrides The segment changes the new map should have, relative to the campus data.
+     *                  Changes to segments this campus does not have are kept but change nothing.
+     * @return A map of this campus with exactly the given changes, or this map if it already has them.
+     * @throws IllegalArgumentException if overrides is {@literal null}.
+     */
+    public CampusMap withEdgeOverrides(EdgeOverrides overrides) {
+        checkRep();
+        if(overrides == null){
+            throw new IllegalArgumentException();
+        }
+        if(overrides.equals(this.overrides)){
+            return this;
+        }
+        return new CampusMap(this, overrides, attributes);
+    }
+
+    /**
+     * @return The segment changes this map has relative to the campus data.
+     */
+    public EdgeOverrides edgeOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Makes a map of the same campus whose segments have the given attributes, replacing any this
+     * map has. This map is not changed. Attributes only change the routes of profiles other than
+     * {@link RoutingProfile#SHORTEST}, so every route without a profile is kept.
+     *
+     * @param attributes The attributes the segments of the new map should have. Attributes of
+     *                   segments this campus does not have are kept but change nothing.
+     * @return A map of this campus with exactly the given attributes, or this map if it already has
+     * them.
+     * @throws IllegalArgumentException if attributes is {@literal null}.
+     */
+    public CampusMap withEdgeAttributes(EdgeAttributes attributes) {
+        checkRep();
+        if(attributes == null){
+            throw new IllegalArgumentException();
+        }
+        if(attributes.equals(this.attributes)){
+            return this;
+        }
+        return new CampusMap(this, overrides, attributes);
+    }
+
+    /**
+     * @return The attributes of the segments of this map.
+     */
+    public EdgeAttributes edgeAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @param a One end of a segment.
+     * @param b The other end of the segment.
+     * @return {@literal true} iff the campus data has a walk-able segment between a and b, in either
+     * direction, whether or not it is closed.
+     */
+    public boolean hasSegment(Point a, Point b) {
+        int from = a == null ? -1 : baseMap.idOf(a);
+        int to = b == null ? -1 : baseMap.idOf(b);
+        if(from == -1 || to == -1){
+            return false;
+        }
+        return hasEdge(baseMap, from, to) || hasEdge(baseMap, to, from);
+    }
+
+    /**
+     * @return true iff graph has an edge from node 'from' to node 'to'
+     */
+    private static boolean hasEdge(CsrGraph<Point> graph, int from, int to) {
+        for(int e = graph.firstEdge(from); e < graph.endEdge(from); e++){
+            if(graph.target(e) == to){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a shortest route of the map this one was made from by
+     * {@link #withEdgeOverrides(EdgeOverrides)}, such as a cached one, is still a shortest route of
+     * this map, either way round. It is if it walks no segment whose cost changed, and no segment got
+     * cheaper, since then every other route costs at least what it did.
+     *
+     * @param route A shortest route of the map this one was made from, or {@literal null} for a pair
+     *              of points with no route between them.
+     * @return {@literal true} if route is still a shortest route, or there is still no route, on this
+     * map; {@literal false} if it may not be, or this map was not made by withEdgeOverrides.
+     */
+    public boolean keepsRoute(Path<Point> route) {
+        if(changedSegments == null){
+            return false;
+        }
+        if(route == null || changedSegments.isEmpty()){
+            return true;
+        }
+        for(Path<Point>.Segment segment : route){
+            int from = compactMap.idOf(segment.getStart());
+            int to = compactMap.idOf(segment.getEnd());
+            if(changedSegments.contains(segmentKey(from, to)) || changedSegments.contains(segmentKey(to, from))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@literal true} iff every walk-able segment of this map costs the same both ways, so the
+     * shortest path from B to A is the reverse of the shortest path from A to B
+     */
+    public boolean isSymmetric() {
+        return compactMap.isSymmetric();
+    }
+
+    /**
+     * @return the search algorithm this map uses to answer findShortestPath
+     */
+    public RoutingStrategy getStrategy() {
+        return strategy;
     }
 
 
@@ -157,13 +1055,41 @@ public class CampusMap implements ModelAPI {
     //      abbrevToPoint != null &&
     //      abbrevToLongName does not contain null elements &&
     //      abbrevToPoint does not contain null elements &&
-    //      campusMap != null &&
-    //      campusMap does not contain null elements
+    //      baseMap != null && overrides != null &&
+    //      attributes != null && attributeTable holds attributes by the edge ids of baseMap &&
+    //      profiles != null && for each key p of profiles, profiles.get(p) routes on compactMap
+    //          with every edge costed by p with attributeTable &&
+    //      compactMap != null && compactMap has the nodes and edges of baseMap, with the costs of
+    //          the segments in overrides changed &&
+    //      campusMap == null || campusMap has the same nodes and edges as compactMap &&
+    //      reverseMap != null && reverseMap is the transpose of compactMap &&
+    //      strategy != null &&
+    //      heuristic != null && heuristic is consistent for compactMap &&
+    //      spatialIndex != null && point i of spatialIndex is node i of compactMap &&
+    //      buildingIndex maps the keys of abbrevToPoint one-to-one onto 0..abbrevToPoint.size()-1 &&
+    //      buildingByIndex[buildingIndex.get(s)] == s for every key s of abbrevToPoint &&
+    //      buildingTree != null && point i of buildingTree is abbrevToPoint.get(buildingByIndex[i]) &&
+    //      routeTable == null || site buildingIndex.get(s) of routeTable is abbrevToPoint.get(s) &&
+    //      treeCache != null && every key s of treeCache is a key of abbrevToPoint &&
+    //      treeCache.get(s) is the shortest path tree of compactMap from abbrevToPoint.get(s)
 
     private void checkRep(){
         assert abbrevToPoint != null : "abbrevToPoint not initialized";
         assert abbrevToLongName != null : "abbrevToLongName not initialized";
-        assert campusMap != null : "graph is not initialized";
+        assert baseMap != null : "base graph is not initialized";
+        assert overrides != null : "overrides is not initialized";
+        assert attributes != null : "attributes is not initialized";
+        assert attributeTable != null : "attributeTable is not initialized";
+        assert profiles != null : "profiles is not initialized";
+        assert compactMap != null : "compact graph is not initialized";
+        assert reverseMap != null : "reverse graph is not initialized";
+        assert strategy != null : "strategy is not initialized";
+        assert heuristic != null : "heuristic is not initialized";
+        assert spatialIndex != null : "spatialIndex is not initialized";
+        assert buildingTree != null : "buildingTree is not initialized";
+        assert buildingByIndex != null : "buildingByIndex is not initialized";
+        assert buildingIndex != null : "buildingIndex is not initialized";
+        assert treeCache != null : "treeCache is not initialized";
 
         if(DEBUG){
             for(String s : abbrevToPoint.keySet()){
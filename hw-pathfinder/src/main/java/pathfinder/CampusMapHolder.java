@@ -0,0 +1,104 @@
+package pathfinder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This represents the current campus map of a server, which can be replaced by a new map while
+ * requests are being answered. Each request reads one {@link Snapshot} and answers entirely from
+ * its map, so no request ever sees half of an update, and no request has to lock anything.
+ *
+ * <p>Every map a holder is given gets the next version number, so anything derived from a map, such
+ * as a cached response, can record the version it came from and be recognized as stale once the
+ * map is replaced.</p>
+ */
+public final class CampusMapHolder {
+
+    // AF(this) = the current campus map => current.get().getMap(), which is the
+    //      current.get().getVersion()-th map this holder was given
+
+    // Rep Invariant:
+    //      current != null && current.get() != null && current.get().getVersion() >= 1
+
+    /**
+     * A campus map together with its version number.
+     */
+    public static final class Snapshot {
+
+        private final CampusMap map;
+        private final long version;
+
+        private Snapshot(CampusMap map, long version) {
+            this.map = map;
+            this.version = version;
+        }
+
+        /**
+         * @return the campus map of this snapshot
+         */
+        public CampusMap getMap() {
+            return map;
+        }
+
+        /**
+         * @return the version of the map: 1 for the first map a holder was given, 2 for the next, and
+         * so on
+         */
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * The current map, only ever replaced as a whole.
+     */
+    private final AtomicReference<Snapshot> current;
+
+    /**
+     * Creates a new holder whose current map is version 1.
+     *
+     * @param initial the first campus map
+     * @throws IllegalArgumentException if initial is null
+     */
+    public CampusMapHolder(CampusMap initial) {
+        if(initial == null) {
+            throw new IllegalArgumentException();
+        }
+        current = new AtomicReference<>(new Snapshot(initial, 1));
+        checkRep();
+    }
+
+    /**
+     * @return the current campus map and its version
+     */
+    public Snapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Makes a new campus map current only if the current snapshot is still expected, so that a map
+     * built from an old version does not overwrite a newer one.
+     *
+     * @param expected the snapshot next was derived from
+     * @param next     the new campus map
+     * @return the snapshot of next that is now current, or null if expected is no longer current
+     * @throws IllegalArgumentException if expected or next is null
+     * @spec.modifies this
+     * @spec.effects if expected is current, the current map is next, with a version one greater
+     */
+    public Snapshot replace(Snapshot expected, CampusMap next) {
+        if(expected == null || next == null) {
+            throw new IllegalArgumentException();
+        }
+        Snapshot replaced = new Snapshot(next, expected.version + 1);
+        if(!current.compareAndSet(expected, replaced)) {
+            return null;
+        }
+        checkRep();
+        return replaced;
+    }
+
+    private void checkRep() {
+        assert current != null && current.get() != null;
+        assert current.get().version >= 1;
+    }
+}
@@ -0,0 +1,544 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+
+/**
+ * This represents an immutable contraction hierarchy over a graph: a preprocessed form of the graph
+ * that answers shortest path queries by exploring only a small part of it, which keeps query times
+ * low on graphs far larger than the campus map.
+ *
+ * <p>Preprocessing "contracts" the nodes one at a time in order of importance. Contracting a node
+ * removes it, adding a shortcut edge u -&gt; x for every pair of its remaining neighbours whose
+ * shortest connection ran through it. A query then only ever needs to move to more important nodes:
+ * it searches upwards from the start and upwards (against the edges) from the end, and the two
+ * searches meet at the most important node of the shortest path. Shortcuts on the path found are
+ * unpacked back into the edges of the original graph.</p>
+ *
+ * @param <E> Type of the node label
+ */
+public final class ContractionHierarchy<E> {
+
+    // AF(this) =
+    //      the graph queries are answered on => graph
+    //      the importance of node v => rank[v], the order in which v was contracted
+    //      the shortcut with edge id graph.edgeCount() + k => the path made of edge skipFirst[k]
+    //          followed by edge skipSecond[k], where edge ids below graph.edgeCount() are edges of graph
+    //      the edges a query may follow out of node v forwards => the up edges of v, to more important nodes
+    //      the edges a query may follow out of node v backwards => the down edges of v, which are the
+    //          edges into v from more important nodes, reversed
+
+    // Rep Invariant:
+    //      graph != null && rank is a permutation of 0..graph.size()-1 &&
+    //      skipFirst.length == skipSecond.length &&
+    //      upOffsets and downOffsets have length graph.size() + 1 &&
+    //      rank[upTargets[i]] > rank[v] for every up edge i of v &&
+    //      rank[downTargets[i]] > rank[v] for every down edge i of v
+
+    /**
+     * The most nodes a witness search may settle before giving up and keeping the shortcut. Giving up
+     * early only adds shortcuts that were not needed; it never makes a query wrong.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * The graph the hierarchy was built on.
+     */
+    private final IndexedGraph<E> graph;
+
+    /**
+     * The position of each node in the contraction order.
+     */
+    private final int[] rank;
+
+    /**
+     * The two halves of each shortcut, by shortcut index.
+     */
+    private final int[] skipFirst;
+    private final int[] skipSecond;
+
+    /**
+     * The upward search graph: for each node, its edges to more important nodes.
+     */
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upEdges;
+    private final double[] upWeights;
+
+    /**
+     * The downward search graph: for each node, its edges from more important nodes, reversed.
+     */
+    private final int[] downOffsets;
+    private final int[] downTargets;
+    private final int[] downEdges;
+    private final double[] downWeights;
+
+    /**
+     * Builds a contraction hierarchy over the given graph.
+     *
+     * @param graph The graph to preprocess.
+     * @throws IllegalArgumentException if graph is null.
+     */
+    public ContractionHierarchy(IndexedGraph<E> graph) {
+        if(graph == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        int n = graph.size();
+        int m = graph.edgeCount();
+
+        Contractor contractor = new Contractor(graph);
+        rank = contractor.contractAll();
+        int shortcuts = contractor.edgeCount - m;
+        skipFirst = Arrays.copyOfRange(contractor.first, m, m + shortcuts);
+        skipSecond = Arrays.copyOfRange(contractor.second, m, m + shortcuts);
+
+        // Split every edge into the upward graph of its less important end.
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for(int e = 0; e < contractor.edgeCount; e++) {
+            int u = contractor.from[e];
+            int x = contractor.to[e];
+            if(rank[u] < rank[x]) {
+                upOffsets[u + 1]++;
+            } else if(rank[u] > rank[x]) {
+                downOffsets[x + 1]++;
+            }
+        }
+        for(int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upTargets = new int[upOffsets[n]];
+        upEdges = new int[upOffsets[n]];
+        upWeights = new double[upOffsets[n]];
+        downTargets = new int[downOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        downWeights = new double[downOffsets[n]];
+        int[] upNext = Arrays.copyOf(upOffsets, n);
+        int[] downNext = Arrays.copyOf(downOffsets, n);
+        for(int e = 0; e < contractor.edgeCount; e++) {
+            int u = contractor.from[e];
+            int x = contractor.to[e];
+            if(rank[u] < rank[x]) {
+                int slot = upNext[u]++;
+                upTargets[slot] = x;
+                upEdges[slot] = e;
+                upWeights[slot] = contractor.weight[e];
+            } else if(rank[u] > rank[x]) {
+                int slot = downNext[x]++;
+                downTargets[slot] = u;
+                downEdges[slot] = e;
+                downWeights[slot] = contractor.weight[e];
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * @return The number of shortcut edges preprocessing added to the graph.
+     */
+    public int shortcutCount() {
+        return skipFirst.length;
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes of the graph this hierarchy was built on.
+     *
+     * @param startLabel The label of the starting node.
+     * @param endLabel   The label of the ending node.
+     * @param stats      Record to add the work done by both searches to, or {@literal null} to not
+     *                   count it.
+     * @return The shortest path between start and end, or {@literal null} if no path exists.
+     * @throws IllegalArgumentException if either label is null or not in the graph.
+     * @spec.modifies stats
+     */
+    public Path<E> findShortestPath(E startLabel, E endLabel, SearchStats stats) {
+        if(startLabel == null || endLabel == null) {
+            throw new IllegalArgumentException();
+        }
+        int start = graph.idOf(startLabel);
+        int dest = graph.idOf(endLabel);
+        if(start == -1 || dest == -1) {
+            throw new IllegalArgumentException();
+        }
+
+        int n = graph.size();
+        double[] forwardDist = new double[n];
+        double[] backwardDist = new double[n];
+        int[] forwardParent = new int[n];
+        int[] backwardParent = new int[n];
+        int[] forwardEdge = new int[n];
+        int[] backwardEdge = new int[n];
+        Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+        IndexedMinHeap forward = new IndexedMinHeap(n);
+        IndexedMinHeap backward = new IndexedMinHeap(n);
+
+        forwardDist[start] = 0;
+        forwardParent[start] = -1;
+        forward.offer(start, 0);
+        backwardDist[dest] = 0;
+        backwardParent[dest] = -1;
+        backward.offer(dest, 0);
+
+        // best is the cost of the cheapest known path, through the node meet. Each side stops once
+        // its cheapest unsettled node costs at least best, since an upward search cannot then improve it.
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while(true) {
+            boolean forwardOpen = !forward.isEmpty() && forward.peekKey() < best;
+            boolean backwardOpen = !backward.isEmpty() && backward.peekKey() < best;
+            if(!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean isForward = forwardOpen && (!backwardOpen || forward.peekKey() <= backward.peekKey());
+            IndexedMinHeap active = isForward ? forward : backward;
+            double[] dist = isForward ? forwardDist : backwardDist;
+            double[] otherDist = isForward ? backwardDist : forwardDist;
+            int[] parent = isForward ? forwardParent : backwardParent;
+            int[] parentEdge = isForward ? forwardEdge : backwardEdge;
+            int[] offsets = isForward ? upOffsets : downOffsets;
+            int[] targets = isForward ? upTargets : downTargets;
+            int[] edges = isForward ? upEdges : downEdges;
+            double[] weights = isForward ? upWeights : downWeights;
+
+            int minDest = active.poll();
+            if(stats != null) {
+                stats.addSettled();
+            }
+            double base = dist[minDest];
+            if(base + otherDist[minDest] < best) {
+                best = base + otherDist[minDest];
+                meet = minDest;
+            }
+            for(int i = offsets[minDest]; i < offsets[minDest + 1]; i++) {
+                int child = targets[i];
+                double cost = base + weights[i];
+                if(cost < dist[child]) {
+                    dist[child] = cost;
+                    parent[child] = minDest;
+                    parentEdge[child] = edges[i];
+                    active.offer(child, cost);
+                }
+            }
+            if(stats != null) {
+                stats.addRelaxed(offsets[minDest + 1] - offsets[minDest]);
+            }
+        }
+        if(meet == -1) {
+            return null;
+        }
+
+        // The hierarchy edges of the path, in order: up from the start to meet, then down to the end.
+        int forwardLength = 0;
+        for(int v = meet; forwardParent[v] != -1; v = forwardParent[v]) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for(int v = meet; backwardParent[v] != -1; v = backwardParent[v]) {
+            backwardLength++;
+        }
+        int[] hierarchyEdges = new int[forwardLength + backwardLength];
+        int v = meet;
+        for(int i = forwardLength - 1; i >= 0; i--) {
+            hierarchyEdges[i] = forwardEdge[v];
+            v = forwardParent[v];
+        }
+        v = meet;
+        for(int i = forwardLength; i < hierarchyEdges.length; i++) {
+            hierarchyEdges[i] = backwardEdge[v];
+            v = backwardParent[v];
+        }
+        return IndexedDijkstra.buildPath(graph, start, unpack(hierarchyEdges));
+    }
+
+    /**
+     * Replaces every shortcut in a sequence of hierarchy edges with the original edges it stands for.
+     *
+     * @param hierarchyEdges The ids of original edges and shortcuts along a path, in order.
+     * @return The ids of the original edges along the same path, in order.
+     */
+    private int[] unpack(int[] hierarchyEdges) {
+        int m = graph.edgeCount();
+        int[] stack = new int[16];
+        int[] result = new int[hierarchyEdges.length];
+        int size = 0;
+        for(int edge : hierarchyEdges) {
+            int top = 0;
+            stack[top++] = edge;
+            while(top > 0) {
+                int e = stack[--top];
+                if(e < m) {
+                    if(size == result.length) {
+                        result = Arrays.copyOf(result, 2 * result.length);
+                    }
+                    result[size++] = e;
+                } else {
+                    if(top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    // Push the second half first so that the first half is unpacked first.
+                    stack[top++] = skipSecond[e - m];
+                    stack[top++] = skipFirst[e - m];
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void checkRep() {
+        assert graph != null && rank != null && rank.length == graph.size();
+        assert skipFirst != null && skipSecond != null && skipFirst.length == skipSecond.length;
+        assert upOffsets.length == graph.size() + 1 && downOffsets.length == graph.size() + 1;
+        assert upTargets.length == upEdges.length && upTargets.length == upWeights.length;
+        assert downTargets.length == downEdges.length && downTargets.length == downWeights.length;
+    }
+
+    /**
+     * The mutable working state of preprocessing: the remaining graph with its shortcuts, which is
+     * discarded once every node has been contracted.
+     */
+    private static final class Contractor {
+
+        /**
+         * The edges of the graph followed by every shortcut added so far, as parallel arrays.
+         */
+        private int[] from;
+        private int[] to;
+        private double[] weight;
+        private int[] first;
+        private int[] second;
+        private int edgeCount;
+
+        /**
+         * The ids of the edges out of and into each node, including shortcuts.
+         */
+        private final int[][] out;
+        private final int[] outSize;
+        private final int[][] in;
+        private final int[] inSize;
+
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+
+        /**
+         * Witness search state, reset between searches through the list of touched nodes.
+         */
+        private final double[] witnessDist;
+        private final IndexedMinHeap witnessHeap;
+        private final int[] touched;
+        private int touchedSize;
+
+        Contractor(IndexedGraph<?> graph) {
+            int n = graph.size();
+            int m = graph.edgeCount();
+            int capacity = Math.max(16, 2 * m);
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new double[capacity];
+            first = new int[capacity];
+            second = new int[capacity];
+            out = new int[n][];
+            outSize = new int[n];
+            in = new int[n][];
+            inSize = new int[n];
+            for(int v = 0; v < n; v++) {
+                out[v] = new int[4];
+                in[v] = new int[4];
+            }
+            for(int v = 0; v < n; v++) {
+                for(int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    addEdge(v, graph.target(e), graph.weight(e), -1, -1);
+                }
+            }
+            contracted = new boolean[n];
+            contractedNeighbours = new int[n];
+            witnessDist = new double[n];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            witnessHeap = new IndexedMinHeap(n);
+            touched = new int[n];
+        }
+
+        /**
+         * Contracts every node, least important first, adding shortcuts as needed.
+         *
+         * @return The position of each node in the contraction order.
+         */
+        int[] contractAll() {
+            int n = out.length;
+            int[] rank = new int[n];
+            IndexedMinHeap queue = new IndexedMinHeap(n);
+            for(int v = 0; v < n; v++) {
+                queue.offer(v, priority(v));
+            }
+            int order = 0;
+            while(!queue.isEmpty()) {
+                int v = queue.poll();
+                // Priorities go stale as neighbours are contracted; put v back if it is no longer least.
+                double current = priority(v);
+                if(!queue.isEmpty() && current > queue.peekKey()) {
+                    queue.offer(v, current);
+                    continue;
+                }
+                contract(v, false);
+                contracted[v] = true;
+                rank[v] = order++;
+                for(int i = 0; i < outSize[v]; i++) {
+                    contractedNeighbours[to[out[v][i]]]++;
+                }
+                for(int i = 0; i < inSize[v]; i++) {
+                    contractedNeighbours[from[in[v][i]]]++;
+                }
+            }
+            return rank;
+        }
+
+        /**
+         * @return How unattractive contracting v next is: the shortcuts it would add less the edges it
+         * would remove, plus how many of its neighbours are already contracted (to spread contraction
+         * evenly across the graph).
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for(int i = 0; i < outSize[v]; i++) {
+                if(!contracted[to[out[v][i]]]) {
+                    removed++;
+                }
+            }
+            for(int i = 0; i < inSize[v]; i++) {
+                if(!contracted[from[in[v][i]]]) {
+                    removed++;
+                }
+            }
+            return contract(v, true) - removed + contractedNeighbours[v];
+        }
+
+        /**
+         * Finds the shortcuts needed to remove v from the remaining graph.
+         *
+         * @param v        The node to contract.
+         * @param simulate If true, only count the shortcuts instead of adding them.
+         * @return The number of shortcuts needed.
+         */
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            int inCount = inSize[v];
+            int outCount = outSize[v];
+            for(int i = 0; i < inCount; i++) {
+                int a = in[v][i];
+                int u = from[a];
+                if(contracted[u] || u == v) {
+                    continue;
+                }
+                double maxCost = -1;
+                for(int j = 0; j < outCount; j++) {
+                    int x = to[out[v][j]];
+                    if(!contracted[x] && x != v && x != u) {
+                        maxCost = Math.max(maxCost, weight[a] + weight[out[v][j]]);
+                    }
+                }
+                if(maxCost < 0) {
+                    continue;
+                }
+                witnessSearch(u, v, maxCost);
+                for(int j = 0; j < outCount; j++) {
+                    int b = out[v][j];
+                    int x = to[b];
+                    if(contracted[x] || x == v || x == u) {
+                        continue;
+                    }
+                    double via = weight[a] + weight[b];
+                    if(witnessDist[x] <= via) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if(!simulate) {
+                        addEdge(u, x, via, a, b);
+                        // A parallel edge from v to x must not get a second, more expensive shortcut.
+                        if(witnessDist[x] == Double.POSITIVE_INFINITY) {
+                            touched[touchedSize++] = x;
+                        }
+                        witnessDist[x] = via;
+                    }
+                }
+                resetWitness();
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs Dijkstra from u through the remaining graph without passing through v, settling nodes
+         * no further than maxCost away, and leaves the costs found in witnessDist.
+         */
+        private void witnessSearch(int u, int v, double maxCost) {
+            witnessDist[u] = 0;
+            touched[touchedSize++] = u;
+            witnessHeap.offer(u, 0);
+            int settled = 0;
+            while(!witnessHeap.isEmpty() && witnessHeap.peekKey() <= maxCost && settled < WITNESS_SETTLE_LIMIT) {
+                int w = witnessHeap.poll();
+                settled++;
+                double base = witnessDist[w];
+                for(int i = 0; i < outSize[w]; i++) {
+                    int e = out[w][i];
+                    int x = to[e];
+                    if(contracted[x] || x == v) {
+                        continue;
+                    }
+                    double cost = base + weight[e];
+                    if(cost < witnessDist[x]) {
+                        if(witnessDist[x] == Double.POSITIVE_INFINITY) {
+                            touched[touchedSize++] = x;
+                        }
+                        witnessDist[x] = cost;
+                        witnessHeap.offer(x, cost);
+                    }
+                }
+            }
+        }
+
+        private void resetWitness() {
+            while(!witnessHeap.isEmpty()) {
+                witnessHeap.poll();
+            }
+            for(int i = 0; i < touchedSize; i++) {
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedSize = 0;
+        }
+
+        private void addEdge(int u, int x, double w, int firstHalf, int secondHalf) {
+            if(edgeCount == from.length) {
+                int capacity = 2 * from.length;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            int e = edgeCount++;
+            from[e] = u;
+            to[e] = x;
+            weight[e] = w;
+            first[e] = firstHalf;
+            second[e] = secondHalf;
+            if(w == Double.POSITIVE_INFINITY) {
+                // A closed edge keeps its id, so ids still match the graph's, but it can never be
+                // part of a path, so it takes no part in contraction.
+                return;
+            }
+            if(outSize[u] == out[u].length) {
+                out[u] = Arrays.copyOf(out[u], 2 * out[u].length);
+            }
+            out[u][outSize[u]++] = e;
+            if(inSize[x] == in[x].length) {
+                in[x] = Arrays.copyOf(in[x], 2 * in[x].length);
+            }
+            in[x][inSize[x]++] = e;
+        }
+    }
+}
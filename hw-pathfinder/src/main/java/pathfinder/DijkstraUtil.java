@@ -23,6 +23,22 @@ public final class DijkstraUtil {
      */
     public static <E> Path<E> dijkstraSearch(Graph<E, Double> graph, E startLabel,
                                       E endLabel){
+        return dijkstraSearch(graph, startLabel, endLabel, null);
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a graph, counting the work done
+     * @param graph the graph to be searched
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @param stats record to add the work done to, or null to not count it
+     * @return the shortest path between start and end, no path exists if returns null
+     * @spec.requires graph != null, start != null, end != null, graph.contains(start), graph.contains(end)
+     * @spec.modifies stats
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> Path<E> dijkstraSearch(Graph<E, Double> graph, E startLabel,
+                                      E endLabel, SearchStats stats){
         if(graph == null || startLabel == null || endLabel == null){
             throw new IllegalArgumentException();
         }
@@ -46,15 +62,19 @@ public final class DijkstraUtil {
             Path<E> minPath = active.remove();
             E minDest = minPath.getEnd();
 
-            if(minDest.equals(endLabel)){
-                return minPath;
-            }
-
             if(finished.contains(minDest)){
                 continue;
             }
+            if(stats != null){
+                stats.addSettled();
+            }
 
-            for(Node<E, Double>.DirectedEdge e : graph.getNode(minDest).getEdges()){
+            if(minDest.equals(endLabel)){
+                return minPath;
+            }
+
+            Set<Node<E, Double>.DirectedEdge> edges = graph.getNode(minDest).getEdges();
+            for(Node<E, Double>.DirectedEdge e : edges){
                 // If we don't know the minimum-cost path from start to child,
                 // examine the path we've just found
                 if(!finished.contains(e.getEnd())){
@@ -63,6 +83,9 @@ public final class DijkstraUtil {
                 }
             }
             finished.add(minDest);
+            if(stats != null){
+                stats.addRelaxed(edges.size());
+            }
         }
         return null;
     }
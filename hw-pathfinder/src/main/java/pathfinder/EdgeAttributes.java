@@ -0,0 +1,296 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusSegment;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This represents an immutable description of what walking the segments of campus is like beyond
+ * how long they are: how steeply they climb, whether they have stairs, and whether they are indoors.
+ * A {@link RoutingProfile} turns these into the cost of each segment. Segments that are not
+ * described are flat, have no stairs and are outdoors.
+ *
+ * <p>Apply an instance to a map with {@link CampusMap#withEdgeAttributes(EdgeAttributes)}. The map
+ * copies the attributes into a {@link Table}, one array per attribute indexed by edge id, so that a
+ * profile's cost of every edge can be computed in one pass without a lookup or an allocation per
+ * edge.</p>
+ */
+public final class EdgeAttributes {
+
+    // AF(this) = for every key (a, b) of segments, walking from a to b climbs segments.get((a, b)).climb
+    //      and has stairs or is indoors as the flags of segments.get((a, b)) say; every other segment
+    //      is flat, outdoors and has no stairs
+
+    // Rep Invariant:
+    //      segments != null && no key or value of segments is null &&
+    //      no climb is NaN or infinite &&
+    //      for every key (a, b) of segments, (b, a) is a key with the opposite climb and the same flags
+
+    /**
+     * flag of a segment with steps
+     */
+    static final byte STAIRS = 1;
+
+    /**
+     * flag of a segment that is indoors or covered
+     */
+    static final byte INDOOR = 2;
+
+    private static final boolean DEBUG = false;
+
+    private static final EdgeAttributes NONE = new EdgeAttributes(Collections.emptyMap());
+
+    /**
+     * the attributes of each described segment, keyed by its two ends in walking order
+     */
+    private final Map<Step, Attributes> segments;
+
+    private EdgeAttributes(Map<Step, Attributes> segments) {
+        this.segments = segments;
+        checkRep();
+    }
+
+    /**
+     * @return the attributes of a campus where every segment is flat, outdoors and has no stairs
+     */
+    public static EdgeAttributes none() {
+        return NONE;
+    }
+
+    /**
+     * Describes the segments of campus from the entries of a campus segments file. A segment that
+     * appears more than once, in either direction, takes the attributes of its last entry.
+     *
+     * @param entries the entries, as parsed by
+     *                {@link pathfinder.parser.CampusPathsParser#parseCampusSegments(java.nio.file.Path)}
+     * @return attributes describing each segment of entries
+     * @throws IllegalArgumentException if entries is null, holds null, or holds a climb that is NaN
+     *                                  or infinite
+     */
+    public static EdgeAttributes of(List<CampusSegment> entries) {
+        if(entries == null) {
+            throw new IllegalArgumentException();
+        }
+        Map<Step, Attributes> segments = new HashMap<>();
+        for(CampusSegment entry : entries) {
+            if(entry == null || !Double.isFinite(entry.getClimb())) {
+                throw new IllegalArgumentException();
+            }
+            Point a = new Point(entry.getX1(), entry.getY1());
+            Point b = new Point(entry.getX2(), entry.getY2());
+            byte flags = (byte) ((entry.hasStairs() ? STAIRS : 0) | (entry.isIndoor() ? INDOOR : 0));
+            segments.put(new Step(a, b), new Attributes(entry.getClimb(), flags));
+            // The way back descends as far as the way there climbs; 0 - climb, so a flat segment
+            // stays 0.0 rather than -0.0 both ways.
+            segments.put(new Step(b, a), new Attributes(0 - entry.getClimb(), flags));
+        }
+        return segments.isEmpty() ? NONE : new EdgeAttributes(Collections.unmodifiableMap(segments));
+    }
+
+    /**
+     * @param a the point walked from
+     * @param b the point walked to
+     * @return how far b is above a along the segment between them, negative if it is below, or 0 if
+     * the segment is not described
+     */
+    public double climbOf(Point a, Point b) {
+        Attributes attributes = segments.get(new Step(a, b));
+        return attributes == null ? 0 : attributes.climb;
+    }
+
+    /**
+     * @param a one end of a segment
+     * @param b the other end of the segment
+     * @return {@literal true} iff the segment between a and b is described as having stairs
+     */
+    public boolean hasStairs(Point a, Point b) {
+        return (flagsOf(a, b) & STAIRS) != 0;
+    }
+
+    /**
+     * @param a one end of a segment
+     * @param b the other end of the segment
+     * @return {@literal true} iff the segment between a and b is described as indoors or covered
+     */
+    public boolean isIndoor(Point a, Point b) {
+        return (flagsOf(a, b) & INDOOR) != 0;
+    }
+
+    /**
+     * @return the number of segments described, counting each once however many ways it is walked
+     */
+    public int size() {
+        return segments.size() / 2;
+    }
+
+    /**
+     * @return {@literal true} iff no segment is described
+     */
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Copies these attributes into arrays indexed by the edge ids of a graph.
+     *
+     * @param graph a graph whose node labels are the points of campus
+     * @return the attributes of every edge of graph
+     */
+    Table tableFor(CsrGraph<Point> graph) {
+        int edges = graph.edgeCount();
+        double[] climb = new double[edges];
+        byte[] flags = new byte[edges];
+        if(!segments.isEmpty()) {
+            for(int v = 0; v < graph.size(); v++) {
+                Point from = graph.labelOf(v);
+                for(int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    Attributes attributes = segments.get(new Step(from, graph.labelOf(graph.target(e))));
+                    if(attributes != null) {
+                        climb[e] = attributes.climb;
+                        flags[e] = attributes.flags;
+                    }
+                }
+            }
+        }
+        return new Table(climb, flags);
+    }
+
+    private byte flagsOf(Point a, Point b) {
+        Attributes attributes = segments.get(new Step(a, b));
+        return attributes == null ? 0 : attributes.flags;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof EdgeAttributes && segments.equals(((EdgeAttributes) obj).segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return segments.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return segments.toString();
+    }
+
+    private void checkRep() {
+        assert segments != null;
+        if(DEBUG) {
+            for(Map.Entry<Step, Attributes> entry : segments.entrySet()) {
+                assert entry.getKey() != null && entry.getValue() != null;
+                assert Double.isFinite(entry.getValue().climb);
+                Attributes back = segments.get(new Step(entry.getKey().b, entry.getKey().a));
+                assert back != null && back.climb == -entry.getValue().climb
+                       && back.flags == entry.getValue().flags;
+            }
+        }
+    }
+
+    /**
+     * The attributes of every edge of one graph, one array per attribute indexed by edge id. Read
+     * only; the arrays are never changed once made.
+     */
+    static final class Table {
+        private final double[] climb;
+        private final byte[] flags;
+
+        private Table(double[] climb, byte[] flags) {
+            this.climb = climb;
+            this.flags = flags;
+        }
+
+        /**
+         * @return how far the target of edge e is above its source
+         */
+        double climb(int e) {
+            return climb[e];
+        }
+
+        /**
+         * @return true iff edge e has stairs
+         */
+        boolean stairs(int e) {
+            return (flags[e] & STAIRS) != 0;
+        }
+
+        /**
+         * @return true iff edge e is indoors or covered
+         */
+        boolean indoor(int e) {
+            return (flags[e] & INDOOR) != 0;
+        }
+    }
+
+    /**
+     * The climb and flags of one direction of a segment
+     */
+    private static final class Attributes {
+        private final double climb;
+        private final byte flags;
+
+        Attributes(double climb, byte flags) {
+            this.climb = climb;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Attributes)) {
+                return false;
+            }
+            Attributes other = (Attributes) obj;
+            return Double.compare(climb, other.climb) == 0 && flags == other.flags;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(climb) + flags;
+        }
+
+        @Override
+        public String toString() {
+            return "climb " + climb + ((flags & STAIRS) != 0 ? ", stairs" : "")
+                   + ((flags & INDOOR) != 0 ? ", indoor" : "");
+        }
+    }
+
+    /**
+     * The two ends of a segment in the order it is walked
+     */
+    private static final class Step {
+        private final Point a;
+        private final Point b;
+
+        Step(Point a, Point b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Step)) {
+                return false;
+            }
+            Step other = (Step) obj;
+            return Objects.equals(a, other.a) && Objects.equals(b, other.b);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(a) + Objects.hashCode(b);
+        }
+
+        @Override
+        public String toString() {
+            return a + "->" + b;
+        }
+    }
+}
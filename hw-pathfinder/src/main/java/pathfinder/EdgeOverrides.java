@@ -0,0 +1,199 @@
+package pathfinder;
+
+import pathfinder.datastructures.Point;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This represents an immutable set of changes to the walking graph of campus: segments that are
+ * closed, for example for construction, and segments whose cost is changed, for example to penalize
+ * an icy staircase. Every change applies to both directions of a segment and replaces its cost from
+ * the campus data until the segment is reopened.
+ *
+ * <p>Changes are made by returning a new EdgeOverrides, so an instance can be shared by any number of
+ * threads. Apply one to a map with {@link CampusMap#withEdgeOverrides(EdgeOverrides)}.</p>
+ */
+public final class EdgeOverrides {
+
+    // AF(this) = for every key {a, b} of costs, the segments a -> b and b -> a cost costs.get({a, b})
+    //      instead of their cost in the campus data, where an infinite cost closes them
+
+    // Rep Invariant:
+    //      costs != null && no key or value of costs is null &&
+    //      no value of costs is NaN or negative
+
+    private static final boolean DEBUG = false;
+
+    private static final EdgeOverrides NONE = new EdgeOverrides(Collections.emptyMap());
+
+    /**
+     * the cost each changed segment is given, keyed by its two ends in either order
+     */
+    private final Map<Segment, Double> costs;
+
+    private EdgeOverrides(Map<Segment, Double> costs) {
+        this.costs = costs;
+        checkRep();
+    }
+
+    /**
+     * @return the set of no changes, under which every segment costs what the campus data says
+     */
+    public static EdgeOverrides none() {
+        return NONE;
+    }
+
+    /**
+     * Closes the segment between two points, so no route uses it.
+     *
+     * @param a one end of the segment
+     * @param b the other end of the segment
+     * @return these changes, with the segment between a and b closed
+     * @throws IllegalArgumentException if a or b is null
+     */
+    public EdgeOverrides close(Point a, Point b) {
+        return withCost(a, b, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Changes the cost of the segment between two points.
+     *
+     * @param a    one end of the segment
+     * @param b    the other end of the segment
+     * @param cost the cost to walk the segment either way; positive infinity closes it
+     * @return these changes, with the segment between a and b costing cost
+     * @throws IllegalArgumentException if a or b is null, or cost is NaN or negative
+     */
+    public EdgeOverrides withCost(Point a, Point b, double cost) {
+        if(a == null || b == null || Double.isNaN(cost) || cost < 0) {
+            throw new IllegalArgumentException();
+        }
+        Map<Segment, Double> changed = new HashMap<>(costs);
+        changed.put(new Segment(a, b), cost);
+        return new EdgeOverrides(Collections.unmodifiableMap(changed));
+    }
+
+    /**
+     * Undoes any change to the segment between two points, so it costs what the campus data says.
+     *
+     * @param a one end of the segment
+     * @param b the other end of the segment
+     * @return these changes, without any change to the segment between a and b
+     * @throws IllegalArgumentException if a or b is null
+     */
+    public EdgeOverrides reopen(Point a, Point b) {
+        if(a == null || b == null) {
+            throw new IllegalArgumentException();
+        }
+        Segment segment = new Segment(a, b);
+        if(!costs.containsKey(segment)) {
+            return this;
+        }
+        Map<Segment, Double> changed = new HashMap<>(costs);
+        changed.remove(segment);
+        return changed.isEmpty() ? NONE : new EdgeOverrides(Collections.unmodifiableMap(changed));
+    }
+
+    /**
+     * @param a one end of a segment
+     * @param b the other end of the segment
+     * @return the cost the segment between a and b is changed to, positive infinity if it is closed,
+     * or null if it is not changed
+     */
+    public Double costOf(Point a, Point b) {
+        if(a == null || b == null) {
+            return null;
+        }
+        return costs.get(new Segment(a, b));
+    }
+
+    /**
+     * @return the number of segments changed
+     */
+    public int size() {
+        return costs.size();
+    }
+
+    /**
+     * @return {@literal true} iff no segment is changed
+     */
+    public boolean isEmpty() {
+        return costs.isEmpty();
+    }
+
+    /**
+     * Calls 'action' with the two ends and the new cost of every changed segment, for the map
+     * applying them.
+     */
+    void forEach(SegmentAction action) {
+        for(Map.Entry<Segment, Double> entry : costs.entrySet()) {
+            action.accept(entry.getKey().a, entry.getKey().b, entry.getValue());
+        }
+    }
+
+    /**
+     * Receives one changed segment from forEach
+     */
+    interface SegmentAction {
+        void accept(Point a, Point b, double cost);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof EdgeOverrides && costs.equals(((EdgeOverrides) obj).costs);
+    }
+
+    @Override
+    public int hashCode() {
+        return costs.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return costs.toString();
+    }
+
+    private void checkRep() {
+        assert costs != null;
+        if(DEBUG) {
+            for(Map.Entry<Segment, Double> entry : costs.entrySet()) {
+                assert entry.getKey() != null && entry.getValue() != null;
+                assert !Double.isNaN(entry.getValue()) && entry.getValue() >= 0;
+            }
+        }
+    }
+
+    /**
+     * The two ends of a segment, equal to the same ends in the other order
+     */
+    private static final class Segment {
+        private final Point a;
+        private final Point b;
+
+        Segment(Point a, Point b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Segment)) {
+                return false;
+            }
+            Segment other = (Segment) obj;
+            return (a.equals(other.a) && b.equals(other.b)) || (a.equals(other.b) && b.equals(other.a));
+        }
+
+        @Override
+        public int hashCode() {
+            return a.hashCode() + b.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return a + "-" + b;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.Point;
+
+/**
+ * This represents an immutable straight-line distance bound for a graph whose nodes are Points.
+ * The distances are scaled by the smallest ratio of edge cost to straight-line length found in the
+ * graph, so the bound stays consistent even when costs are measured in different units from the
+ * coordinates (campus paths are measured in feet, but located in pixels).
+ */
+public class EuclideanHeuristic implements Heuristic {
+
+    // AF(this) =
+    //      the estimated cost from node u to node v => scale * |(xs[u], ys[u]) - (xs[v], ys[v])|
+
+    // Rep Invariant:
+    //      xs != null && ys != null && xs.length == ys.length &&
+    //      scale >= 0 && Double.isFinite(scale)
+
+    /**
+     * Slack taken off the scale, so rounding in the distance computation cannot make the bound
+     * overestimate an edge that is exactly as cheap as the scale allows.
+     */
+    private static final double ROUNDING_SLACK = 1e-9;
+
+    /**
+     * The x coordinate of each node, indexed by node id.
+     */
+    private final double[] xs;
+
+    /**
+     * The y coordinate of each node, indexed by node id.
+     */
+    private final double[] ys;
+
+    /**
+     * The largest factor straight-line distances can be multiplied by while staying a lower bound.
+     */
+    private final double scale;
+
+    /**
+     * Creates a new heuristic for the given graph.
+     *
+     * @param graph The graph to estimate costs in.
+     * @throws IllegalArgumentException if graph is null.
+     */
+    public EuclideanHeuristic(IndexedGraph<Point> graph) {
+        if(graph == null) {
+            throw new IllegalArgumentException();
+        }
+        int n = graph.size();
+        xs = new double[n];
+        ys = new double[n];
+        for(int v = 0; v < n; v++) {
+            Point p = graph.labelOf(v);
+            xs[v] = p.getX();
+            ys[v] = p.getY();
+        }
+
+        double minRatio = Double.POSITIVE_INFINITY;
+        for(int v = 0; v < n; v++) {
+            for(int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                double length = distance(v, graph.target(e));
+                if(length > 0) {
+                    minRatio = Math.min(minRatio, graph.weight(e) / length);
+                }
+            }
+        }
+        // A graph with no measurable edges gets no guidance, which degrades A* to Dijkstra.
+        scale = Double.isFinite(minRatio) && minRatio > 0 ? minRatio * (1 - ROUNDING_SLACK) : 0;
+        checkRep();
+    }
+
+    @Override
+    public double estimate(int node, int dest) {
+        return scale * distance(node, dest);
+    }
+
+    /**
+     * @return The factor straight-line distances are multiplied by.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    private double distance(int u, int v) {
+        double dx = xs[u] - xs[v];
+        double dy = ys[u] - ys[v];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private void checkRep() {
+        assert xs != null && ys != null;
+        assert xs.length == ys.length;
+        assert scale >= 0 && Double.isFinite(scale);
+    }
+}
@@ -0,0 +1,16 @@
+package pathfinder;
+
+/**
+ * A lower bound on the cost of travelling between two nodes of a graph, identified by their ids in
+ * a {@link graph.IndexedGraph}. A* only returns minimum-cost paths if the bound is consistent: for every
+ * edge u -&gt; v with cost w, {@code estimate(u, t) <= w + estimate(v, t)}.
+ */
+public interface Heuristic {
+
+    /**
+     * @param node The id of the node to estimate from.
+     * @param dest The id of the destination node.
+     * @return A lower bound on the cost of any path from {@code node} to {@code dest}.
+     */
+    double estimate(int node, int dest);
+}
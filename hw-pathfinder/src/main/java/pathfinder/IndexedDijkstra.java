@@ -0,0 +1,409 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+
+public final class IndexedDijkstra {
+    /**
+     * This is a static class
+     *
+     * Searches run on the integer node ids of an IndexedGraph. The best known cost to every node lives
+     * in a double[] and the edge used to reach it in an int[], so no Path is built until the
+     * destination has been settled.
+     *
+     * Point to point searches keep those arrays in a SearchState per thread, reused from one search
+     * to the next, so a query allocates nothing in proportion to the size of the graph. That matters
+     * for graphs kept off the heap, such as a MappedGraph of millions of nodes.
+     */
+
+    /**
+     * The search state of the forward, or only, side of a point to point search on each thread
+     */
+    private static final ThreadLocal<SearchState> FORWARD = ThreadLocal.withInitial(SearchState::new);
+
+    /**
+     * The search state of the backward side of a bidirectional search on each thread
+     */
+    private static final ThreadLocal<SearchState> BACKWARD = ThreadLocal.withInitial(SearchState::new);
+
+    private IndexedDijkstra(){
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a graph
+     * @param graph the graph to be searched
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @return the shortest path between start and end, no path exists if returns null
+     * @spec.requires graph != null, start != null, end != null, graph.contains(start), graph.contains(end)
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> Path<E> dijkstraSearch(IndexedGraph<E> graph, E startLabel, E endLabel){
+        return dijkstraSearch(graph, startLabel, endLabel, null);
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a graph, counting the work done
+     * @param graph the graph to be searched
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @param stats record to add the work done to, or null to not count it
+     * @return the shortest path between start and end, no path exists if returns null
+     * @spec.requires graph != null, start != null, end != null, graph.contains(start), graph.contains(end)
+     * @spec.modifies stats
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> Path<E> dijkstraSearch(IndexedGraph<E> graph, E startLabel, E endLabel, SearchStats stats){
+        return search(graph, startLabel, endLabel, null, stats);
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a graph with A*, settling nodes in order of
+     * their known cost plus the heuristic's estimate of the cost remaining
+     * @param graph the graph to be searched
+     * @param heuristic a consistent lower bound on the cost between nodes of graph
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @param stats record to add the work done to, or null to not count it
+     * @return the shortest path between start and end, no path exists if returns null
+     * @spec.requires graph != null, heuristic != null, start != null, end != null, graph.contains(start),
+     *                graph.contains(end)
+     * @spec.modifies stats
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> Path<E> aStarSearch(IndexedGraph<E> graph, Heuristic heuristic, E startLabel, E endLabel,
+                                          SearchStats stats){
+        if(heuristic == null){
+            throw new IllegalArgumentException();
+        }
+        return search(graph, startLabel, endLabel, heuristic, stats);
+    }
+
+    /**
+     * Shared body of Dijkstra and A*; a null heuristic estimates every remaining cost as 0
+     */
+    private static <E> Path<E> search(IndexedGraph<E> graph, E startLabel, E endLabel, Heuristic heuristic,
+                                      SearchStats stats){
+        if(graph == null || startLabel == null || endLabel == null){
+            throw new IllegalArgumentException();
+        }
+        int start = graph.idOf(startLabel);
+        int dest = graph.idOf(endLabel);
+        if(start == -1 || dest == -1){
+            throw new IllegalArgumentException();
+        }
+
+        SearchState state = FORWARD.get().reset(graph.size());
+        IndexedMinHeap active = state.active;
+
+        state.reach(start, 0, -1, -1);
+        active.offer(start, heuristic == null ? 0 : heuristic.estimate(start, dest));
+        while(!active.isEmpty()){
+            int minDest = active.poll();
+            if(stats != null){
+                stats.addSettled();
+            }
+            if(minDest == dest){
+                return buildPath(graph, state.parent, state.parentEdge, dest);
+            }
+            state.finish(minDest);
+
+            double base = state.dist[minDest];
+            int first = graph.firstEdge(minDest);
+            int end = graph.endEdge(minDest);
+            for(int e = first; e < end; e++){
+                int child = graph.target(e);
+                double cost = base + graph.weight(e);
+                if(!state.isFinished(child) && cost < state.distTo(child)){
+                    state.reach(child, cost, minDest, e);
+                    active.offer(child, heuristic == null ? cost : cost + heuristic.estimate(child, dest));
+                }
+            }
+            if(stats != null){
+                stats.addRelaxed(end - first);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the minimum cost path between two nodes in a graph by searching forwards from the start
+     * and backwards from the end at the same time, always advancing the side whose next node is
+     * cheaper. The search stops once the cheapest unsettled nodes of the two sides together cost at
+     * least as much as the best path found through a node reached by both
+     * @param graph the graph to be searched
+     * @param reverse the transpose of graph, such as CsrGraph#transpose() returns
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @param stats record to add the work done by both sides to, or null to not count it
+     * @return the shortest path between start and end, no path exists if returns null
+     * @spec.requires graph != null, reverse != null, start != null, end != null, graph.contains(start),
+     *                graph.contains(end)
+     * @spec.modifies stats
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> Path<E> bidirectionalSearch(IndexedGraph<E> graph, IndexedGraph<E> reverse, E startLabel,
+                                                  E endLabel, SearchStats stats){
+        if(graph == null || reverse == null || startLabel == null || endLabel == null){
+            throw new IllegalArgumentException();
+        }
+        int start = graph.idOf(startLabel);
+        int dest = graph.idOf(endLabel);
+        if(start == -1 || dest == -1 || reverse.size() != graph.size()){
+            throw new IllegalArgumentException();
+        }
+        if(start == dest){
+            if(stats != null){
+                stats.addSettled();
+            }
+            return new Path<>(graph.labelOf(start));
+        }
+
+        SearchState forward = FORWARD.get().reset(graph.size());
+        SearchState backward = BACKWARD.get().reset(graph.size());
+        forward.reach(start, 0, -1, -1);
+        forward.active.offer(start, 0);
+        backward.reach(dest, 0, -1, -1);
+        backward.active.offer(dest, 0);
+
+        // best is the cost of the cheapest known path, through the node meet
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while(!forward.active.isEmpty() && !backward.active.isEmpty()){
+            if(forward.active.peekKey() + backward.active.peekKey() >= best){
+                break;
+            }
+            boolean isForward = forward.active.peekKey() <= backward.active.peekKey();
+            IndexedGraph<E> side = isForward ? graph : reverse;
+            SearchState state = isForward ? forward : backward;
+            SearchState other = isForward ? backward : forward;
+
+            int minDest = state.active.poll();
+            state.finish(minDest);
+            if(stats != null){
+                stats.addSettled();
+            }
+
+            double base = state.dist[minDest];
+            int first = side.firstEdge(minDest);
+            int end = side.endEdge(minDest);
+            for(int e = first; e < end; e++){
+                int child = side.target(e);
+                double cost = base + side.weight(e);
+                if(!state.isFinished(child) && cost < state.distTo(child)){
+                    state.reach(child, cost, minDest, e);
+                    state.active.offer(child, cost);
+                }
+                double through = state.distTo(child) + other.distTo(child);
+                if(through < best){
+                    best = through;
+                    meet = child;
+                }
+            }
+            if(stats != null){
+                stats.addRelaxed(end - first);
+            }
+        }
+        if(meet == -1){
+            return null;
+        }
+
+        Path<E> path = buildPath(graph, forward.parent, forward.parentEdge, meet);
+        for(int v = meet; backward.parent[v] != -1; v = backward.parent[v]){
+            path = path.extend(graph.labelOf(backward.parent[v]), reverse.weight(backward.parentEdge[v]));
+        }
+        return path;
+    }
+
+    /**
+     * Finds the minimum cost path from one node to every node it can reach
+     * @param graph the graph to be searched
+     * @param startLabel the label of the starting node
+     * @return a tree of the shortest paths from start to every node reachable from it
+     * @spec.requires graph != null, start != null, graph.contains(start)
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> ShortestPathTree<E> shortestPathTree(IndexedGraph<E> graph, E startLabel){
+        return shortestPathTree(graph, startLabel, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the minimum cost path from one node to every node it can reach for at most 'maxCost',
+     * stopping as soon as every cheaper node has been settled
+     * @param graph the graph to be searched
+     * @param startLabel the label of the starting node
+     * @param maxCost the largest path cost to search out to
+     * @return a tree of the shortest paths from start to every node within maxCost of it
+     * @spec.requires graph != null, start != null, graph.contains(start), maxCost is not NaN
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> ShortestPathTree<E> shortestPathTree(IndexedGraph<E> graph, E startLabel, double maxCost){
+        if(graph == null || startLabel == null || Double.isNaN(maxCost)){
+            throw new IllegalArgumentException();
+        }
+        int start = graph.idOf(startLabel);
+        if(start == -1){
+            throw new IllegalArgumentException();
+        }
+        return shortestPathTree(graph, start, maxCost);
+    }
+
+    /**
+     * Finds the minimum cost path from node 'start' to every node within 'maxCost' of it
+     * @spec.requires graph != null, 0 &lt;= start &lt; graph.size(), maxCost is not NaN
+     */
+    static <E> ShortestPathTree<E> shortestPathTree(IndexedGraph<E> graph, int start, double maxCost){
+        int n = graph.size();
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        boolean[] finished = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        IndexedMinHeap active = new IndexedMinHeap(n);
+
+        dist[start] = 0;
+        parent[start] = -1;
+        active.offer(start, 0);
+        while(!active.isEmpty() && active.peekKey() <= maxCost){
+            int minDest = active.poll();
+            finished[minDest] = true;
+
+            double base = dist[minDest];
+            for(int e = graph.firstEdge(minDest); e < graph.endEdge(minDest); e++){
+                int child = graph.target(e);
+                double cost = base + graph.weight(e);
+                if(!finished[child] && cost < dist[child]){
+                    dist[child] = cost;
+                    parent[child] = minDest;
+                    parentEdge[child] = e;
+                    active.offer(child, cost);
+                }
+            }
+        }
+        return new ShortestPathTree<>(graph, start, dist, parent, parentEdge, finished);
+    }
+
+    /**
+     * Lists the edges of the path to 'dest' recorded in a search's parent arrays
+     * @param parent parent[v] is the node that v was reached from, -1 for the start of the search
+     * @param parentEdge parentEdge[v] is the edge that v was reached by
+     * @param dest the id of the last node on the path
+     * @return the ids of the edges along the path from the start of the search to 'dest', in order
+     * @spec.requires dest was reached by the search that filled parent and parentEdge
+     */
+    static int[] pathEdges(int[] parent, int[] parentEdge, int dest){
+        int length = 0;
+        for(int v = dest; parent[v] != -1; v = parent[v]){
+            length++;
+        }
+        int[] edges = new int[length];
+        int v = dest;
+        for(int i = length - 1; i >= 0; i--){
+            edges[i] = parentEdge[v];
+            v = parent[v];
+        }
+        return edges;
+    }
+
+    /**
+     * Builds the path that starts at 'start' and follows the given edges
+     * @param graph the graph the edges belong to
+     * @param start the id of the first node on the path
+     * @param edges the ids of the edges along the path, in order
+     * @return the path from 'start' along 'edges'
+     * @spec.requires edges form a path in graph that begins at start
+     */
+    static <E> Path<E> buildPath(IndexedGraph<E> graph, int start, int[] edges){
+        Path<E> path = new Path<>(graph.labelOf(start));
+        for(int e : edges){
+            path = path.extend(graph.labelOf(graph.target(e)), graph.weight(e));
+        }
+        return path;
+    }
+
+    /**
+     * Builds the path to 'dest' recorded in a search's parent arrays
+     * @param graph the graph that was searched
+     * @param parent parent[v] is the node that v was reached from, -1 for the start of the search
+     * @param parentEdge parentEdge[v] is the edge that v was reached by
+     * @param dest the id of the last node on the path
+     * @return the path from the start of the search to 'dest'
+     * @spec.requires dest was reached by the search that filled parent and parentEdge
+     */
+    static <E> Path<E> buildPath(IndexedGraph<E> graph, int[] parent, int[] parentEdge, int dest){
+        int start = dest;
+        while(parent[start] != -1){
+            start = parent[start];
+        }
+        return buildPath(graph, start, pathEdges(parent, parentEdge, dest));
+    }
+
+    /**
+     * The reusable state of one side of a search. A node's cost and parent are valid, and it is
+     * finished, only if stamped with the number of the current search, so starting a new search never
+     * has to clear an array. The arrays grow to fit the largest graph searched and are then kept.
+     */
+    private static final class SearchState {
+        private double[] dist = new double[0];
+        private int[] parent = new int[0];
+        private int[] parentEdge = new int[0];
+        private int[] reached = new int[0];
+        private int[] finished = new int[0];
+        private IndexedMinHeap active = new IndexedMinHeap(0);
+        private int searchNumber;
+
+        /**
+         * Forgets the last search, ready for one on a graph of n nodes.
+         * @return this
+         */
+        SearchState reset(int n){
+            if(reached.length < n){
+                dist = new double[n];
+                parent = new int[n];
+                parentEdge = new int[n];
+                reached = new int[n];
+                finished = new int[n];
+                active = new IndexedMinHeap(n);
+                searchNumber = 0;
+            } else {
+                active.clear();
+            }
+            searchNumber++;
+            if(searchNumber == Integer.MAX_VALUE){
+                // Stamps are about to repeat, so forget every old one.
+                Arrays.fill(reached, 0);
+                Arrays.fill(finished, 0);
+                searchNumber = 1;
+            }
+            return this;
+        }
+
+        /**
+         * Records that node v costs 'cost', reached from node 'from' by edge 'edge'.
+         */
+        void reach(int v, double cost, int from, int edge){
+            dist[v] = cost;
+            parent[v] = from;
+            parentEdge[v] = edge;
+            reached[v] = searchNumber;
+        }
+
+        /**
+         * @return the best known cost to node v in this search, or infinity if it was not reached
+         */
+        double distTo(int v){
+            return reached[v] == searchNumber ? dist[v] : Double.POSITIVE_INFINITY;
+        }
+
+        void finish(int v){
+            finished[v] = searchNumber;
+        }
+
+        boolean isFinished(int v){
+            return finished[v] == searchNumber;
+        }
+    }
+}
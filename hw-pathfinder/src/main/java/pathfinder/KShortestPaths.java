@@ -0,0 +1,344 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+public final class KShortestPaths {
+    /**
+     * This is a static class
+     *
+     * Finds the k cheapest loopless paths between two nodes with Yen's algorithm. Each new path is
+     * found by leaving an already found path at one of its nodes (the "spur") and searching for the
+     * cheapest way on to the destination that avoids the edges already taken from that same root.
+     *
+     * Instead of running a fresh Dijkstra for every spur, one search backwards from the destination
+     * gives the exact remaining cost from every node. When the spur's own way down that tree is not
+     * blocked it is the answer outright; otherwise an A* search guided by those exact costs settles
+     * little more than the nodes of the path it finds. The search arrays are allocated once per query
+     * and reused by every spur search.
+     */
+
+    private KShortestPaths(){
+    }
+
+    /**
+     * Finds up to k of the cheapest paths between two nodes that visit no node twice, cheapest first.
+     * Paths that visit the same nodes in the same order are the same path, even if they use different
+     * parallel edges.
+     * @param graph the graph to be searched
+     * @param reverse the transpose of graph, such as CsrGraph#transpose() returns
+     * @param startLabel the label of the starting node
+     * @param endLabel the label of the ending node
+     * @param k the most paths to find
+     * @param stats record to add the work done to, or null to not count it
+     * @return the cheapest paths from start to end, cheapest first; fewer than k if there are not k,
+     * and none if end cannot be reached from start
+     * @spec.requires graph != null, reverse != null, start != null, end != null, graph.contains(start),
+     *                graph.contains(end), k &gt;= 0
+     * @spec.modifies stats
+     * @spec.throws IllegalArgumentException if any of the above statements are violated
+     */
+    public static <E> List<Path<E>> kShortestPaths(IndexedGraph<E> graph, IndexedGraph<E> reverse, E startLabel,
+                                                   E endLabel, int k, SearchStats stats){
+        if(graph == null || reverse == null || startLabel == null || endLabel == null || k < 0
+                || reverse.size() != graph.size()){
+            throw new IllegalArgumentException();
+        }
+        int start = graph.idOf(startLabel);
+        int dest = graph.idOf(endLabel);
+        if(start == -1 || dest == -1){
+            throw new IllegalArgumentException();
+        }
+        return kShortestPaths(graph, IndexedDijkstra.shortestPathTree(reverse, dest, Double.POSITIVE_INFINITY),
+                              start, dest, k, stats);
+    }
+
+    /**
+     * Finds up to k of the cheapest loopless paths between two nodes, given the tree of the cheapest
+     * paths from every node to the destination, so that a caller who already has that tree does not
+     * search for it again. On a symmetric graph the shortest path tree from the destination is one.
+     * @param graph the graph to be searched
+     * @param toDest the shortest path tree of the transpose of graph from dest
+     * @param start the id of the starting node
+     * @param dest the id of the ending node
+     * @param k the most paths to find, at least 0
+     * @param stats record to add the work done to, or null to not count it
+     * @return the cheapest paths from start to dest, cheapest first
+     * @spec.modifies stats
+     */
+    static <E> List<Path<E>> kShortestPaths(IndexedGraph<E> graph, ShortestPathTree<E> toDest, int start, int dest,
+                                            int k, SearchStats stats){
+        if(k == 0 || toDest.costTo(start) == Double.POSITIVE_INFINITY){
+            return Collections.emptyList();
+        }
+
+        SpurSearch<E> search = new SpurSearch<>(graph, toDest, dest, stats);
+        List<Route> found = new ArrayList<>();
+        PriorityQueue<Route> candidates = new PriorityQueue<>(Comparator.comparingDouble((Route r) -> r.cost));
+        Set<Route> seen = new HashSet<>();
+        search.newSpur();
+        Route shortest = search.find(start, Route.EMPTY);
+        found.add(shortest);
+        seen.add(shortest);
+        while(found.size() < k){
+            Route last = found.get(found.size() - 1);
+            for(int i = 0; i < last.edges.length; i++){
+                int spur = last.nodes[i];
+                search.newSpur();
+                // The root up to the spur may not be revisited, and no found path with the same root
+                // may be followed out of the spur again.
+                for(int j = 0; j < i; j++){
+                    search.banNode(last.nodes[j]);
+                }
+                for(Route route : found){
+                    if(route.edges.length > i && route.sharesRoot(last, i)){
+                        search.banStep(route.nodes[i + 1]);
+                    }
+                }
+                Route candidate = search.find(spur, last.root(graph, i));
+                if(candidate != null && seen.add(candidate)){
+                    candidates.add(candidate);
+                }
+            }
+            Route next = candidates.poll();
+            if(next == null){
+                break;
+            }
+            found.add(next);
+        }
+
+        List<Path<E>> paths = new ArrayList<>(found.size());
+        for(Route route : found){
+            paths.add(IndexedDijkstra.buildPath(graph, start, route.edges));
+        }
+        return paths;
+    }
+
+    /**
+     * A loopless path as its nodes and edges in order, equal to any path with the same nodes
+     */
+    private static final class Route {
+        private static final Route EMPTY = new Route(new int[0], new int[0], 0);
+
+        private final int[] nodes;
+        private final int[] edges;
+        private final double cost;
+
+        Route(int[] nodes, int[] edges, double cost){
+            this.nodes = nodes;
+            this.edges = edges;
+            this.cost = cost;
+        }
+
+        /**
+         * @return the part of this route before node i, which the spur search continues from node i
+         */
+        Route root(IndexedGraph<?> graph, int i){
+            double rootCost = 0;
+            for(int j = 0; j < i; j++){
+                rootCost += graph.weight(edges[j]);
+            }
+            return new Route(Arrays.copyOf(nodes, i), Arrays.copyOf(edges, i), rootCost);
+        }
+
+        /**
+         * @return true iff this route and other start with the same i + 1 nodes
+         */
+        boolean sharesRoot(Route other, int i){
+            return Arrays.equals(nodes, 0, i + 1, other.nodes, 0, i + 1);
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            return obj instanceof Route && Arrays.equals(nodes, ((Route) obj).nodes);
+        }
+
+        @Override
+        public int hashCode(){
+            return Arrays.hashCode(nodes);
+        }
+    }
+
+    /**
+     * The reusable state of the spur searches of one query. Nodes and steps are banned, and search
+     * state is valid, only if stamped with the number of the current spur, so starting a new spur
+     * search never has to clear an array.
+     */
+    private static final class SpurSearch<E> {
+        private final IndexedGraph<E> graph;
+        private final ShortestPathTree<E> toDest;
+        private final int dest;
+        private final SearchStats stats;
+
+        private final double[] dist;
+        private final int[] parent;
+        private final int[] parentEdge;
+        private final int[] reached;
+        private final int[] finished;
+        private final int[] bannedNode;
+        private final int[] bannedStep;
+        private final IndexedMinHeap active;
+        private int spurNumber;
+
+        SpurSearch(IndexedGraph<E> graph, ShortestPathTree<E> toDest, int dest, SearchStats stats){
+            this.graph = graph;
+            this.toDest = toDest;
+            this.dest = dest;
+            this.stats = stats;
+            int n = graph.size();
+            dist = new double[n];
+            parent = new int[n];
+            parentEdge = new int[n];
+            reached = new int[n];
+            finished = new int[n];
+            bannedNode = new int[n];
+            bannedStep = new int[n];
+            active = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Forgets every ban and all search state, ready for the next spur.
+         */
+        void newSpur(){
+            spurNumber++;
+        }
+
+        /**
+         * Keeps the next search from visiting 'node'.
+         */
+        void banNode(int node){
+            bannedNode[node] = spurNumber;
+        }
+
+        /**
+         * Keeps the next search from stepping from its spur straight to 'node'.
+         */
+        void banStep(int node){
+            bannedStep[node] = spurNumber;
+        }
+
+        /**
+         * Finds the cheapest path from 'spur' to the destination that respects the bans and
+         * continues 'root', which ends just before spur.
+         * @return root followed by that path, or null if there is none
+         */
+        Route find(int spur, Route root){
+            int[] spurEdges = followTree(spur);
+            if(spurEdges == null){
+                spurEdges = aStar(spur);
+                if(spurEdges == null){
+                    return null;
+                }
+            }
+            int length = root.edges.length + spurEdges.length;
+            int[] nodes = Arrays.copyOf(root.nodes, length + 1);
+            int[] edges = Arrays.copyOf(root.edges, length);
+            double cost = root.cost;
+            nodes[root.nodes.length] = spur;
+            for(int i = 0; i < spurEdges.length; i++){
+                edges[root.edges.length + i] = spurEdges[i];
+                nodes[root.nodes.length + i + 1] = graph.target(spurEdges[i]);
+                cost += graph.weight(spurEdges[i]);
+            }
+            return new Route(nodes, edges, cost);
+        }
+
+        /**
+         * @return the edges of the cheapest unrestricted way from spur to the destination, if none
+         * of its nodes is banned and its first step is not, or else null
+         */
+        private int[] followTree(int spur){
+            if(toDest.costTo(spur) == Double.POSITIVE_INFINITY){
+                return null;
+            }
+            int length = 0;
+            for(int v = spur; v != dest; v = toDest.parentOf(v)){
+                int next = toDest.parentOf(v);
+                if(bannedNode[next] == spurNumber || (v == spur && bannedStep[next] == spurNumber)){
+                    return null;
+                }
+                length++;
+            }
+            int[] edges = new int[length];
+            int v = spur;
+            for(int i = 0; i < length; i++){
+                int next = toDest.parentOf(v);
+                edges[i] = cheapestEdge(v, next);
+                v = next;
+            }
+            return edges;
+        }
+
+        /**
+         * @return the id of the cheapest edge from node u to node v
+         * @spec.requires there is an edge from u to v
+         */
+        private int cheapestEdge(int u, int v){
+            int cheapest = -1;
+            for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++){
+                if(graph.target(e) == v && (cheapest == -1 || graph.weight(e) < graph.weight(cheapest))){
+                    cheapest = e;
+                }
+            }
+            return cheapest;
+        }
+
+        /**
+         * Runs A* from spur to the destination around the bans, estimating each remaining cost as the
+         * cost to the destination with no bans, which never overestimates.
+         * @return the edges of the path found, or null if the bans leave no path
+         */
+        private int[] aStar(int spur){
+            dist[spur] = 0;
+            parent[spur] = -1;
+            reached[spur] = spurNumber;
+            active.offer(spur, toDest.costTo(spur));
+            int[] edges = null;
+            while(!active.isEmpty()){
+                int minDest = active.poll();
+                if(stats != null){
+                    stats.addSettled();
+                }
+                if(minDest == dest){
+                    edges = IndexedDijkstra.pathEdges(parent, parentEdge, dest);
+                    break;
+                }
+                finished[minDest] = spurNumber;
+
+                double base = dist[minDest];
+                int first = graph.firstEdge(minDest);
+                int end = graph.endEdge(minDest);
+                for(int e = first; e < end; e++){
+                    int child = graph.target(e);
+                    double remaining = toDest.costTo(child);
+                    if(finished[child] == spurNumber || bannedNode[child] == spurNumber
+                            || remaining == Double.POSITIVE_INFINITY
+                            || (minDest == spur && bannedStep[child] == spurNumber)){
+                        continue;
+                    }
+                    // A node not reached by this spur's search is as far as infinity, so a closed
+                    // edge, which costs positive infinity, never reaches anything.
+                    double cost = base + graph.weight(e);
+                    double known = reached[child] == spurNumber ? dist[child] : Double.POSITIVE_INFINITY;
+                    if(cost < known){
+                        dist[child] = cost;
+                        parent[child] = minDest;
+                        parentEdge[child] = e;
+                        reached[child] = spurNumber;
+                        active.offer(child, cost + remaining);
+                    }
+                }
+                if(stats != null){
+                    stats.addRelaxed(end - first);
+                }
+            }
+            while(!active.isEmpty()){
+                active.poll();
+            }
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusGraphFile;
+import pathfinder.parser.MappedGraph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This represents an immutable map routed on in place in a graph file written by
+ * {@link CampusGraphFile}, for maps too large to load onto the heap as a {@link CampusMap}. The file
+ * is memory-mapped as a {@link MappedGraph}, so opening a map takes about the same time for any size
+ * of map, and the heap it uses is its building tables and the search state each routing thread
+ * reuses.
+ *
+ * <p>Every strategy but DIJKSTRA and INDEXED_DIJKSTRA preprocesses or copies the whole graph onto the
+ * heap, which is what this map avoids, so every query is answered with Dijkstra's algorithm run on
+ * the mapped graph. Every strategy gives a path of the same minimum cost either way.</p>
+ */
+public final class MappedCampusMap implements ModelAPI {
+
+    // AF(this) =
+    //      each node of graph => a walk-able point reachable on the map
+    //      each edge of graph => a segment weighted by physical distance between two points on the map
+    //      each building => its short name, mapped to its long name in abbrevToLongName and to its
+    //          point in abbrevToPoint
+
+    // Rep Invariant:
+    //      graph != null && abbrevToLongName != null && abbrevToPoint != null &&
+    //      abbrevToLongName.keySet().equals(abbrevToPoint.keySet()) &&
+    //      every point in abbrevToPoint is a node of graph
+
+    /**
+     * the walking graph, read in place from the graph file
+     */
+    private final MappedGraph graph;
+
+    /**
+     * map of short name abbreviations to the long names they represent
+     */
+    private final Map<String, String> abbrevToLongName;
+
+    /**
+     * map of short name abbreviations to the points they represent
+     */
+    private final Map<String, Point> abbrevToPoint;
+
+    /**
+     * Opens a map stored in a graph file.
+     *
+     * @param graphFile the graph file to route on
+     * @throws IllegalArgumentException if graphFile is null
+     * @throws pathfinder.parser.CampusPathsParser.ParserException if graphFile cannot be read or is
+     *                                                             not a graph file
+     */
+    public MappedCampusMap(java.nio.file.Path graphFile) {
+        if(graphFile == null){
+            throw new IllegalArgumentException();
+        }
+        graph = MappedGraph.open(graphFile);
+        Map<String, String> longNames = new HashMap<>();
+        Map<String, Point> points = new HashMap<>();
+        for(CampusBuilding building : graph.getBuildings()){
+            longNames.put(building.getShortName(), building.getLongName());
+            points.put(building.getShortName(), new Point(building.getX(), building.getY()));
+        }
+        abbrevToLongName = Collections.unmodifiableMap(longNames);
+        abbrevToPoint = Collections.unmodifiableMap(points);
+        checkRep();
+    }
+
+    @Override
+    public boolean shortNameExists(String shortName) {
+        checkRep();
+        return abbrevToLongName.containsKey(shortName);
+    }
+
+    @Override
+    public String longNameForShort(String shortName) {
+        checkRep();
+        if(!abbrevToLongName.containsKey(shortName)){
+            throw new IllegalArgumentException();
+        }
+        return abbrevToLongName.get(shortName);
+    }
+
+    @Override
+    public Map<String, String> buildingNames() {
+        checkRep();
+        return abbrevToLongName;
+    }
+
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(startShortName, endShortName, RoutingStrategy.DIJKSTRA);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings. Every strategy is
+     * answered with Dijkstra's algorithm on the mapped graph.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param strategy       The search algorithm asked for.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this map, or {@code strategy} is {@literal null}.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingStrategy strategy) {
+        checkRep();
+        if(strategy == null || !abbrevToPoint.containsKey(startShortName)
+                || !abbrevToPoint.containsKey(endShortName)){
+            throw new IllegalArgumentException();
+        }
+        return IndexedDijkstra.dijkstraSearch(graph, abbrevToPoint.get(startShortName),
+                                              abbrevToPoint.get(endShortName));
+    }
+
+    private void checkRep() {
+        assert graph != null && abbrevToLongName != null && abbrevToPoint != null;
+        assert abbrevToLongName.keySet().equals(abbrevToPoint.keySet());
+    }
+}
@@ -68,6 +68,21 @@ public interface ModelAPI {
      *                                  this campus map.
      */
     public Path<Point> findShortestPath(String startShortName, String endShortName);
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings using the given
+     * search algorithm. Every strategy returns a path of the same minimum cost.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param strategy       The search algorithm to find the path with.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or {@code strategy} is {@literal null}.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, RoutingStrategy strategy);
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
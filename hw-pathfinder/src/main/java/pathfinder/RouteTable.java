@@ -0,0 +1,270 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * This represents an immutable table of the shortest routes between every ordered pair of a fixed
+ * set of nodes ("sites") in a graph. The table is filled by one single-source search per site, run
+ * in parallel on the common fork-join pool, after which every lookup is a table read.
+ *
+ * <p>Routes are stored as sequences of edge ids into the graph they were computed on rather than as
+ * Paths, so the table holds no Point objects and no copies of edge costs. In a symmetric graph, only
+ * the route from the lower to the higher index of each pair of sites is stored, and the other
+ * direction is served as its reverse.</p>
+ *
+ * @param <E> Type of the node label
+ */
+public final class RouteTable<E> {
+
+    // AF(this) =
+    //      the site with index i => graph.labelOf(sites[i])
+    //      the minimum cost from site i to site j => costs[i * sites.length + j],
+    //          infinite if there is no route
+    //      the minimum cost route from site i to site j => if !symmetric or i <= j, the path from
+    //          sites[i] following the edges routes[routeIndex(i, j)], or no route if that entry is
+    //          null; otherwise the reverse of the route from site j to site i
+
+    // Rep Invariant:
+    //      graph != null && sites != null && costs != null && routes != null &&
+    //      costs.length == sites.length * sites.length &&
+    //      routes.length == (symmetric ? sites.length * (sites.length + 1) / 2 : costs.length) &&
+    //      0 <= sites[i] < graph.size() for every i &&
+    //      routes[routeIndex(i, j)] == null iff costs[i * sites.length + j] is infinite, for every
+    //          stored pair i, j
+
+    /**
+     * The graph the routes were computed on.
+     */
+    private final IndexedGraph<E> graph;
+
+    /**
+     * The node id of each site.
+     */
+    private final int[] sites;
+
+    /**
+     * The cost of each route, in row-major order by (start site, end site).
+     */
+    private final double[] costs;
+
+    /**
+     * The edge ids of each stored route, in row-major order by (start site, end site). If symmetric,
+     * each row i only holds the routes to sites i and above.
+     */
+    private final int[][] routes;
+
+    /**
+     * Whether graph is symmetric, so that only half the routes are stored.
+     */
+    private final boolean symmetric;
+
+    /**
+     * Computes the shortest route between every ordered pair of the given nodes. If graph is
+     * symmetric, only half of the routes are kept.
+     *
+     * @param graph The graph to route in.
+     * @param siteLabels The labels of the nodes to route between.
+     * @throws IllegalArgumentException if either argument is null, or a label is not in graph.
+     */
+    public RouteTable(IndexedGraph<E> graph, List<E> siteLabels) {
+        if(graph == null || siteLabels == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        int k = siteLabels.size();
+        sites = new int[k];
+        for(int i = 0; i < k; i++) {
+            sites[i] = graph.idOf(siteLabels.get(i));
+            if(sites[i] == -1) {
+                throw new IllegalArgumentException("Site is not in the graph: " + siteLabels.get(i));
+            }
+        }
+        symmetric = graph.isSymmetric();
+        costs = new double[k * k];
+        routes = new int[symmetric ? k * (k + 1) / 2 : k * k][];
+
+        // Each task writes only its own row of costs and routes, so the rows need no locking.
+        IntStream.range(0, k).parallel().forEach(this::fillRow);
+        checkRep();
+    }
+
+    /**
+     * Creates an empty table of the given sites, for reweighted to fill in.
+     */
+    private RouteTable(IndexedGraph<E> graph, int[] sites) {
+        this.graph = graph;
+        this.sites = sites;
+        int k = sites.length;
+        symmetric = graph.isSymmetric();
+        costs = new double[k * k];
+        routes = new int[symmetric ? k * (k + 1) / 2 : k * k][];
+    }
+
+    /**
+     * Returns the table of routes between the same sites in a graph that differs from the graph of
+     * this table only in the costs of some edges, such as one made by
+     * {@link graph.CsrGraph#withWeights}. If no edge got cheaper, a route that uses no changed edge
+     * costs what it did and every other route costs at least what it did, so it is still a minimum
+     * cost route and is kept; only the rows holding a route through a changed edge are searched
+     * again. If any edge got cheaper, or the graphs differ in symmetry, every row is searched again.
+     *
+     * @param next The graph to route in, with the same nodes and edges, by id, as the graph of this
+     *             table.
+     * @return The table of routes between the sites of this table in next.
+     * @throws IllegalArgumentException if next is null or does not have as many nodes and edges as
+     * the graph of this table.
+     */
+    public RouteTable<E> reweighted(IndexedGraph<E> next) {
+        if(next == null || next.size() != graph.size() || next.edgeCount() != graph.edgeCount()) {
+            throw new IllegalArgumentException();
+        }
+        BitSet changed = new BitSet(graph.edgeCount());
+        boolean cheaper = false;
+        for(int e = 0; e < graph.edgeCount(); e++) {
+            double before = graph.weight(e);
+            double after = next.weight(e);
+            if(Double.compare(before, after) != 0) {
+                changed.set(e);
+                cheaper |= after < before;
+            }
+        }
+        RouteTable<E> table = new RouteTable<>(next, sites);
+        int k = sites.length;
+        boolean[] stale = new boolean[k];
+        if(cheaper || table.symmetric != symmetric) {
+            Arrays.fill(stale, true);
+        } else {
+            for(int i = 0; i < k; i++) {
+                for(int j = symmetric ? i : 0; j < k; j++) {
+                    int[] route = routes[routeIndex(i, j)];
+                    if(route != null && usesAny(route, changed)) {
+                        stale[i] = true;
+                        continue;
+                    }
+                    table.routes[routeIndex(i, j)] = route;
+                    table.costs[i * k + j] = costs[i * k + j];
+                    if(symmetric) {
+                        table.costs[j * k + i] = costs[j * k + i];
+                    }
+                }
+            }
+        }
+
+        IntStream.range(0, k).parallel().filter(i -> stale[i]).forEach(table::fillRow);
+        if(symmetric && table.symmetric) {
+            // A row searched again also changes the costs back to its site held in the rows of the
+            // sites after it, whose routes to it are not stored.
+            for(int i = 0; i < k; i++) {
+                if(stale[i]) {
+                    for(int j = i + 1; j < k; j++) {
+                        table.costs[j * k + i] = table.costs[i * k + j];
+                    }
+                }
+            }
+        }
+        table.checkRep();
+        return table;
+    }
+
+    /**
+     * @return {@literal true} iff any of the edges of route is in edges.
+     */
+    private static boolean usesAny(int[] route, BitSet edges) {
+        for(int e : route) {
+            if(edges.get(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs a single-source search from site i and records its routes to every site.
+     */
+    private void fillRow(int i) {
+        ShortestPathTree<E> tree = IndexedDijkstra.shortestPathTree(graph, sites[i], Double.POSITIVE_INFINITY);
+        for(int j = 0; j < sites.length; j++) {
+            costs[i * sites.length + j] = tree.costTo(sites[j]);
+            if(!symmetric || i <= j) {
+                routes[routeIndex(i, j)] = tree.pathEdgesTo(sites[j]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of sites in this table.
+     */
+    public int size() {
+        return sites.length;
+    }
+
+    /**
+     * @param from The index of the site the route starts at.
+     * @param to   The index of the site the route ends at.
+     * @return The minimum cost of a route between the sites, infinite if there is none.
+     * @throws IndexOutOfBoundsException if either index is not in {@code 0..size()-1}.
+     */
+    public double cost(int from, int to) {
+        checkIndices(from, to);
+        return costs[from * sites.length + to];
+    }
+
+    /**
+     * @param from The index of the site the route starts at.
+     * @param to   The index of the site the route ends at.
+     * @return The minimum cost path between the sites, or {@literal null} if none exists.
+     * @throws IndexOutOfBoundsException if either index is not in {@code 0..size()-1}.
+     */
+    public Path<E> path(int from, int to) {
+        checkIndices(from, to);
+        if(symmetric && from > to) {
+            Path<E> forward = path(to, from);
+            return forward == null ? null : forward.reverse();
+        }
+        int[] route = routes[routeIndex(from, to)];
+        if(route == null) {
+            return null;
+        }
+        return IndexedDijkstra.buildPath(graph, sites[from], route);
+    }
+
+    /**
+     * @return {@literal true} iff the graph is symmetric, so only half the routes are stored.
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    private void checkIndices(int from, int to) {
+        if(from < 0 || from >= sites.length || to < 0 || to >= sites.length) {
+            throw new IndexOutOfBoundsException("No such site.");
+        }
+    }
+
+    /**
+     * @return The index in routes of the route from site 'from' to site 'to'.
+     * @spec.requires !symmetric || from &lt;= to
+     */
+    private int routeIndex(int from, int to) {
+        if(!symmetric) {
+            return from * sites.length + to;
+        }
+        // Row r starts after the k + (k - 1) + ... + (k - r + 1) entries of the rows before it.
+        return from * sites.length - from * (from - 1) / 2 + (to - from);
+    }
+
+    private void checkRep() {
+        assert graph != null && sites != null && costs != null && routes != null;
+        assert costs.length == sites.length * sites.length;
+        assert routes.length == (symmetric ? sites.length * (sites.length + 1) / 2 : costs.length);
+        for(int i = 0; i < sites.length; i++) {
+            for(int j = symmetric ? i : 0; j < sites.length; j++) {
+                assert (routes[routeIndex(i, j)] == null) == (costs[i * sites.length + j] == Double.POSITIVE_INFINITY);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Point;
+
+/**
+ * A RoutingProfile decides what a route costs, for example to find routes a wheelchair can take
+ * rather than the shortest ones. It gives each segment a cost from its length and its
+ * {@link EdgeAttributes}, and routes are found that cost the least in total.
+ *
+ * <p>A campus map computes a profile's cost of every segment once, into a graph of its own that is
+ * searched like the default one, so the cost function is never called while searching. Profiles
+ * are told apart by identity: a map keeps its precomputed graphs for each RoutingProfile instance
+ * it is asked to route with, so a profile should be made once and reused.</p>
+ */
+public final class RoutingProfile {
+
+    /**
+     * The cost of walking one segment
+     */
+    @FunctionalInterface
+    public interface EdgeCost {
+
+        /**
+         * @param distance what the segment costs by distance alone: its length, or the cost it is
+         *                 changed to by {@link EdgeOverrides}. Never infinite; closed segments stay
+         *                 closed under every profile.
+         * @param length   how long the segment is, as read from the campus data whatever it costs;
+         *                 measure slopes by this, not by distance
+         * @param climb    how far the end of the segment is above its start; negative if below
+         * @param stairs   whether the segment has steps
+         * @param indoor   whether the segment is indoors or covered
+         * @return the cost of walking the segment, at least 0; positive infinity to never walk it
+         */
+        double cost(double distance, double length, double climb, boolean stairs, boolean indoor);
+    }
+
+    /**
+     * the steepest grade, rise over run, a wheelchair ramp may have
+     */
+    private static final double MAX_RAMP_GRADE = 1.0 / 12;
+
+    /**
+     * Routes by distance alone, the same as a map routes without a profile.
+     */
+    public static final RoutingProfile SHORTEST = new RoutingProfile("shortest", RoutingProfile::distanceCost);
+
+    /**
+     * Routes that avoid stairs and anything steeper than a ramp, preferring flatter segments.
+     */
+    public static final RoutingProfile ACCESSIBLE = new RoutingProfile("accessible", RoutingProfile::accessibleCost);
+
+    /**
+     * Routes that prefer indoor and covered segments, walking up to twice as far to stay out of the
+     * rain.
+     */
+    public static final RoutingProfile COVERED = new RoutingProfile("covered", RoutingProfile::coveredCost);
+
+    private final String name;
+    private final EdgeCost cost;
+
+    /**
+     * Creates a new profile.
+     *
+     * @param name the name of the profile, for reporting and for requests to name it by
+     * @param cost the cost of each segment under this profile
+     * @throws IllegalArgumentException if name or cost is null
+     */
+    public RoutingProfile(String name, EdgeCost cost) {
+        if(name == null || cost == null){
+            throw new IllegalArgumentException();
+        }
+        this.name = name;
+        this.cost = cost;
+    }
+
+    /**
+     * @param name the name of a profile
+     * @return the built-in profile, SHORTEST, ACCESSIBLE or COVERED, with that name, or null if none
+     * has it
+     */
+    public static RoutingProfile named(String name) {
+        for(RoutingProfile profile : new RoutingProfile[]{SHORTEST, ACCESSIBLE, COVERED}){
+            if(profile.name.equals(name)){
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the name of this profile
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Computes this profile's cost of every edge of a graph.
+     *
+     * @param graph      the graph, costing edges by distance; edges costing positive infinity are closed
+     * @param lengths    a graph with the same edge ids as graph, weighting each edge by its length
+     * @param attributes the attributes of the edges of graph
+     * @return the cost of each edge of graph under this profile, by edge id
+     * @throws IllegalArgumentException if the cost function gives a cost that is NaN or negative
+     */
+    double[] weigh(CsrGraph<Point> graph, CsrGraph<Point> lengths, EdgeAttributes.Table attributes) {
+        double[] costs = new double[graph.edgeCount()];
+        for(int e = 0; e < costs.length; e++){
+            double distance = graph.weight(e);
+            if(distance == Double.POSITIVE_INFINITY){
+                costs[e] = distance;
+                continue;
+            }
+            double c = cost.cost(distance, lengths.weight(e), attributes.climb(e), attributes.stairs(e), attributes.indoor(e));
+            if(Double.isNaN(c) || c < 0){
+                throw new IllegalArgumentException("Profile " + name + " gave a segment the cost " + c);
+            }
+            costs[e] = c;
+        }
+        return costs;
+    }
+
+    private static double distanceCost(double distance, double length, double climb, boolean stairs,
+                                       boolean indoor) {
+        return distance;
+    }
+
+    private static double accessibleCost(double distance, double length, double climb, boolean stairs,
+                                         boolean indoor) {
+        if(stairs){
+            return Double.POSITIVE_INFINITY;
+        }
+        // Measured along the segment itself, so changing what a ramp costs never makes it less steep.
+        double grade = climb == 0 ? 0 : length == 0 ? Double.POSITIVE_INFINITY : Math.abs(climb) / length;
+        if(grade > MAX_RAMP_GRADE){
+            return Double.POSITIVE_INFINITY;
+        }
+        // A segment at the steepest ramp grade costs twice its length.
+        return distance * (1 + grade / MAX_RAMP_GRADE);
+    }
+
+    private static double coveredCost(double distance, double length, double climb, boolean stairs,
+                                      boolean indoor) {
+        return indoor ? distance : distance * 2;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,41 @@
+package pathfinder;
+
+/**
+ * The search algorithms a {@link CampusMap} can use to answer shortest path queries. Every strategy
+ * finds a minimum-cost path; they differ only in how much work a query costs.
+ */
+public enum RoutingStrategy {
+    /**
+     * {@link DijkstraUtil#dijkstraSearch}, run directly on the campus Graph.
+     */
+    DIJKSTRA,
+
+    /**
+     * {@link IndexedDijkstra#dijkstraSearch}, run on a compressed snapshot of the campus Graph.
+     */
+    INDEXED_DIJKSTRA,
+
+    /**
+     * {@link IndexedDijkstra#aStarSearch}, guided towards the destination by straight-line distance.
+     */
+    ASTAR,
+
+    /**
+     * {@link IndexedDijkstra#bidirectionalSearch}, searching from both buildings until the two
+     * searches meet.
+     */
+    BIDIRECTIONAL,
+
+    /**
+     * A lookup in a {@link RouteTable} of the routes between every pair of buildings, computed the
+     * first time the strategy is used (when the map is created, if it is the map's default).
+     */
+    PRECOMPUTED,
+
+    /**
+     * {@link ContractionHierarchy#findShortestPath}, an upward search in a preprocessed hierarchy
+     * of the campus Graph, built the first time the strategy is used (when the map is created, if it
+     * is the map's default).
+     */
+    CONTRACTION_HIERARCHY
+}
@@ -0,0 +1,71 @@
+package pathfinder;
+
+/**
+ * This represents a mutable record of how much work shortest path searches have done. A caller
+ * passes one to a search and reads it afterwards; searches only ever add to the counts.
+ */
+public class SearchStats {
+
+    // AF(this) =
+    //      the number of nodes whose minimum cost was settled => settled
+    //      the number of edges examined while settling them => relaxed
+
+    // Rep Invariant:
+    //      settled >= 0 && relaxed >= 0
+
+    /**
+     * The number of nodes settled.
+     */
+    private long settled;
+
+    /**
+     * The number of edges examined.
+     */
+    private long relaxed;
+
+    /**
+     * Creates a new record with no work counted.
+     */
+    public SearchStats() {
+        this.settled = 0;
+        this.relaxed = 0;
+    }
+
+    /**
+     * Counts one settled node.
+     *
+     * @spec.modifies this
+     */
+    void addSettled() {
+        settled++;
+    }
+
+    /**
+     * Counts {@code count} examined edges.
+     *
+     * @param count The number of edges examined.
+     * @spec.modifies this
+     */
+    void addRelaxed(int count) {
+        relaxed += count;
+    }
+
+    /**
+     * @return The number of nodes whose minimum cost has been settled.
+     */
+    public long getSettled() {
+        return settled;
+    }
+
+    /**
+     * @return The number of edges examined while settling nodes.
+     */
+    public long getRelaxed() {
+        return relaxed;
+    }
+
+    @Override
+    public String toString() {
+        return "settled " + settled + " nodes, relaxed " + relaxed + " edges";
+    }
+}
@@ -0,0 +1,161 @@
+package pathfinder;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.Path;
+
+/**
+ * This represents an immutable tree of minimum cost paths from one start node to the nodes of a
+ * graph, as found by a single run of Dijkstra's algorithm. One tree answers any number of "how do I
+ * get from the start to X" questions without searching again.
+ *
+ * <p>A tree built with a cost limit only contains the nodes whose minimum cost from the start is
+ * within that limit; every other node is reported as unreachable.</p>
+ *
+ * @param <E> Type of the node label
+ */
+public final class ShortestPathTree<E> {
+
+    // AF(this) =
+    //      the start node => graph.labelOf(start)
+    //      the nodes in the tree => {graph.labelOf(v) | reached[v]}
+    //      the minimum cost from the start to node v in the tree => dist[v]
+    //      the last edge of the minimum cost path to node v in the tree, for v != start => parentEdge[v]
+
+    // Rep Invariant:
+    //      graph != null && dist != null && parent != null && parentEdge != null && reached != null &&
+    //      dist, parent, parentEdge and reached all have length graph.size() &&
+    //      reached[start] && parent[start] == -1 && dist[start] == 0 &&
+    //      for every v != start with reached[v]: reached[parent[v]] &&
+    //          graph.target(parentEdge[v]) == v
+
+    /**
+     * The graph the tree was computed on.
+     */
+    private final IndexedGraph<E> graph;
+
+    /**
+     * The id of the start node.
+     */
+    private final int start;
+
+    /**
+     * The minimum cost from the start to each node in the tree.
+     */
+    private final double[] dist;
+
+    /**
+     * The node each node in the tree is reached from, -1 for the start.
+     */
+    private final int[] parent;
+
+    /**
+     * The edge each node in the tree is reached by.
+     */
+    private final int[] parentEdge;
+
+    /**
+     * Whether each node is in the tree.
+     */
+    private final boolean[] reached;
+
+    /**
+     * Creates a new tree from the results of a search. The tree takes ownership of the arrays.
+     */
+    ShortestPathTree(IndexedGraph<E> graph, int start, double[] dist, int[] parent, int[] parentEdge,
+                     boolean[] reached) {
+        this.graph = graph;
+        this.start = start;
+        this.dist = dist;
+        this.parent = parent;
+        this.parentEdge = parentEdge;
+        this.reached = reached;
+        checkRep();
+    }
+
+    /**
+     * @return The label of the node every path in this tree starts at.
+     */
+    public E getStart() {
+        return graph.labelOf(start);
+    }
+
+    /**
+     * @param label The label of a node.
+     * @return {@literal true} iff this tree contains a path to the node labeled {@code label}.
+     * @throws IllegalArgumentException if label is null or not in the graph this tree was built on.
+     */
+    public boolean isReachable(E label) {
+        return reached[idOf(label)];
+    }
+
+    /**
+     * @param label The label of a node.
+     * @return The minimum cost of a path from the start to the node labeled {@code label}, or
+     * infinity if this tree contains no path to it.
+     * @throws IllegalArgumentException if label is null or not in the graph this tree was built on.
+     */
+    public double costTo(E label) {
+        return costTo(idOf(label));
+    }
+
+    /**
+     * @param label The label of a node.
+     * @return The minimum cost path from the start to the node labeled {@code label}, or
+     * {@literal null} if this tree contains no path to it.
+     * @throws IllegalArgumentException if label is null or not in the graph this tree was built on.
+     */
+    public Path<E> pathTo(E label) {
+        return pathTo(idOf(label));
+    }
+
+    /**
+     * @param node The id of a node.
+     * @return The minimum cost from the start to node {@code node}, infinite if it is not in the tree.
+     */
+    double costTo(int node) {
+        return reached[node] ? dist[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node The id of a node.
+     * @return The id of the node that {@code node} is reached from in this tree, or -1 if it is the
+     * start or not in the tree.
+     */
+    int parentOf(int node) {
+        return reached[node] ? parent[node] : -1;
+    }
+
+    /**
+     * @param node The id of a node.
+     * @return The ids of the edges along the path to node {@code node}, or null if it is not in the tree.
+     */
+    int[] pathEdgesTo(int node) {
+        return reached[node] ? IndexedDijkstra.pathEdges(parent, parentEdge, node) : null;
+    }
+
+    /**
+     * @param node The id of a node.
+     * @return The minimum cost path to node {@code node}, or null if it is not in the tree.
+     */
+    Path<E> pathTo(int node) {
+        return reached[node] ? IndexedDijkstra.buildPath(graph, start, pathEdgesTo(node)) : null;
+    }
+
+    private int idOf(E label) {
+        if(label == null) {
+            throw new IllegalArgumentException();
+        }
+        int id = graph.idOf(label);
+        if(id == -1) {
+            throw new IllegalArgumentException();
+        }
+        return id;
+    }
+
+    private void checkRep() {
+        assert graph != null && dist != null && parent != null && parentEdge != null && reached != null;
+        assert dist.length == graph.size() && parent.length == graph.size();
+        assert parentEdge.length == graph.size() && reached.length == graph.size();
+        assert reached[start] && parent[start] == -1 && dist[start] == 0;
+    }
+}
@@ -0,0 +1,200 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * This represents a growing set of distinct cartesian coordinates, each given a dense integer id in
+ * the order it was first added: the first distinct coordinate gets id 0, the next id 1, and so on.
+ *
+ * <p>Coordinates are stored as primitive doubles and found through an open-addressing hash table
+ * keyed on their raw bits, so adding or looking up a coordinate never creates a Point or boxes a
+ * double. Two coordinates are the same exactly when the Points made from them would be equal.</p>
+ */
+public final class CoordinateTable {
+
+    // AF(this) =
+    //      the coordinate with id i => (xs[i], ys[i]) for 0 <= i < size
+
+    // Rep Invariant:
+    //      xs != null && ys != null && slots != null &&
+    //      0 <= size <= xs.length == ys.length &&
+    //      slots.length is a power of two && slots.length >= 2 * size &&
+    //      for every 0 <= i < size, i + 1 is in slots at the first slot from hash(xs[i], ys[i]) that
+    //          holds no other coordinate, and the coordinates of ids 0..size-1 are distinct
+
+    private static final boolean DEBUG = false;
+
+    /**
+     * The x coordinate of each id.
+     */
+    private double[] xs;
+
+    /**
+     * The y coordinate of each id.
+     */
+    private double[] ys;
+
+    /**
+     * The hash table: each slot holds an id + 1, or 0 if it is empty.
+     */
+    private int[] slots;
+
+    /**
+     * The number of coordinates in this table.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty table.
+     */
+    public CoordinateTable() {
+        this(16);
+    }
+
+    /**
+     * Creates a new, empty table with room for a number of coordinates before it has to grow.
+     *
+     * @param expectedSize The number of coordinates the table is expected to hold.
+     * @throws IllegalArgumentException if expectedSize is negative.
+     */
+    public CoordinateTable(int expectedSize) {
+        if(expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative.");
+        }
+        int capacity = Math.max(expectedSize, 8);
+        xs = new double[capacity];
+        ys = new double[capacity];
+        slots = new int[Integer.highestOneBit(2 * capacity - 1) << 1];
+        checkRep();
+    }
+
+    /**
+     * @return The number of distinct coordinates in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of a coordinate, adding it to this table if it is not already there.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The id of (x, y).
+     * @spec.modifies this
+     * @spec.effects adds (x, y) with id size() if it is not already in this table
+     */
+    public int intern(double x, double y) {
+        int slot = find(x, y);
+        if(slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if(size == xs.length) {
+            xs = Arrays.copyOf(xs, 2 * size);
+            ys = Arrays.copyOf(ys, 2 * size);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+        slots[slot] = size;
+        if(2 * size > slots.length) {
+            rehash();
+        }
+        checkRep();
+        return size - 1;
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The id of (x, y), or -1 if it is not in this table.
+     */
+    public int idOf(double x, double y) {
+        return slots[find(x, y)] - 1;
+    }
+
+    /**
+     * @param id The id of a coordinate.
+     * @return The x coordinate with that id.
+     * @throws IndexOutOfBoundsException if id is not in {@code 0..size()-1}.
+     */
+    public double x(int id) {
+        checkId(id);
+        return xs[id];
+    }
+
+    /**
+     * @param id The id of a coordinate.
+     * @return The y coordinate with that id.
+     * @throws IndexOutOfBoundsException if id is not in {@code 0..size()-1}.
+     */
+    public double y(int id) {
+        checkId(id);
+        return ys[id];
+    }
+
+    /**
+     * @param id The id of a coordinate.
+     * @return A new Point at the coordinate with that id.
+     * @throws IndexOutOfBoundsException if id is not in {@code 0..size()-1}.
+     */
+    public Point pointOf(int id) {
+        checkId(id);
+        return new Point(xs[id], ys[id]);
+    }
+
+    /**
+     * @return The slot holding (x, y), or the empty slot where it would be added.
+     */
+    private int find(double x, double y) {
+        long xBits = Double.doubleToLongBits(x);
+        long yBits = Double.doubleToLongBits(y);
+        int mask = slots.length - 1;
+        int slot = hash(xBits, yBits) & mask;
+        while(slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if(Double.doubleToLongBits(xs[id]) == xBits && Double.doubleToLongBits(ys[id]) == yBits) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table and puts every id back in it.
+     */
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for(int id = 0; id < size; id++) {
+            int slot = hash(Double.doubleToLongBits(xs[id]), Double.doubleToLongBits(ys[id])) & mask;
+            while(slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(long xBits, long yBits) {
+        long h = (xBits * 31 + yBits) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void checkId(int id) {
+        if(id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No coordinate with id " + id);
+        }
+    }
+
+    private void checkRep() {
+        assert xs != null && ys != null && slots != null;
+        assert size <= xs.length && xs.length == ys.length;
+        assert Integer.bitCount(slots.length) == 1 && slots.length >= 2 * size;
+        if(DEBUG) {
+            for(int id = 0; id < size; id++) {
+                assert idOf(xs[id], ys[id]) == id : "coordinate is not found at its id";
+            }
+        }
+    }
+}
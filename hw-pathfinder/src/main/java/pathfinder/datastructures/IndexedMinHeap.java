@@ -0,0 +1,200 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable binary min-heap of integer ids in the range {@code 0..capacity-1}, each
+ * with a double priority. Unlike {@link java.util.PriorityQueue}, the heap tracks where every id
+ * lives, so the priority of an id already in the heap can be lowered in O(log n) instead of pushing
+ * a duplicate entry.
+ */
+public class IndexedMinHeap {
+
+    // AF(this) =
+    //      the ids in the heap => heap[0 .. size-1]
+    //      the priority of id v, if v is in the heap => keys[v]
+
+    // Rep Invariant:
+    //      heap != null && positions != null && keys != null &&
+    //      0 <= size <= heap.length &&
+    //      positions[heap[i]] == i for every 0 <= i < size &&
+    //      positions[v] == -1 for every id v that is not in the heap &&
+    //      keys[heap[(i - 1) / 2]] <= keys[heap[i]] for every 0 < i < size
+
+    /**
+     * The ids in the heap, laid out as an implicit binary tree.
+     */
+    private final int[] heap;
+
+    /**
+     * The index of each id in heap, or -1 if the id is not in the heap.
+     */
+    private final int[] positions;
+
+    /**
+     * The priority of each id in the heap.
+     */
+    private final double[] keys;
+
+    /**
+     * The number of ids in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty heap able to hold the ids {@code 0..capacity-1}.
+     *
+     * @param capacity The number of distinct ids this heap can hold.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public IndexedMinHeap(int capacity) {
+        if(capacity < 0) {
+            throw new IllegalArgumentException("Heap capacity may not be negative.");
+        }
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+    }
+
+    /**
+     * @return {@literal true} iff there are no ids in this heap.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of ids in this heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id The id to look up.
+     * @return {@literal true} iff {@code id} is currently in this heap.
+     */
+    public boolean contains(int id) {
+        return positions[id] != -1;
+    }
+
+    /**
+     * Adds {@code id} to this heap with the given priority, or lowers its priority if it is already
+     * in the heap with a higher one. Does nothing if {@code id} is already in the heap with a
+     * priority no greater than {@code key}.
+     *
+     * @param id  The id to add.
+     * @param key The priority of {@code id}.
+     * @return {@literal true} iff the heap was changed.
+     */
+    public boolean offer(int id, double key) {
+        int pos = positions[id];
+        if(pos == -1) {
+            keys[id] = key;
+            heap[size] = id;
+            positions[id] = size;
+            size++;
+            siftUp(size - 1);
+            return true;
+        }
+        if(key < keys[id]) {
+            keys[id] = key;
+            siftUp(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The smallest priority of any id in this heap.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes the id with the smallest priority from this heap.
+     *
+     * @return The id that was removed.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        int min = heap[0];
+        size--;
+        positions[min] = -1;
+        if(size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every id from this heap, in time proportional to the number of ids in it rather than
+     * to its capacity, so a heap can be reused by searches that only touch a small part of a graph.
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the id at heap index {@code i} towards the root until its parent has a priority no
+     * greater than its own.
+     */
+    private void siftUp(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        while(i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentId = heap[parent];
+            if(keys[parentId] <= key) {
+                break;
+            }
+            heap[i] = parentId;
+            positions[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    /**
+     * Moves the id at heap index {@code i} towards the leaves until both of its children have
+     * priorities no smaller than its own.
+     */
+    private void siftDown(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        int half = size >>> 1;
+        while(i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if(right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childId = heap[child];
+            if(key <= keys[childId]) {
+                break;
+            }
+            heap[i] = childId;
+            positions[childId] = i;
+            i = child;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+}
@@ -0,0 +1,394 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This represents an immutable 2-d tree over a list of points, which finds the points nearest to
+ * any coordinate, by straight-line distance, in about O(log n) time instead of comparing against
+ * every point. Points are identified by their index in the list the tree was built from.
+ *
+ * <p>The tree is stored implicitly in arrays: each range of the arrays is one subtree, whose root is
+ * the middle element, with every point of the first half at most the root and every point of the
+ * second half at least the root along the axis the subtree splits. Subtrees split on x and y in
+ * turn.</p>
+ *
+ * <p>When several points are equally near, the one with the lowest index is preferred, so every
+ * query has exactly one answer.</p>
+ */
+public final class KdTree {
+
+    // AF(this) =
+    //      the point with index ids[i] => (xs[i], ys[i]) for 0 <= i < ids.length
+
+    // Rep Invariant:
+    //      ids != null && xs != null && ys != null && ids.length == xs.length == ys.length &&
+    //      ids is a permutation of 0..ids.length-1 &&
+    //      for every range lo..hi-1 of the tree at depth d with middle m, every i in lo..m-1 has
+    //          coordinate(i, d) <= coordinate(m, d) and every i in m+1..hi-1 has
+    //          coordinate(i, d) >= coordinate(m, d), where coordinate(i, d) is xs[i] for even d and
+    //          ys[i] for odd d
+
+    private static final boolean DEBUG = false;
+
+    /**
+     * The index of each point in the list the tree was built from, in tree order.
+     */
+    private final int[] ids;
+
+    /**
+     * The x coordinate of each point, in tree order.
+     */
+    private final double[] xs;
+
+    /**
+     * The y coordinate of each point, in tree order.
+     */
+    private final double[] ys;
+
+    /**
+     * Creates a new tree over a list of points.
+     *
+     * @param points The points to index.
+     * @throws IllegalArgumentException if points is null or holds null.
+     */
+    public KdTree(List<Point> points) {
+        if(points == null) {
+            throw new IllegalArgumentException("Points cannot be null.");
+        }
+        int n = points.size();
+        ids = new int[n];
+        xs = new double[n];
+        ys = new double[n];
+        for(int i = 0; i < n; i++) {
+            Point point = points.get(i);
+            if(point == null) {
+                throw new IllegalArgumentException("Points cannot hold null.");
+            }
+            ids[i] = i;
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+        }
+        build(0, n, true);
+        checkRep();
+    }
+
+    /**
+     * @return The number of points in this tree.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Finds the point nearest to a coordinate.
+     *
+     * @param x The x coordinate to search from.
+     * @param y The y coordinate to search from.
+     * @return The index of the point nearest to (x, y), or -1 if this tree is empty.
+     * @throws IllegalArgumentException if x or y is NaN.
+     */
+    public int nearest(double x, double y) {
+        int[] found = nearest(x, y, 1);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    /**
+     * Finds the k points nearest to a coordinate.
+     *
+     * @param x The x coordinate to search from.
+     * @param y The y coordinate to search from.
+     * @param k The number of points to find.
+     * @return The indices of the min(k, size()) points nearest to (x, y), nearest first.
+     * @throws IllegalArgumentException if x or y is NaN, or k is negative.
+     */
+    public int[] nearest(double x, double y, int k) {
+        if(Double.isNaN(x) || Double.isNaN(y)) {
+            throw new IllegalArgumentException("Coordinates cannot be NaN.");
+        }
+        if(k < 0) {
+            throw new IllegalArgumentException("Cannot find a negative number of points.");
+        }
+        Search search = new Search(x, y, Math.min(k, ids.length));
+        if(search.capacity > 0) {
+            search(search, 0, ids.length, true);
+        }
+        return search.sorted();
+    }
+
+    /**
+     * Finds every point within a distance of a coordinate.
+     *
+     * @param x      The x coordinate to search from.
+     * @param y      The y coordinate to search from.
+     * @param radius The greatest straight-line distance from (x, y) to return points at.
+     * @return The indices of the points at most radius from (x, y), nearest first.
+     * @throws IllegalArgumentException if x, y or radius is NaN, or radius is negative.
+     */
+    public int[] withinRadius(double x, double y, double radius) {
+        if(Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(radius)) {
+            throw new IllegalArgumentException("Coordinates and radius cannot be NaN.");
+        }
+        if(radius < 0) {
+            throw new IllegalArgumentException("Radius cannot be negative.");
+        }
+        Hits hits = new Hits();
+        collect(hits, x, y, radius * radius, 0, ids.length, true);
+        // Sort by distance, then index; radius queries return few points, so boxing them is cheap.
+        Integer[] order = new Integer[hits.size];
+        for(int i = 0; i < hits.size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> hits.distances[a] != hits.distances[b]
+                ? Double.compare(hits.distances[a], hits.distances[b])
+                : Integer.compare(hits.found[a], hits.found[b]));
+        int[] result = new int[hits.size];
+        for(int i = 0; i < hits.size; i++) {
+            result[i] = hits.found[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Adds every point of the subtree lo..hi-1 at squared distance at most limit from (x, y) to hits.
+     */
+    private void collect(Hits hits, double x, double y, double limit, int lo, int hi, boolean splitOnX) {
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double dx = x - xs[mid];
+            double dy = y - ys[mid];
+            double d = dx * dx + dy * dy;
+            if(d <= limit) {
+                hits.add(d, ids[mid]);
+            }
+            double gap = splitOnX ? dx : dy;
+            // Each side of the split only needs searching if the circle reaches across to it.
+            if(gap < 0 || gap * gap <= limit) {
+                collect(hits, x, y, limit, lo, mid, !splitOnX);
+            }
+            if(gap < 0 && gap * gap > limit) {
+                return;
+            }
+            lo = mid + 1;
+            splitOnX = !splitOnX;
+        }
+    }
+
+    /**
+     * Offers every point of the subtree lo..hi-1 that could be nearer than the points found so far
+     * to search.
+     */
+    private void search(Search search, int lo, int hi, boolean splitOnX) {
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double dx = search.x - xs[mid];
+            double dy = search.y - ys[mid];
+            search.offer(dx * dx + dy * dy, ids[mid]);
+            double gap = splitOnX ? dx : dy;
+            // Search the side of the split holding the coordinate first, since it is likelier to hold
+            // the nearest points, then the other side only if it could still hold one.
+            int nearLo = gap < 0 ? lo : mid + 1;
+            int nearHi = gap < 0 ? mid : hi;
+            search(search, nearLo, nearHi, !splitOnX);
+            if(!search.mayAccept(gap * gap)) {
+                return;
+            }
+            lo = gap < 0 ? mid + 1 : lo;
+            hi = gap < 0 ? hi : mid;
+            splitOnX = !splitOnX;
+        }
+    }
+
+    /**
+     * Arranges the points in lo..hi-1 into a subtree that splits on x if splitOnX, or on y otherwise.
+     */
+    private void build(int lo, int hi, boolean splitOnX) {
+        while(hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi, mid, splitOnX);
+            build(lo, mid, !splitOnX);
+            lo = mid + 1;
+            splitOnX = !splitOnX;
+        }
+    }
+
+    /**
+     * Reorders lo..hi-1 so that the point at k is the one that would be there if the range were sorted
+     * along one axis, with no point before it greater and no point after it less on that axis.
+     */
+    private void select(int lo, int hi, int k, boolean onX) {
+        double[] keys = onX ? xs : ys;
+        int left = lo;
+        int right = hi - 1;
+        while(left < right) {
+            double pivot = keys[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while(i <= j) {
+                while(keys[i] < pivot) {
+                    i++;
+                }
+                while(keys[j] > pivot) {
+                    j--;
+                }
+                if(i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if(k <= j) {
+                right = j;
+            } else if(k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    /**
+     * Hits holds the points found by a radius query, with their squared distances.
+     */
+    private static final class Hits {
+
+        private double[] distances = new double[8];
+        private int[] found = new int[8];
+        private int size;
+
+        void add(double d, int id) {
+            if(size == found.length) {
+                distances = Arrays.copyOf(distances, 2 * size);
+                found = Arrays.copyOf(found, 2 * size);
+            }
+            distances[size] = d;
+            found[size] = id;
+            size++;
+        }
+    }
+
+    /**
+     * A Search keeps the nearest points found so far by one query, as a max-heap of at most capacity
+     * entries ordered by squared distance and then index.
+     */
+    private static final class Search {
+
+        private final double x;
+        private final double y;
+        private final int capacity;
+        private final double[] distances;
+        private final int[] found;
+        private int size;
+
+        Search(double x, double y, int capacity) {
+            this.x = x;
+            this.y = y;
+            this.capacity = capacity;
+            this.distances = new double[capacity];
+            this.found = new int[capacity];
+        }
+
+        /**
+         * @return {@literal true} iff a point at squared distance d could still be among the nearest.
+         */
+        boolean mayAccept(double d) {
+            return size < capacity || d <= distances[0];
+        }
+
+        /**
+         * Keeps point id at squared distance d if it is among the nearest found so far.
+         */
+        void offer(double d, int id) {
+            if(size < capacity) {
+                int i = size++;
+                while(i > 0 && after(d, id, (i - 1) / 2)) {
+                    distances[i] = distances[(i - 1) / 2];
+                    found[i] = found[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                distances[i] = d;
+                found[i] = id;
+            } else if(after(distances[0], found[0], d, id)) {
+                siftDown(d, id);
+            }
+        }
+
+        /**
+         * @return The indices found, nearest first; empties this search.
+         */
+        int[] sorted() {
+            int[] result = new int[size];
+            while(size > 0) {
+                result[size - 1] = found[0];
+                size--;
+                if(size > 0) {
+                    siftDown(distances[size], found[size]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Replaces the top of the heap with (d, id) and restores the heap order.
+         */
+        private void siftDown(double d, int id) {
+            int i = 0;
+            while(2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if(child + 1 < size && after(distances[child + 1], found[child + 1], distances[child], found[child])) {
+                    child++;
+                }
+                if(!after(distances[child], found[child], d, id)) {
+                    break;
+                }
+                distances[i] = distances[child];
+                found[i] = found[child];
+                i = child;
+            }
+            distances[i] = d;
+            found[i] = id;
+        }
+
+        private boolean after(double d, int id, int i) {
+            return after(d, id, distances[i], found[i]);
+        }
+
+        private static boolean after(double d1, int id1, double d2, int id2) {
+            return d1 > d2 || (d1 == d2 && id1 > id2);
+        }
+    }
+
+    private void checkRep() {
+        assert ids != null && xs != null && ys != null;
+        assert ids.length == xs.length && xs.length == ys.length;
+        if(DEBUG) {
+            checkSubtree(0, ids.length, true);
+        }
+    }
+
+    private void checkSubtree(int lo, int hi, boolean splitOnX) {
+        if(lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] keys = splitOnX ? xs : ys;
+        for(int i = lo; i < hi; i++) {
+            assert i >= mid || keys[i] <= keys[mid] : "point before the split is past it";
+            assert i <= mid || keys[i] >= keys[mid] : "point after the split is before it";
+        }
+        checkSubtree(lo, mid, !splitOnX);
+        checkSubtree(mid + 1, hi, !splitOnX);
+    }
+}
@@ -11,7 +11,9 @@
 
 package pathfinder.datastructures;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -19,14 +21,17 @@ import java.util.List;
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ *
+ * <p>A path shares all of its segments but the last with the path it was extended from, so
+ * extending a path takes constant time and space no matter how long it is. The segments are only
+ * copied into a list the first time something needs them in order.</p>
  */
 public class Path<E> implements Iterable<Path<E>.Segment> {
 
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the steps of prefix, followed by last,
+    //          where the steps of an empty path are the empty sequence
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
 
@@ -35,22 +40,46 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
     //      Double.isFinite(cost) &&
     //      start != null &&
     //      path != null &&
-    //      path does not contain null elements
+    //      (prefix == null) == (last == null) == (size == 0) &&
+    //      if prefix != null: start.equals(prefix.start) && size == prefix.size + 1 &&
+    //          last.getStart().equals(prefix.getEnd()) &&
+    //      segments is null or equal to the steps of this path
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private E start;
+    private final E start;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * A read-only view of the ordered sequence of segments representing a path between points.
+     * Kept as a field, after cost and start, so that paths still serialize to the same JSON.
      */
-    private List<Path<E>.Segment> path;
+    private final List<Path<E>.Segment> path = new SegmentList();
+
+    /**
+     * This path without its last segment, or null if this path has no segments.
+     */
+    private final transient Path<E> prefix;
+
+    /**
+     * The last segment of this path, or null if this path has no segments.
+     */
+    private final transient Segment last;
+
+    /**
+     * The number of segments in this path.
+     */
+    private final transient int size;
+
+    /**
+     * The segments of this path, in order, once they have been needed; null before then.
+     */
+    private transient volatile List<Path<E>.Segment> segments;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -61,7 +90,22 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
     public Path(E start) {
         this.start = start;
         this.cost = 0;
-        this.path = new ArrayList<>();
+        this.prefix = null;
+        this.last = null;
+        this.size = 0;
+        this.segments = Collections.emptyList();
+        checkRep();
+    }
+
+    /**
+     * Creates a new path made of 'prefix' followed by the segment 'last'.
+     */
+    private Path(Path<E> prefix, Segment last) {
+        this.start = prefix.start;
+        this.cost = prefix.cost + last.getCost();
+        this.prefix = prefix;
+        this.last = last;
+        this.size = prefix.size + 1;
         checkRep();
     }
 
@@ -78,16 +122,25 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
      */
     public Path<E> extend(E newEnd, double segmentCost) {
         checkRep();
-        //
-        Path<E> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
-        //
-        extendedPath.checkRep();
+        return new Path<>(this, new Segment(this.getEnd(), newEnd, segmentCost));
+    }
+
+    /**
+     * Returns this path walked backwards: a path from {@code this.getEnd()} to
+     * {@code this.getStart()} through the same points in the opposite order, where each segment has
+     * the cost of the segment it reverses. The cost of the result is summed from its own start, just
+     * as extending a path along it one segment at a time would sum it.
+     *
+     * @return A new path that is the reverse of this path.
+     */
+    public Path<E> reverse() {
         checkRep();
-        //
-        return extendedPath;
+        // Walking the prefix chain visits the segments last to first without building their list.
+        Path<E> reversed = new Path<>(getEnd());
+        for(Path<E> p = this; p.last != null; p = p.prefix) {
+            reversed = reversed.extend(p.last.getStart(), p.last.getCost());
+        }
+        return reversed;
     }
 
     /**
@@ -109,10 +162,10 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public E getEnd() {
-        if(path.size() == 0) {
+        if(last == null) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
     }
 
     /**
@@ -127,7 +180,7 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
         // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
         return new Iterator<Segment>() {
 
-            private Iterator<Segment> backingIterator = path.iterator();
+            private Iterator<Segment> backingIterator = segments().iterator();
 
             @Override
             public boolean hasNext() {
@@ -146,17 +199,50 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
         };
     }
 
+    /**
+     * Returns the segments of this path in order, copying them into a list the first time.
+     *
+     * @return An unmodifiable list of the segments of this path.
+     */
+    private List<Path<E>.Segment> segments() {
+        List<Path<E>.Segment> result = segments;
+        if(result != null) {
+            return result;
+        }
+        // Walk back only as far as the longest prefix that already has its list, and copy the rest.
+        @SuppressWarnings("unchecked")
+        Path<E>.Segment[] array = (Path<E>.Segment[]) new Path<?>.Segment[size];
+        Path<E> p = this;
+        while(p.segments == null) {
+            array[p.size - 1] = p.last;
+            p = p.prefix;
+        }
+        List<Path<E>.Segment> shared = p.segments;
+        for(int i = 0; i < shared.size(); i++) {
+            array[i] = shared.get(i);
+        }
+        // Racing threads build equal lists, so it does not matter which one is kept.
+        result = Collections.unmodifiableList(Arrays.asList(array));
+        segments = result;
+        return result;
+    }
+
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
-     * there is no violation.
+     * there is no violation. Only the last segment is checked, since the rest of the path was
+     * checked when it was created.
      */
     private void checkRep() {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
         assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
+        assert (prefix == null) == (last == null);
+        assert (prefix == null) == (size == 0);
+        if(prefix != null) {
+            assert start.equals(prefix.start);
+            assert size == prefix.size + 1;
+            assert last.getStart().equals(prefix.getEnd());
         }
     }
 
@@ -176,31 +262,37 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
         if(!(obj instanceof Path)) {
             return false;
         }
-        Path other = (Path) obj;
-        if(this.path.size() != other.path.size()) {
+        Path<?> other = (Path<?>) obj;
+        if(this.size != other.size) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.size == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // Compare from the end, where paths with a common start usually differ, and stop as soon
+        // as both paths share the same prefix object.
+        Path<?> a = this;
+        Path<?> b = other;
+        while(a != b && a.size > 0) {
+            if(!a.last.equals(b.last)) {
                 return false;
             }
+            a = a.prefix;
+            b = b.prefix;
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + segments().hashCode();
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : segments()) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
@@ -209,6 +301,27 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
         return sb.toString();
     }
 
+    /**
+     * SegmentList is the read-only list view of the segments of this path stored in the path field.
+     */
+    private class SegmentList extends AbstractList<Path<E>.Segment> {
+
+        @Override
+        public Path<E>.Segment get(int index) {
+            return segments().get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Path<E>.Segment> iterator() {
+            return segments().iterator();
+        }
+    }
+
     /**
      * Segment represents a single segment as part of a longer, more complex path between points.
      * Segments are immutable parts of a larger path that cannot be instantiated directly, and
@@ -0,0 +1,145 @@
+package pathfinder.parser;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.CoordinateTable;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A CampusGraphBuilder builds the walking graph of campus as the entries of a campus paths file are
+ * parsed. Every building and both ends of every path are nodes, and every path can be walked both
+ * ways at its distance.
+ *
+ * <p>Each distinct coordinate is interned to a dense node id as it is first seen: buildings first, in
+ * order, then path ends in the order they appear. Edges are kept as arrays of node ids and costs, so
+ * no Point, Node or edge object is created until {@link #build()} makes the finished graph.</p>
+ */
+public final class CampusGraphBuilder implements CampusPathSink {
+
+    // AF(this) = the walking graph built so far, with node ids =>
+    //      nodes: the coordinates of coordinates, with their ids
+    //      edges: for every 0 <= e < edgeCount, an edge from node from[e] to node to[e] of cost
+    //          weights[e], where an edge repeated with the same ends and cost counts once
+
+    // Rep Invariant:
+    //      coordinates != null && from != null && to != null && weights != null &&
+    //      from.length == to.length == weights.length >= edgeCount &&
+    //      0 <= from[e], to[e] < coordinates.size() for every e < edgeCount
+
+    /**
+     * The coordinates of the nodes, with their ids.
+     */
+    private final CoordinateTable coordinates;
+
+    private int[] from;
+    private int[] to;
+    private double[] weights;
+    private int edgeCount;
+
+    /**
+     * Creates a new builder whose graph starts with a node at each building and no edges.
+     *
+     * @param buildings The buildings on campus.
+     */
+    public CampusGraphBuilder(List<CampusBuilding> buildings) {
+        coordinates = new CoordinateTable(4 * buildings.size());
+        for(CampusBuilding building : buildings) {
+            coordinates.intern(building.getX(), building.getY());
+        }
+        from = new int[64];
+        to = new int[64];
+        weights = new double[64];
+        checkRep();
+    }
+
+    /**
+     * Adds a path, walkable both ways, to the graph.
+     */
+    @Override
+    public void accept(double x1, double y1, double x2, double y2, double distance) {
+        int start = coordinates.intern(x1, y1);
+        int end = coordinates.intern(x2, y2);
+        addEdge(start, end, distance);
+        addEdge(end, start, distance);
+    }
+
+    private void addEdge(int start, int end, double cost) {
+        if(edgeCount == from.length) {
+            from = Arrays.copyOf(from, 2 * edgeCount);
+            to = Arrays.copyOf(to, 2 * edgeCount);
+            weights = Arrays.copyOf(weights, 2 * edgeCount);
+        }
+        from[edgeCount] = start;
+        to[edgeCount] = end;
+        weights[edgeCount] = cost;
+        edgeCount++;
+    }
+
+    /**
+     * Builds the graph of every building and path added so far. Node v of the graph is the v-th
+     * distinct coordinate this builder saw, and the edges out of each node keep the order their
+     * paths were added in.
+     *
+     * @return A new graph of the campus.
+     */
+    public CsrGraph<Point> build() {
+        int n = coordinates.size();
+        int[] offsets = new int[n + 1];
+        for(int e = 0; e < edgeCount; e++) {
+            offsets[from[e] + 1]++;
+        }
+        for(int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        // Counting sort by start node, which keeps the edges of each node in the order they were added.
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[edgeCount];
+        double[] costs = new double[edgeCount];
+        for(int e = 0; e < edgeCount; e++) {
+            int slot = next[from[e]]++;
+            targets[slot] = to[e];
+            costs[slot] = weights[e];
+        }
+
+        // Drop repeated edges, as Graph does, by compacting each node's edges in place.
+        int kept = 0;
+        int[] keptOffsets = new int[n + 1];
+        for(int v = 0; v < n; v++) {
+            keptOffsets[v] = kept;
+            for(int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if(!containsEdge(targets, costs, keptOffsets[v], kept, targets[e], costs[e])) {
+                    targets[kept] = targets[e];
+                    costs[kept] = costs[e];
+                    kept++;
+                }
+            }
+        }
+        keptOffsets[n] = kept;
+
+        List<Point> labels = new ArrayList<>(n);
+        for(int v = 0; v < n; v++) {
+            labels.add(coordinates.pointOf(v));
+        }
+        return new CsrGraph<>(labels, keptOffsets, Arrays.copyOf(targets, kept), Arrays.copyOf(costs, kept));
+    }
+
+    /**
+     * @return {@literal true} iff one of the edges first..end-1 leads to target with the same cost.
+     */
+    private static boolean containsEdge(int[] targets, double[] costs, int first, int end, int target, double cost) {
+        for(int e = first; e < end; e++) {
+            if(targets[e] == target && Double.compare(costs[e], cost) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkRep() {
+        assert coordinates != null && from != null && to != null && weights != null;
+        assert from.length == to.length && to.length == weights.length && edgeCount <= from.length;
+    }
+}
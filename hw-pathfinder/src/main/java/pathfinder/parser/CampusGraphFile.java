@@ -0,0 +1,334 @@
+package pathfinder.parser;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Point;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This represents the campus data read from a precompiled binary graph file: the walking graph, in
+ * compressed sparse row form, and the buildings on it. Loading a graph file memory-maps it and copies
+ * its arrays out directly, so no text is parsed except the building names.
+ *
+ * <p>A graph file holds, in order and big-endian:</p>
+ * <ul>
+ *     <li>a header of six ints: the magic number {@link #MAGIC}, the format {@link #VERSION}, the
+ *     number of nodes n, edges m and buildings b, and a zero</li>
+ *     <li>the node table: n pairs of doubles, the x and y coordinate of each node</li>
+ *     <li>the edge arrays of the graph, as in {@link CsrGraph}: m double weights, then n + 1 int
+ *     offsets and m int targets</li>
+ *     <li>the building table: for each building, the int id of its node followed by its short and
+ *     long names, each written as an int byte length and that many bytes of UTF-8</li>
+ * </ul>
+ *
+ * <p>Every double in the file starts at a multiple of 8 bytes and every int at a multiple of 4, so
+ * that {@link MappedGraph} can read them straight out of the mapped file.</p>
+ *
+ * <p>Running this class converts the campus TSV files into a graph file:
+ * {@code CampusGraphFile <output file>}.</p>
+ */
+public final class CampusGraphFile {
+
+    // AF(this) =
+    //      the walking graph of campus => graph
+    //      the buildings on campus => buildings
+
+    // Rep Invariant:
+    //      graph != null && buildings != null &&
+    //      the point of every building in buildings is a node of graph
+
+    /**
+     * The first four bytes of every graph file, "UMAP" in ASCII.
+     */
+    public static final int MAGIC = 0x554D4150;
+
+    /**
+     * The version of the format written by this class.
+     */
+    public static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    /**
+     * The walking graph of campus.
+     */
+    private final CsrGraph<Point> graph;
+
+    /**
+     * The buildings on campus.
+     */
+    private final List<CampusBuilding> buildings;
+
+    private CampusGraphFile(CsrGraph<Point> graph, List<CampusBuilding> buildings) {
+        this.graph = graph;
+        this.buildings = Collections.unmodifiableList(buildings);
+        checkRep();
+    }
+
+    /**
+     * @return The walking graph of campus, with a node at each building.
+     */
+    public CsrGraph<Point> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return The buildings on campus, in the order they were written.
+     */
+    public List<CampusBuilding> getBuildings() {
+        return buildings;
+    }
+
+    /**
+     * Builds the walking graph of campus from parsed campus data. Every building and both ends of
+     * every path are nodes, and every path can be walked both ways at its distance.
+     *
+     * @param buildings The buildings on campus.
+     * @param paths     The walkable paths on campus.
+     * @return A new graph of the campus.
+     */
+    public static CsrGraph<Point> buildGraph(List<CampusBuilding> buildings, List<CampusPath> paths) {
+        CampusGraphBuilder builder = new CampusGraphBuilder(buildings);
+        for(CampusPath path : paths) {
+            builder.accept(path.getX1(), path.getY1(), path.getX2(), path.getY2(), path.getDistance());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a graph and the buildings on it to a graph file, replacing the file if it exists.
+     *
+     * @param graph     The walking graph of campus.
+     * @param buildings The buildings on campus.
+     * @param file      The file to write.
+     * @throws IOException              if the file cannot be written.
+     * @throws IllegalArgumentException if the point of a building is not a node of graph.
+     */
+    public static void write(CsrGraph<Point> graph, List<CampusBuilding> buildings, Path file)
+            throws IOException {
+        int[] buildingNodes = new int[buildings.size()];
+        for(int i = 0; i < buildings.size(); i++) {
+            CampusBuilding building = buildings.get(i);
+            buildingNodes[i] = graph.idOf(new Point(building.getX(), building.getY()));
+            if(buildingNodes[i] == -1) {
+                throw new IllegalArgumentException("Building is not in the graph: " + building.getShortName());
+            }
+        }
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(graph.size());
+            out.writeInt(graph.edgeCount());
+            out.writeInt(buildings.size());
+            out.writeInt(0);
+            for(Point point : graph.labels()) {
+                out.writeDouble(point.getX());
+                out.writeDouble(point.getY());
+            }
+            for(int e = 0; e < graph.edgeCount(); e++) {
+                out.writeDouble(graph.weight(e));
+            }
+            for(int v = 0; v < graph.size(); v++) {
+                out.writeInt(graph.firstEdge(v));
+            }
+            out.writeInt(graph.edgeCount());
+            for(int e = 0; e < graph.edgeCount(); e++) {
+                out.writeInt(graph.target(e));
+            }
+            for(int i = 0; i < buildings.size(); i++) {
+                out.writeInt(buildingNodes[i]);
+                writeString(out, buildings.get(i).getShortName());
+                writeString(out, buildings.get(i).getLongName());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Loads a graph file written by {@link #write(CsrGraph, List, Path)} onto the heap.
+     *
+     * @param file The graph file to load.
+     * @return The graph and buildings stored in the file.
+     * @throws CampusPathsParser.ParserException if the file cannot be read or is not a valid graph file.
+     * @see MappedGraph#open(Path) to search the file in place instead
+     */
+    public static CampusGraphFile load(Path file) {
+        ByteBuffer buffer = map(file);
+        try {
+            Layout layout = new Layout(buffer);
+            double[] coordinates = new double[2 * layout.nodeCount];
+            buffer.position(layout.coordinatesAt);
+            buffer.asDoubleBuffer().get(coordinates);
+            double[] weights = new double[layout.edgeCount];
+            buffer.position(layout.weightsAt);
+            buffer.asDoubleBuffer().get(weights);
+            int[] offsets = new int[layout.nodeCount + 1];
+            buffer.position(layout.offsetsAt);
+            buffer.asIntBuffer().get(offsets);
+            int[] targets = new int[layout.edgeCount];
+            buffer.position(layout.targetsAt);
+            buffer.asIntBuffer().get(targets);
+
+            List<Point> labels = new ArrayList<>(layout.nodeCount);
+            for(int v = 0; v < layout.nodeCount; v++) {
+                labels.add(new Point(coordinates[2 * v], coordinates[2 * v + 1]));
+            }
+            CsrGraph<Point> graph = new CsrGraph<>(labels, offsets, targets, weights);
+            return new CampusGraphFile(graph, layout.readBuildings(buffer));
+        } catch(BufferUnderflowException | IllegalArgumentException e) {
+            throw new CampusPathsParser.ParserException("Graph file is corrupt: " + file, e);
+        }
+    }
+
+    /**
+     * Maps a whole file into memory, read-only.
+     *
+     * @throws CampusPathsParser.ParserException if the file cannot be read.
+     */
+    static MappedByteBuffer map(Path file) {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new CampusPathsParser.ParserException("Graph file is larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch(IOException e) {
+            throw new CampusPathsParser.ParserException("Cannot read graph file " + file, e);
+        }
+    }
+
+    /**
+     * Layout is the header of a graph file, and where each of its sections starts.
+     */
+    static final class Layout {
+        final int nodeCount;
+        final int edgeCount;
+        final int buildingCount;
+        final int coordinatesAt;
+        final int weightsAt;
+        final int offsetsAt;
+        final int targetsAt;
+        final int buildingsAt;
+
+        /**
+         * Reads the header at the start of buffer and checks that the file is long enough to hold
+         * the sections it describes. Does not change the position of buffer.
+         *
+         * @throws CampusPathsParser.ParserException if buffer does not start with a valid header.
+         */
+        Layout(ByteBuffer buffer) {
+            if(buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new CampusPathsParser.ParserException("Not a graph file.");
+            }
+            int version = buffer.getInt(4);
+            if(version != VERSION) {
+                throw new CampusPathsParser.ParserException("Unsupported graph file version " + version);
+            }
+            nodeCount = buffer.getInt(8);
+            edgeCount = buffer.getInt(12);
+            buildingCount = buffer.getInt(16);
+            if(nodeCount < 0 || edgeCount < 0 || buildingCount < 0) {
+                throw new CampusPathsParser.ParserException("Graph file has negative counts.");
+            }
+            long coordinates = HEADER_BYTES;
+            long weights = coordinates + 2L * Double.BYTES * nodeCount;
+            long offsets = weights + (long) Double.BYTES * edgeCount;
+            long targets = offsets + (long) Integer.BYTES * (nodeCount + 1);
+            long buildings = targets + (long) Integer.BYTES * edgeCount;
+            if(buildings > buffer.limit()) {
+                throw new CampusPathsParser.ParserException("Graph file is truncated.");
+            }
+            coordinatesAt = (int) coordinates;
+            weightsAt = (int) weights;
+            offsetsAt = (int) offsets;
+            targetsAt = (int) targets;
+            buildingsAt = (int) buildings;
+        }
+
+        /**
+         * Reads the building table, which must be the rest of the file.
+         *
+         * @throws CampusPathsParser.ParserException if the building table is corrupt.
+         */
+        List<CampusBuilding> readBuildings(ByteBuffer buffer) {
+            buffer.position(buildingsAt);
+            List<CampusBuilding> buildings = new ArrayList<>(buildingCount);
+            try {
+                for(int i = 0; i < buildingCount; i++) {
+                    int node = buffer.getInt();
+                    if(node < 0 || node >= nodeCount) {
+                        throw new CampusPathsParser.ParserException("Building is not in the graph.");
+                    }
+                    String shortName = readString(buffer);
+                    String longName = readString(buffer);
+                    double x = buffer.getDouble(coordinatesAt + 2 * Double.BYTES * node);
+                    double y = buffer.getDouble(coordinatesAt + 2 * Double.BYTES * node + Double.BYTES);
+                    buildings.add(new CampusBuilding(shortName, longName, x, y));
+                }
+            } catch(BufferUnderflowException e) {
+                throw new CampusPathsParser.ParserException("Graph file is truncated.", e);
+            }
+            if(buffer.hasRemaining()) {
+                throw new CampusPathsParser.ParserException("Graph file has trailing data.");
+            }
+            return buildings;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if(length < 0 || length > buffer.remaining()) {
+            throw new CampusPathsParser.ParserException("Graph file has a bad string length.");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts campus_buildings.tsv and campus_paths.tsv into a graph file.
+     *
+     * @param args The name of the graph file to write.
+     * @throws IOException if the graph file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1) {
+            System.err.println("Usage: CampusGraphFile <output file>");
+            System.exit(1);
+        }
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        CampusGraphBuilder builder = new CampusGraphBuilder(buildings);
+        CampusPathsParser.parseCampusPaths("campus_paths.tsv", builder);
+        CsrGraph<Point> graph = builder.build();
+        Path file = Paths.get(args[0]);
+        if(file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        write(graph, buildings, file);
+        System.out.println("Wrote " + graph.size() + " nodes, " + graph.edgeCount() + " edges and "
+                           + buildings.size() + " buildings to " + file);
+    }
+
+    private void checkRep() {
+        assert graph != null && buildings != null;
+    }
+}
@@ -0,0 +1,20 @@
+package pathfinder.parser;
+
+/**
+ * A CampusPathSink receives the entries of a campus paths file one at a time, as they are parsed, so
+ * that they can be used without first collecting every entry into a list.
+ */
+@FunctionalInterface
+public interface CampusPathSink {
+
+    /**
+     * Receives one entry of a campus paths file: a walkable path between two points.
+     *
+     * @param x1       The x coordinate of one end of the path.
+     * @param y1       The y coordinate of that end.
+     * @param x2       The x coordinate of the other end of the path.
+     * @param y2       The y coordinate of that end.
+     * @param distance The length of the path.
+     */
+    void accept(double x1, double y1, double x2, double y2, double distance);
+}
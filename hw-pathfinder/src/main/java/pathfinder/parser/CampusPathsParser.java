@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A utility class capable of parsing data in campus buildings and
@@ -41,8 +42,28 @@ public class CampusPathsParser {
      * @throws ParserException if the file cannot be found or parsed as expected
      */
     public static List<CampusBuilding> parseCampusBuildings(String file) {
+        return parseCampusBuildings(initializeReader(new BufferedReader(new InputStreamReader(openResource(file)))));
+    }
+
+    /**
+     * Parses a campus buildings file anywhere on disk and returns a list
+     * of objects containing all the data in that file.
+     *
+     * @param file The campus buildings file to parse.
+     * @return A {@link List} of {@link CampusBuilding} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static List<CampusBuilding> parseCampusBuildings(Path file) {
+        try {
+            return parseCampusBuildings(initializeReader(Files.newBufferedReader(file)));
+        } catch(IOException e) {
+            throw new ParserException("Cannot read file: " + file, e);
+        }
+    }
+
+    private static List<CampusBuilding> parseCampusBuildings(CSVReader reader) {
         List<CampusBuilding> buildings = new ArrayList<>();
-        CSVReader reader = initializeReader(file);
         //
         for(String[] line : reader) {
             if(line.length != 4) {
@@ -70,64 +91,218 @@ public class CampusPathsParser {
     }
 
     /**
-     * Parses the campus paths file (in src/main/resources/data/) and
-     * returns a list of objects containing all the data in that file.
+     * Parses a campus segments file anywhere on disk and returns a list of
+     * objects containing all the data in that file. Each line after the
+     * header holds the two points of a segment, as in a campus paths file,
+     * then how far the second point is above the first, then whether the
+     * segment has stairs and whether it is indoors, each "true" or "false".
      *
-     * @param file The simple filename of a campus paths file to parse.
-     * @return A {@link List} of {@link CampusPath} objects, one for each
+     * @param file The campus segments file to parse.
+     * @return A {@link List} of {@link CampusSegment} objects, one for each
      * line in the parsed file, containing the data contained within that line.
-     * @throws ParserException if the file cannot be found or parsed as expected
+     * @throws ParserException if the file cannot be read or parsed as expected
      */
-    public static List<CampusPath> parseCampusPaths(String file) {
-        List<CampusPath> paths = new ArrayList<>();
-        CSVReader reader = initializeReader(file);
-        //
+    public static List<CampusSegment> parseCampusSegments(Path file) {
+        CSVReader reader;
+        try {
+            reader = initializeReader(Files.newBufferedReader(file));
+        } catch(IOException e) {
+            throw new ParserException("Cannot read file: " + file, e);
+        }
+        List<CampusSegment> segments = new ArrayList<>();
         for(String[] line : reader) {
-            if(line.length != 5) {
+            if(line.length != 7) {
                 throw new ParserException("Wrong number of fields in line.");
             }
-            double x1, x2, y1, y2, distance;
+            double x1, y1, x2, y2, climb;
             try {
                 x1 = Double.parseDouble(line[0]);
                 y1 = Double.parseDouble(line[1]);
                 x2 = Double.parseDouble(line[2]);
                 y2 = Double.parseDouble(line[3]);
-                distance = Double.parseDouble(line[4]);
+                climb = Double.parseDouble(line[4]);
             } catch(NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers.", e);
+                throw new ParserException("Cannot parse coordinates or climb as numbers.", e);
             }
-            //
-            paths.add(new CampusPath(x1, y1, x2, y2, distance));
+            segments.add(new CampusSegment(x1, y1, x2, y2, climb, parseFlag(line[5]), parseFlag(line[6])));
         }
         try {
             reader.close();
         } catch(IOException e) {
             throw new ParserException("Exception when closing parser.", e);
         }
-        //
+        return segments;
+    }
+
+    /**
+     * @param field A field of a campus segments file that is either true or false.
+     * @return The value of the field.
+     * @throws ParserException if the field is neither "true" nor "false"
+     */
+    private static boolean parseFlag(String field) {
+        if(field.equals("true")) {
+            return true;
+        }
+        if(field.equals("false")) {
+            return false;
+        }
+        throw new ParserException("Cannot parse " + field + " as true or false.");
+    }
+
+    /**
+     * Parses the campus paths file (in src/main/resources/data/) and
+     * returns a list of objects containing all the data in that file.
+     *
+     * @param file The simple filename of a campus paths file to parse.
+     * @return A {@link List} of {@link CampusPath} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static List<CampusPath> parseCampusPaths(String file) {
+        List<CampusPath> paths = new ArrayList<>();
+        parseCampusPaths(file, (x1, y1, x2, y2, distance) -> paths.add(new CampusPath(x1, y1, x2, y2, distance)));
         return paths;
     }
 
     /**
-     * Initializes a CSV reader with the provided filename, relative to the
-     * classpath of this parser class. The returned reader is configured
-     * to parse tab-character separated fields per line, and skips the first
-     * line in the file.
+     * Parses the campus paths file (in src/main/resources/data/) and
+     * passes the data in each line of it to a sink, in order, as soon as
+     * that line has been parsed.
      *
-     * @param filename The file to initialize a parser for.
-     * @return A new {@link CSVReader} prepared to begin reading from that file.
+     * @param file The simple filename of a campus paths file to parse.
+     * @param sink The sink to pass each line of the file to.
+     * @throws ParserException if the file cannot be found or parsed as expected
      */
-    private static CSVReader initializeReader(String filename) {
-        Reader fileReader;
-        try {
-            InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + filename);
-            if(stream == null) {
-                throw new FileNotFoundException("No such file: " + filename);
-            }
-            fileReader = new BufferedReader(new InputStreamReader(stream));
+    public static void parseCampusPaths(String file, CampusPathSink sink) {
+        try(InputStream stream = openResource(file)) {
+            parseCampusPaths(stream, sink);
+        } catch(IOException e) {
+            throw new ParserException("Exception when closing parser.", e);
+        }
+    }
+
+    /**
+     * Parses a campus paths file anywhere on disk, such as a large export
+     * that is not bundled with this program, and passes the data in each
+     * line of it to a sink, in order, as soon as that line has been parsed.
+     *
+     * @param file The campus paths file to parse.
+     * @param sink The sink to pass each line of the file to.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static void parseCampusPaths(Path file, CampusPathSink sink) {
+        try(InputStream stream = Files.newInputStream(file)) {
+            parseCampusPaths(stream, sink);
         } catch(IOException e) {
-            throw new ParserException("Cannot create parser.", e);
+            throw new ParserException("Cannot read file: " + file, e);
         }
+    }
+
+    /**
+     * Parses campus paths data from a stream and passes the data in each
+     * line of it to a sink, in order, as soon as that line has been parsed.
+     * The first line of the stream is a header and is skipped, as are
+     * empty lines. The stream is read in fixed-size blocks, so streams of
+     * any length can be parsed.
+     *
+     * @param stream The campus paths data to parse. It is not closed.
+     * @param sink   The sink to pass each line of the data to.
+     * @throws ParserException if the stream cannot be read or parsed as expected
+     */
+    public static void parseCampusPaths(InputStream stream, CampusPathSink sink) {
+        TsvScanner scanner = new TsvScanner(stream);
+        scanner.skipLine();
+        parseLines(scanner, Long.MAX_VALUE, sink);
+    }
+
+    /**
+     * Parses campus paths data from a file on disk in parallel, and passes
+     * the data in each line of it to a sink in file order, exactly as
+     * {@link #parseCampusPaths(Path, CampusPathSink)} would. The file is
+     * split into chunks at line boundaries, the chunks are parsed on the
+     * common fork-join pool, and then the sink is given every line, one
+     * thread at a time, so it does not need to be thread-safe.
+     *
+     * @param file The campus paths file to parse.
+     * @param sink The sink to pass each line of the file to.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static void parseCampusPathsParallel(Path file, CampusPathSink sink) {
+        parseCampusPathsParallel(file, sink, ForkJoinPool.commonPool(), ChunkedPathsParser.DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Parses campus paths data from a file on disk in parallel, as
+     * {@link #parseCampusPathsParallel(Path, CampusPathSink)} does, on the
+     * given pool with chunks of about the given size.
+     *
+     * @param file       The campus paths file to parse.
+     * @param sink       The sink to pass each line of the file to.
+     * @param pool       The pool to parse chunks of the file on.
+     * @param chunkBytes The number of bytes of the file each chunk starts
+     *                   lines in; at least 1.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     * @throws IllegalArgumentException if chunkBytes is not positive
+     */
+    public static void parseCampusPathsParallel(Path file, CampusPathSink sink, ForkJoinPool pool, int chunkBytes) {
+        if(chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunks must be at least one byte.");
+        }
+        ChunkedPathsParser.parse(file, sink, pool, chunkBytes);
+    }
+
+    /**
+     * Parses lines of campus paths data, and passes the data in each to a
+     * sink, until the scanner is at the end of its stream or has scanned
+     * at least {@code end} bytes. Empty lines are skipped.
+     *
+     * @param scanner The scanner, at the start of a line.
+     * @param end     The offset in the stream of the scanner at which to stop
+     *                starting new lines.
+     * @param sink    The sink to pass each line to.
+     * @throws ParserException if the data cannot be read or parsed as expected
+     */
+    static void parseLines(TsvScanner scanner, long end, CampusPathSink sink) {
+        while(!scanner.atEnd() && scanner.offset() < end) {
+            if(scanner.atEndOfLine()) {
+                scanner.endLine();
+                continue;
+            }
+            double x1 = scanner.nextDouble();
+            double y1 = scanner.nextDouble();
+            double x2 = scanner.nextDouble();
+            double y2 = scanner.nextDouble();
+            double distance = scanner.nextDouble();
+            scanner.endLine();
+            sink.accept(x1, y1, x2, y2, distance);
+        }
+    }
+
+    /**
+     * Opens a file relative to the data directory on the classpath of
+     * this parser class.
+     *
+     * @param filename The file to open.
+     * @return A new stream of the bytes of that file.
+     * @throws ParserException if there is no such file
+     */
+    private static InputStream openResource(String filename) {
+        InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + filename);
+        if(stream == null) {
+            throw new ParserException("Cannot create parser.", new FileNotFoundException("No such file: " + filename));
+        }
+        return stream;
+    }
+
+    /**
+     * Initializes a CSV reader over the provided reader. The returned reader
+     * is configured to parse tab-character separated fields per line, and
+     * skips the first line in the file.
+     *
+     * @param fileReader The reader of the file to initialize a parser for.
+     * @return A new {@link CSVReader} prepared to begin reading from that file.
+     */
+    private static CSVReader initializeReader(Reader fileReader) {
         //
         CSVParser parser = new CSVParserBuilder().withSeparator('\t').build();
         return new CSVReaderBuilder(fileReader)
@@ -0,0 +1,149 @@
+package pathfinder.parser;
+
+/**
+ * This represents one immutable entry of a campus segments file: what it is like to walk the path
+ * segment between two points, beyond how long it is. The climb is measured from the first point to
+ * the second; walking the segment the other way descends it.
+ */
+public class CampusSegment {
+
+    /**
+     * The pixel-x coordinate of the first point in this path segment.
+     */
+    private final double x1;
+
+    /**
+     * The pixel-y coordinate of the first point in this path segment.
+     */
+    private final double y1;
+
+    /**
+     * The pixel-x coordinate of the second point in this path segment.
+     */
+    private final double x2;
+
+    /**
+     * The pixel-y coordinate of the second point in this path segment.
+     */
+    private final double y2;
+
+    /**
+     * How far the second point is above the first, in the units of path distances.
+     */
+    private final double climb;
+
+    /**
+     * Whether the segment has steps.
+     */
+    private final boolean stairs;
+
+    /**
+     * Whether the segment is indoors or covered.
+     */
+    private final boolean indoor;
+
+    /**
+     * Creates a new immutable CampusSegment entry containing the provided data.
+     *
+     * @param x1     The pixel-x coordinate of the first point
+     * @param y1     The pixel-y coordinate of the first point
+     * @param x2     The pixel-x coordinate of the second point
+     * @param y2     The pixel-y coordinate of the second point
+     * @param climb  How far the second point is above the first; negative if it is below
+     * @param stairs Whether the segment has steps
+     * @param indoor Whether the segment is indoors or covered
+     */
+    public CampusSegment(double x1, double y1, double x2, double y2, double climb, boolean stairs, boolean indoor) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+        this.climb = climb;
+        this.stairs = stairs;
+        this.indoor = indoor;
+    }
+
+    /**
+     * @return The pixel-x coordinate of the first point in this path segment.
+     */
+    public double getX1() {
+        return x1;
+    }
+
+    /**
+     * @return The pixel-y coordinate of the first point in this path segment.
+     */
+    public double getY1() {
+        return y1;
+    }
+
+    /**
+     * @return The pixel-x coordinate of the second point in this path segment.
+     */
+    public double getX2() {
+        return x2;
+    }
+
+    /**
+     * @return The pixel-y coordinate of the second point in this path segment.
+     */
+    public double getY2() {
+        return y2;
+    }
+
+    /**
+     * @return How far the second point is above the first; negative if it is below.
+     */
+    public double getClimb() {
+        return climb;
+    }
+
+    /**
+     * @return Whether the segment has steps.
+     */
+    public boolean hasStairs() {
+        return stairs;
+    }
+
+    /**
+     * @return Whether the segment is indoors or covered.
+     */
+    public boolean isIndoor() {
+        return indoor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Segment (%.3f, %.3f) -> (%.3f, %.3f); Climb: %.3f%s%s]",
+                             x1, y1, x2, y2, climb, stairs ? "; stairs" : "", indoor ? "; indoor" : "");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof CampusSegment)) {
+            return false;
+        }
+        CampusSegment that = (CampusSegment) other;
+        return (Double.compare(this.x1, that.x1) == 0)
+               && (Double.compare(this.y1, that.y1) == 0)
+               && (Double.compare(this.x2, that.x2) == 0)
+               && (Double.compare(this.y2, that.y2) == 0)
+               && (Double.compare(this.climb, that.climb) == 0)
+               && this.stairs == that.stairs
+               && this.indoor == that.indoor;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(this.climb);
+        result = (31 * result) + Double.hashCode(this.x1);
+        result = (31 * result) + Double.hashCode(this.y1);
+        result = (31 * result) + Double.hashCode(this.x2);
+        result = (31 * result) + Double.hashCode(this.y2);
+        result = (31 * result) + Boolean.hashCode(this.stairs);
+        return (31 * result) + Boolean.hashCode(this.indoor);
+    }
+}
@@ -0,0 +1,184 @@
+package pathfinder.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A utility class that parses a campus paths file on disk in parallel.
+ *
+ * <p>The file is cut into chunks of about the same number of bytes, and each chunk parses the lines
+ * that start inside it, reading past its end only to finish its last line. Each chunk stores its
+ * lines in its own array of doubles. The chunks are replayed into the sink in file order as each
+ * finishes, so the sink sees exactly what a sequential parse would show it. Only a few chunks per
+ * thread are parsed ahead of the sink, so however large the file, little of it is held parsed at
+ * once.</p>
+ */
+final class ChunkedPathsParser {
+
+    /**
+     * The chunk size used unless the caller picks one; small enough to balance a few hundred MB
+     * across many cores, large enough that the campus file is parsed by one task.
+     */
+    static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * How many chunks per thread of the pool may be parsed or waiting to be replayed at once; enough
+     * to keep every thread busy while the sink catches up, few enough that only a handful of chunks
+     * of a large file are held parsed at a time.
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 2;
+
+    private ChunkedPathsParser() {
+    }
+
+    /**
+     * Parses the file on pool, in chunks of chunkBytes bytes, then passes every line to sink in order.
+     *
+     * @throws CampusPathsParser.ParserException if the file cannot be read or parsed as expected
+     */
+    static void parse(Path file, CampusPathSink sink, ForkJoinPool pool, int chunkBytes) {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // An empty file is still one chunk, so the parse of its header is checked.
+            long chunks = Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+            int window = IN_FLIGHT_PER_THREAD * pool.getParallelism();
+            Deque<ChunkTask> inFlight = new ArrayDeque<>();
+            long submitted = 0;
+            try {
+                do {
+                    while(submitted < chunks && inFlight.size() < window) {
+                        long start = submitted * chunkBytes;
+                        ChunkTask task = new ChunkTask(channel, start, Math.min(size, start + chunkBytes));
+                        pool.execute(task);
+                        inFlight.add(task);
+                        submitted++;
+                    }
+                    // Once replayed, nothing refers to a chunk or its lines any more.
+                    inFlight.remove().join().replay(sink);
+                } while(!inFlight.isEmpty());
+            } catch(RuntimeException e) {
+                for(ChunkTask task : inFlight) {
+                    task.cancel(false);
+                }
+                // Tasks already running cannot be cancelled; wait for them, so none is still reading
+                // the channel when it is closed.
+                for(ChunkTask task : inFlight) {
+                    task.quietlyJoin();
+                }
+                throw e;
+            }
+        } catch(IOException e) {
+            throw new CampusPathsParser.ParserException("Cannot read file: " + file, e);
+        }
+    }
+
+    /**
+     * A ChunkTask parses the lines of a file that start in one range of its bytes.
+     */
+    private static final class ChunkTask extends RecursiveTask<PathBuffer> {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        /**
+         * @param channel The file, which is only read at explicit positions so tasks can share it.
+         * @param start   The offset of the first byte of the chunk.
+         * @param end     The offset one past the last byte of the chunk.
+         */
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected PathBuffer compute() {
+            // The first chunk skips the header. Every other chunk starts one byte early and skips to
+            // the end of that line, so it begins at the first line that starts inside it.
+            long from = start == 0 ? 0 : start - 1;
+            // Read little more than the chunk, leaving room to finish its last line.
+            int bufferSize = (int) Math.min(Integer.MAX_VALUE, end - from + 256);
+            TsvScanner scanner = new TsvScanner(new ChannelInputStream(channel, from), bufferSize);
+            PathBuffer lines = new PathBuffer();
+            try {
+                scanner.skipLine();
+                CampusPathsParser.parseLines(scanner, end - from, lines);
+            } catch(CampusPathsParser.ParserException e) {
+                throw new CampusPathsParser.ParserException(
+                        "In the lines starting from byte " + start + ": " + e.getMessage(), e);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * A PathBuffer stores parsed lines of a campus paths file as five doubles each.
+     */
+    private static final class PathBuffer implements CampusPathSink {
+
+        private double[] values = new double[5 * 16];
+        private int size;
+
+        @Override
+        public void accept(double x1, double y1, double x2, double y2, double distance) {
+            if(size + 5 > values.length) {
+                values = Arrays.copyOf(values, 2 * values.length);
+            }
+            values[size++] = x1;
+            values[size++] = y1;
+            values[size++] = x2;
+            values[size++] = y2;
+            values[size++] = distance;
+        }
+
+        /**
+         * Passes every stored line to sink, in the order they were stored.
+         */
+        void replay(CampusPathSink sink) {
+            for(int i = 0; i < size; i += 5) {
+                sink.accept(values[i], values[i + 1], values[i + 2], values[i + 3], values[i + 4]);
+            }
+        }
+    }
+
+    /**
+     * A ChannelInputStream reads a file channel from a position onwards without moving the channel's
+     * own position, so that several of them can read one channel at once.
+     */
+    private static final class ChannelInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+
+        ChannelInputStream(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = channel.read(ByteBuffer.wrap(b, off, len), position);
+            if(read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int read = read(one, 0, 1);
+            return read == -1 ? -1 : one[0] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package pathfinder.parser;
+
+import graph.IndexedGraph;
+import pathfinder.datastructures.Point;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This represents the walking graph stored in a graph file written by {@link CampusGraphFile}, read
+ * in place from the memory-mapped file instead of being copied onto the heap. Opening a MappedGraph
+ * only reads the header and the building table, so it takes about the same time for any size of map,
+ * and the operating system pages the rest of the file in as searches touch it.
+ *
+ * <p>Buildings are the first nodes of a graph file, so their ids are kept in a small map when the file
+ * is opened. The only other heap this graph ever allocates is the index from the coordinates of every
+ * other node back to its id, between 4/3 and 8/3 ints per node, which is built the first time
+ * {@link #idOf(Point)} is asked for a point that is not a building. Routing between buildings never
+ * builds it.</p>
+ *
+ * <p>Opening a file checks its header and building table, but not every edge, so that large maps
+ * open instantly. Searching a corrupt file may find wrong paths or throw
+ * IndexOutOfBoundsException.</p>
+ */
+public final class MappedGraph implements IndexedGraph<Point> {
+
+    // AF(this) =
+    //      the node with id v => the point (x, y) of the doubles at coordinatesAt + 16v in buffer
+    //      the edges out of node v => for every e with offset(v) <= e < offset(v+1), an edge to the node
+    //          with id target(e) of cost weight(e), where offset, target and weight read the int or
+    //          double number e of their section of buffer
+    //      the buildings on the map => buildings
+
+    // Rep Invariant:
+    //      buffer != null && layout != null && buildings != null && buildingIds != null &&
+    //      buffer holds the whole graph file layout was read from &&
+    //      buildingIds.get(p) == v only if node v is the point p &&
+    //      index == null || index.length is a power of two greater than 4/3 * layout.nodeCount &&
+    //          every node id v is stored as v + 1 in index at the first free slot from hash(v)
+
+    /**
+     * The whole graph file. Only absolute reads are used, so it can be shared between threads.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The header of the graph file.
+     */
+    private final CampusGraphFile.Layout layout;
+
+    /**
+     * The buildings on the map.
+     */
+    private final List<CampusBuilding> buildings;
+
+    /**
+     * The node id of each building whose node is where a graph file puts it: first, in building order.
+     */
+    private final Map<Point, Integer> buildingIds;
+
+    /**
+     * Open-addressing hash table from node coordinates to node id + 1, with 0 marking an empty slot;
+     * null until idOf is first called.
+     */
+    private volatile int[] index;
+
+    private MappedGraph(ByteBuffer buffer, CampusGraphFile.Layout layout, List<CampusBuilding> buildings) {
+        this.buffer = buffer;
+        this.layout = layout;
+        this.buildings = Collections.unmodifiableList(buildings);
+        this.buildingIds = new HashMap<>();
+        for(int v = 0; v < buildings.size() && v < layout.nodeCount; v++) {
+            CampusBuilding building = buildings.get(v);
+            if(Double.compare(x(v), building.getX()) == 0 && Double.compare(y(v), building.getY()) == 0) {
+                buildingIds.put(new Point(x(v), y(v)), v);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Opens a graph file written by {@link CampusGraphFile} for searching in place.
+     *
+     * @param file The graph file to open.
+     * @return The graph stored in the file.
+     * @throws CampusPathsParser.ParserException if the file cannot be read or is not a valid graph file.
+     */
+    public static MappedGraph open(Path file) {
+        ByteBuffer buffer = CampusGraphFile.map(file);
+        CampusGraphFile.Layout layout = new CampusGraphFile.Layout(buffer);
+        List<CampusBuilding> buildings = layout.readBuildings(buffer);
+        return new MappedGraph(buffer, layout, buildings);
+    }
+
+    /**
+     * @return The buildings on the map, in the order they were written.
+     */
+    public List<CampusBuilding> getBuildings() {
+        return buildings;
+    }
+
+    @Override
+    public int size() {
+        return layout.nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return layout.edgeCount;
+    }
+
+    @Override
+    public int idOf(Point label) {
+        if(label == null) {
+            return -1;
+        }
+        Integer building = buildingIds.get(label);
+        if(building != null) {
+            return building;
+        }
+        int[] table = index();
+        int mask = table.length - 1;
+        for(int slot = hash(label.getX(), label.getY()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if(Double.compare(x(id), label.getX()) == 0 && Double.compare(y(id), label.getY()) == 0) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Point labelOf(int id) {
+        return new Point(x(id), y(id));
+    }
+
+    @Override
+    public int firstEdge(int id) {
+        return buffer.getInt(layout.offsetsAt + Integer.BYTES * id);
+    }
+
+    @Override
+    public int endEdge(int id) {
+        return buffer.getInt(layout.offsetsAt + Integer.BYTES * (id + 1));
+    }
+
+    @Override
+    public int target(int edge) {
+        return buffer.getInt(layout.targetsAt + Integer.BYTES * edge);
+    }
+
+    @Override
+    public double weight(int edge) {
+        return buffer.getDouble(layout.weightsAt + Double.BYTES * edge);
+    }
+
+    private double x(int id) {
+        return buffer.getDouble(layout.coordinatesAt + 2 * Double.BYTES * id);
+    }
+
+    private double y(int id) {
+        return buffer.getDouble(layout.coordinatesAt + 2 * Double.BYTES * id + Double.BYTES);
+    }
+
+    /**
+     * Returns the index from coordinates to node ids, building it if this is the first time it is
+     * needed. Threads that race to build it build equal tables, so it does not matter which is kept.
+     */
+    private int[] index() {
+        int[] table = index;
+        if(table == null) {
+            // At most three quarters full, which keeps probes short.
+            int capacity = Integer.highestOneBit(Math.max(1, layout.nodeCount + layout.nodeCount / 3)) << 1;
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for(int v = 0; v < layout.nodeCount; v++) {
+                int slot = hash(x(v), y(v)) & mask;
+                while(table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = v + 1;
+            }
+            index = table;
+        }
+        return table;
+    }
+
+    /**
+     * Hashes a point by the bits of its coordinates, consistently with Point#equals.
+     */
+    private static int hash(double x, double y) {
+        long h = Double.doubleToLongBits(x) * 31 + Double.doubleToLongBits(y);
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void checkRep() {
+        assert buffer != null && layout != null && buildings != null && buildingIds != null;
+        assert buffer.limit() >= layout.buildingsAt;
+    }
+}
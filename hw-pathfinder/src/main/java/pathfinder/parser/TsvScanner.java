@@ -0,0 +1,247 @@
+package pathfinder.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A TsvScanner reads tab-separated numbers straight from the bytes of a stream, one field at a time,
+ * without splitting lines into Strings. It buffers a fixed number of bytes, so it can scan files of
+ * any size.
+ *
+ * <p>Numbers with at most 15 significant digits, a decimal point and no exponent are converted
+ * directly from their digits, which gives exactly the double Double.parseDouble would. Any other
+ * field is handed to Double.parseDouble.</p>
+ */
+final class TsvScanner {
+
+    // AF(this) =
+    //      the bytes not yet scanned => buffer[position..limit-1] followed by the unread bytes of in
+    //      the number of the line being scanned, counting from 1 => line
+    //      the number of bytes scanned => filled + position
+
+    // Rep Invariant:
+    //      in != null && buffer != null && 0 <= position <= limit <= buffer.length &&
+    //      scratch != null && line >= 1
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Powers of ten that are exact as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * The most significant digits a long can hold and still convert to a double exactly.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private int line = 1;
+
+    /**
+     * Whether the last field scanned ended in a tab, so that another field has to follow it.
+     */
+    private boolean fieldPending;
+
+    /**
+     * The number of bytes read from the stream before the ones now in buffer.
+     */
+    private long filled;
+
+    /**
+     * The characters of the field being scanned, kept in case it has to go to Double.parseDouble.
+     */
+    private char[] scratch = new char[32];
+
+    /**
+     * @param in The stream to scan. The scanner does not close it.
+     */
+    TsvScanner(InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    /**
+     * @param in         The stream to scan. The scanner does not close it.
+     * @param bufferSize The most bytes to read from the stream at once, for scanning only a short
+     *                   part of it; capped at 64 KB.
+     */
+    TsvScanner(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[Math.max(1, Math.min(bufferSize, BUFFER_SIZE))];
+    }
+
+    /**
+     * @return The number of the line being scanned, counting from 1.
+     */
+    int line() {
+        return line;
+    }
+
+    /**
+     * @return The number of bytes of the stream scanned so far.
+     */
+    long offset() {
+        return filled + position;
+    }
+
+    /**
+     * @return {@literal true} iff every byte of the stream has been scanned.
+     * @throws CampusPathsParser.ParserException if the stream cannot be read.
+     */
+    boolean atEnd() {
+        return peek() == -1;
+    }
+
+    /**
+     * @return {@literal true} iff the scanner is at the end of a line, or at the end of the stream.
+     * @throws CampusPathsParser.ParserException if the stream cannot be read.
+     */
+    boolean atEndOfLine() {
+        int c = peek();
+        return c == '\n' || c == '\r' || c == -1;
+    }
+
+    /**
+     * Skips the rest of the current line, including its line break.
+     *
+     * @throws CampusPathsParser.ParserException if the stream cannot be read.
+     */
+    void skipLine() {
+        while(!atEndOfLine()) {
+            position++;
+        }
+        fieldPending = false;
+        endLine();
+    }
+
+    /**
+     * Moves past the line break the scanner is at, if any.
+     *
+     * @throws CampusPathsParser.ParserException if the scanner is not at the end of a line, or the
+     *                                           last field of the line ended in a tab.
+     */
+    void endLine() {
+        if(fieldPending) {
+            throw new CampusPathsParser.ParserException("Wrong number of fields in line " + line + ".");
+        }
+        int c = peek();
+        if(c == '\r') {
+            position++;
+            c = peek();
+        }
+        if(c == '\n') {
+            position++;
+        } else if(c != -1) {
+            throw new CampusPathsParser.ParserException("Wrong number of fields in line " + line + ".");
+        }
+        line++;
+    }
+
+    /**
+     * Scans one field as a number, and the tab after it if there is one.
+     *
+     * @return The value of the field.
+     * @throws CampusPathsParser.ParserException if the field is missing or not a number, or the stream
+     *                                           cannot be read.
+     */
+    double nextDouble() {
+        int length = 0;
+        boolean negative = false;
+        boolean seenPoint = false;
+        boolean exact = true;
+        boolean seenDigit = false;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        for(int c = peek(); c != '\t' && c != '\n' && c != '\r' && c != -1; c = peek()) {
+            position++;
+            if(length == scratch.length) {
+                char[] larger = new char[2 * length];
+                System.arraycopy(scratch, 0, larger, 0, length);
+                scratch = larger;
+            }
+            scratch[length++] = (char) c;
+            if(c >= '0' && c <= '9') {
+                seenDigit = true;
+                if(mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                if(digits <= MAX_EXACT_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                } else {
+                    exact = false;
+                }
+                if(seenPoint) {
+                    fractionDigits++;
+                }
+            } else if(c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if((c == '-' || c == '+') && length == 1) {
+                negative = c == '-';
+            } else {
+                exact = false;
+            }
+        }
+        if(length == 0) {
+            throw new CampusPathsParser.ParserException("Wrong number of fields in line " + line + ".");
+        }
+        fieldPending = peek() == '\t';
+        if(fieldPending) {
+            position++;
+        }
+        if(exact && seenDigit && fractionDigits < POWERS_OF_TEN.length) {
+            // Both operands are exact doubles, so the one rounding in the division gives the closest
+            // double to the decimal value, just as Double.parseDouble does.
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(scratch, 0, length));
+        } catch(NumberFormatException e) {
+            throw new CampusPathsParser.ParserException("Cannot parse field as a number in line " + line + ".", e);
+        }
+    }
+
+    /**
+     * @return The next byte of the stream without scanning past it, or -1 at the end of the stream.
+     */
+    private int peek() {
+        if(position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Reads more of the stream into the empty buffer.
+     *
+     * @return {@literal false} iff the stream has ended.
+     */
+    private boolean fill() {
+        try {
+            int read;
+            do {
+                read = in.read(buffer, 0, buffer.length);
+            } while(read == 0);
+            if(read == -1) {
+                return false;
+            }
+            filled += limit;
+            position = 0;
+            limit = read;
+            return true;
+        } catch(IOException e) {
+            throw new CampusPathsParser.ParserException("Cannot read line " + line + ".", e);
+        }
+    }
+}
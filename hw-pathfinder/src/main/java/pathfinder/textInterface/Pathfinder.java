@@ -12,6 +12,10 @@
 package pathfinder.textInterface;
 
 import pathfinder.CampusMap;
+import pathfinder.MappedCampusMap;
+import pathfinder.ModelAPI;
+
+import java.nio.file.Paths;
 
 /**
  * Pathfinder represents a complete application capable of responding to user prompts to provide
@@ -24,10 +28,11 @@ public class Pathfinder {
     /**
      * The main entry point for this application. Initializes and launches the application.
      *
-     * @param args The command-line arguments provided to the system.
+     * @param args The command-line arguments provided to the system: optionally, a graph file written
+     *             by CampusGraphFile to route on in place instead of the campus TSV files.
      */
     public static void main(String[] args) {
-        CampusMap map = new CampusMap();
+        ModelAPI map = args.length > 0 ? new MappedCampusMap(Paths.get(args[0])) : new CampusMap();
         TextInterfaceView view = new TextInterfaceView();
         TextInterfaceController controller = new TextInterfaceController(map, view);
         //
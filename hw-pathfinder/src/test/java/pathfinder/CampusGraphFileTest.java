@@ -0,0 +1,91 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusGraphFile;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CampusGraphFileTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeCampus() throws IOException {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
+        Path file = folder.newFile("campus.graph").toPath();
+        CampusGraphFile.write(CampusGraphFile.buildGraph(buildings, paths), buildings, file);
+        return file;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
+        CsrGraph<Point> graph = CampusGraphFile.buildGraph(buildings, paths);
+        Path file = folder.newFile("campus.graph").toPath();
+        CampusGraphFile.write(graph, buildings, file);
+
+        CampusGraphFile loaded = CampusGraphFile.load(file);
+        assertEquals(buildings, loaded.getBuildings());
+        CsrGraph<Point> copy = loaded.getGraph();
+        assertEquals(graph.labels(), copy.labels());
+        assertEquals(graph.edgeCount(), copy.edgeCount());
+        for(int v = 0; v < graph.size(); v++) {
+            assertEquals(graph.firstEdge(v), copy.firstEdge(v));
+        }
+        for(int e = 0; e < graph.edgeCount(); e++) {
+            assertEquals(graph.target(e), copy.target(e));
+            assertEquals(graph.weight(e), copy.weight(e), 0.0);
+        }
+    }
+
+    @Test
+    public void testCampusMapFromGraphFileMatchesTsv() throws IOException {
+        CampusMap fromTsv = new CampusMap();
+        CampusMap fromFile = new CampusMap(RoutingStrategy.DIJKSTRA, writeCampus());
+        assertEquals(fromTsv.buildingNames(), fromFile.buildingNames());
+        for(String start : fromTsv.buildingNames().keySet()) {
+            for(String end : fromTsv.buildingNames().keySet()) {
+                assertEquals(fromTsv.findShortestPath(start, end), fromFile.findShortestPath(start, end));
+            }
+        }
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testLoadRejectsOtherFiles() throws IOException {
+        Path file = folder.newFile("campus_paths.tsv").toPath();
+        Files.write(file, "x1\ty1\tx2\ty2\tdistance\n".getBytes());
+        CampusGraphFile.load(file);
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testLoadRejectsTruncatedFile() throws IOException {
+        Path file = writeCampus();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        CampusGraphFile.load(file);
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testLoadMissingFile() {
+        CampusGraphFile.load(folder.getRoot().toPath().resolve("missing.graph"));
+    }
+}
@@ -0,0 +1,52 @@
+package pathfinder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CampusMapHolderTest {
+
+    CampusMap first = new CampusMap(RoutingStrategy.ASTAR);
+    CampusMap second = new CampusMap(RoutingStrategy.ASTAR);
+
+    @Test
+    public void testFirstMapIsVersionOne() {
+        CampusMapHolder holder = new CampusMapHolder(first);
+        assertSame(first, holder.current().getMap());
+        assertEquals(1, holder.current().getVersion());
+    }
+
+    @Test
+    public void testReplaceAdvancesVersion() {
+        CampusMapHolder holder = new CampusMapHolder(first);
+        CampusMapHolder.Snapshot before = holder.current();
+        CampusMapHolder.Snapshot after = holder.replace(before, second);
+        assertSame(after, holder.current());
+        assertSame(second, after.getMap());
+        assertEquals(2, after.getVersion());
+        // A snapshot taken before the swap keeps answering from the map it was taken from.
+        assertSame(first, before.getMap());
+        assertEquals(1, before.getVersion());
+    }
+
+    @Test
+    public void testConditionalReplace() {
+        CampusMapHolder holder = new CampusMapHolder(first);
+        CampusMapHolder.Snapshot stale = holder.current();
+        assertNotNull(holder.replace(stale, second));
+        assertNull(holder.replace(stale, first));
+        assertSame(second, holder.current().getMap());
+        assertEquals(2, holder.current().getVersion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullMap() {
+        CampusMapHolder holder = new CampusMapHolder(first);
+        holder.replace(holder.current(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullSnapshot() {
+        new CampusMapHolder(first).replace(null, second);
+    }
+}
@@ -1,11 +1,21 @@
 package pathfinder;
 
 import org.junit.Test;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusSegment;
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.junit.Assert.*;
 
@@ -49,4 +59,504 @@ public class CampusMapTest {
         campusMap.findShortestPath("MGH 1", "CSE");
         campusMap.findShortestPath("CSE", "MGH 1");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void indexedDijkstraMatchesDijkstra() {
+        CampusMap indexed = new CampusMap(RoutingStrategy.INDEXED_DIJKSTRA);
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                Path<Point> actual = indexed.findShortestPath(start, end);
+                assertEquals(expected, actual);
+                assertEquals(expected.getCost(), actual.getCost(), 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexedDijkstraUnknownBuilding() {
+        new CampusMap(RoutingStrategy.INDEXED_DIJKSTRA).findShortestPath("MGH 1", "CSE");
+    }
+
+    @Test
+    public void aStarMatchesDijkstra() {
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                Path<Point> actual = campusMap.findShortestPath(start, end, RoutingStrategy.ASTAR);
+                assertEquals(expected, actual);
+                assertEquals(expected.getCost(), actual.getCost(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void aStarSettlesFewerNodes() {
+        SearchStats dijkstra = new SearchStats();
+        SearchStats aStar = new SearchStats();
+        campusMap.findShortestPath("CSE", "MGH", RoutingStrategy.INDEXED_DIJKSTRA, dijkstra);
+        campusMap.findShortestPath("CSE", "MGH", RoutingStrategy.ASTAR, aStar);
+        assertTrue(aStar.getSettled() > 0);
+        assertTrue(aStar.getSettled() < dijkstra.getSettled());
+    }
+
+    @Test
+    public void bidirectionalMatchesDijkstra() {
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                Path<Point> actual = campusMap.findShortestPath(start, end, RoutingStrategy.BIDIRECTIONAL);
+                assertEquals(expected, actual);
+                assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void precomputedMatchesDijkstra() {
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                Path<Point> actual = precomputed.findShortestPath(start, end);
+                assertEquals(expected, actual);
+                assertEquals(expected.getCost(), actual.getCost(), 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void precomputedUnknownBuilding() {
+        campusMap.findShortestPath("CSE", "MGH 1", RoutingStrategy.PRECOMPUTED);
+    }
+
+    @Test
+    public void shortestPathTreeMatchesDijkstra() {
+        for(String start : campusMap.buildingNames().keySet()){
+            ShortestPathTree<Point> tree = campusMap.shortestPathTree(start);
+            assertSame(tree, campusMap.shortestPathTree(start));
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                Point endPoint = expected.getEnd();
+                assertTrue(tree.isReachable(endPoint));
+                assertEquals(expected, tree.pathTo(endPoint));
+                assertEquals(expected.getCost(), tree.costTo(endPoint), 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shortestPathTreeUnknownBuilding() {
+        campusMap.shortestPathTree("MGH 1");
+    }
+
+    @Test
+    public void distancesFrom() {
+        Map<String, Double> distances = campusMap.distancesFrom("CSE");
+        assertEquals(campusMap.buildingNames().keySet(), distances.keySet());
+        assertEquals(0.0, distances.get("CSE"), 0.0);
+        for(String end : distances.keySet()){
+            assertEquals(campusMap.findShortestPath("CSE", end).getCost(), distances.get(end), 0.0);
+        }
+    }
+
+    @Test
+    public void findShortestPaths() {
+        List<String> ends = Arrays.asList("MGH", "CSE", "MGH", "OUG");
+        List<Path<Point>> paths = campusMap.findShortestPaths("BAG", ends);
+        assertEquals(ends.size(), paths.size());
+        for(int i = 0; i < ends.size(); i++){
+            assertEquals(campusMap.findShortestPath("BAG", ends.get(i)), paths.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void findShortestPathsUnknownBuilding() {
+        campusMap.findShortestPaths("BAG", Arrays.asList("CSE", "MGH 1"));
+    }
+
+    @Test
+    public void contractionHierarchyMatchesDijkstra() {
+        CampusMap hierarchy = new CampusMap(RoutingStrategy.CONTRACTION_HIERARCHY);
+        CampusMap shared = new CampusMap(hierarchy.contractionHierarchy());
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> expected = campusMap.findShortestPath(start, end);
+                assertEquals(expected, hierarchy.findShortestPath(start, end));
+                assertEquals(expected, shared.findShortestPath(start, end));
+            }
+        }
+    }
+
+    @Test
+    public void campusIsSymmetric() {
+        assertTrue(campusMap.isSymmetric());
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> forward = campusMap.findShortestPath(start, end);
+                assertEquals(forward.getCost(), campusMap.findShortestPath(end, start).getCost(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void nearestPointOfBuildingIsBuilding() {
+        for(CampusBuilding b : CampusPathsParser.parseCampusBuildings("campus_buildings.tsv")){
+            assertEquals(new Point(b.getX(), b.getY()), campusMap.nearestPoint(b.getX(), b.getY()));
+        }
+    }
+
+    @Test
+    public void nearestPointsAreSortedByDistance() {
+        List<Point> nearest = campusMap.nearestPoints(1900.5, 1200.25, 10);
+        assertEquals(10, nearest.size());
+        assertEquals(campusMap.nearestPoint(1900.5, 1200.25), nearest.get(0));
+        for(int i = 1; i < nearest.size(); i++){
+            Point before = nearest.get(i - 1);
+            Point after = nearest.get(i);
+            assertTrue(Math.hypot(before.getX() - 1900.5, before.getY() - 1200.25)
+                       <= Math.hypot(after.getX() - 1900.5, after.getY() - 1200.25));
+        }
+    }
+
+    @Test
+    public void pathBetweenCoordinatesMatchesBuildings() {
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        for(CampusBuilding start : buildings.subList(0, 5)){
+            for(CampusBuilding end : buildings){
+                Path<Point> expected = campusMap.findShortestPath(start.getShortName(), end.getShortName());
+                //a little off the building, but still nearer to it than to any other point
+                assertEquals(expected, precomputed.findShortestPath(start.getX() + 0.01, start.getY(),
+                                                                    end.getX(), end.getY() - 0.01,
+                                                                    RoutingStrategy.PRECOMPUTED, null));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pathBetweenNaNCoordinates() {
+        campusMap.findShortestPath(Double.NaN, 0, 0, 0, RoutingStrategy.ASTAR, null);
+    }
+
+    @Test
+    public void buildingsWithinMatchesStraightLineDistances() {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        CampusBuilding center = buildings.get(0);
+        Map<String, Double> nearby = campusMap.buildingsWithin(center.getX(), center.getY(), 500);
+        assertEquals(0.0, nearby.get(center.getShortName()), 0.0);
+        int within = 0;
+        for(CampusBuilding b : buildings){
+            double distance = Math.hypot(b.getX() - center.getX(), b.getY() - center.getY());
+            if(distance <= 500){
+                within++;
+                assertEquals(distance, nearby.get(b.getShortName()), 1e-9);
+            }
+        }
+        assertEquals(within, nearby.size());
+        assertSorted(nearby);
+    }
+
+    @Test
+    public void buildingsWithinWalkMatchesDistancesFrom() {
+        Map<String, Double> distances = campusMap.distancesFrom("CSE");
+        CampusBuilding cse = null;
+        for(CampusBuilding b : CampusPathsParser.parseCampusBuildings("campus_buildings.tsv")){
+            if(b.getShortName().equals("CSE")){
+                cse = b;
+            }
+        }
+        assertNotNull(cse);
+        for(double maxCost : new double[]{0, 1000, 2500, Double.POSITIVE_INFINITY}){
+            Map<String, Double> nearby = campusMap.buildingsWithinWalk(cse.getX(), cse.getY(), maxCost);
+            int within = 0;
+            for(Map.Entry<String, Double> d : distances.entrySet()){
+                if(d.getValue() <= maxCost){
+                    within++;
+                    assertEquals(d.getValue(), nearby.get(d.getKey()), 0.0);
+                }
+            }
+            assertEquals(within, nearby.size());
+            assertSorted(nearby);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildingsWithinNegativeRadius() {
+        campusMap.buildingsWithin(0, 0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buildingsWithinWalkNaNCost() {
+        campusMap.buildingsWithinWalk(0, 0, Double.NaN);
+    }
+
+    private static void assertSorted(Map<String, Double> distances) {
+        double last = Double.NEGATIVE_INFINITY;
+        for(double d : distances.values()){
+            assertTrue(last <= d);
+            last = d;
+        }
+    }
+
+    @Test
+    public void concurrentQueriesMatchSequential() throws InterruptedException {
+        CampusMap shared = new CampusMap(RoutingStrategy.ASTAR);
+        List<String> names = new ArrayList<>(campusMap.buildingNames().keySet());
+        ConcurrentMap<String, Path<Point>> found = new ConcurrentHashMap<>();
+        Thread[] threads = new Thread[RoutingStrategy.values().length];
+        for(int t = 0; t < threads.length; t++){
+            RoutingStrategy strategy = RoutingStrategy.values()[t];
+            threads[t] = new Thread(() -> {
+                for(String start : names){
+                    for(String end : names){
+                        Path<Point> path = shared.findShortestPath(start, end, strategy);
+                        Path<Point> other = found.putIfAbsent(start + "\t" + end, path);
+                        if(other != null && !other.equals(path)){
+                            found.put("mismatch", path);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        assertFalse(found.containsKey("mismatch"));
+        for(String start : names){
+            for(String end : names){
+                assertEquals(campusMap.findShortestPath(start, end), found.get(start + "\t" + end));
+            }
+        }
+    }
+
+    @Test
+    public void closedSegmentIsAvoided() {
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        Path<Point> before = precomputed.findShortestPath("MGH", "CSE");
+        Path<Point>.Segment closed = segmentOf(before, 2);
+        assertTrue(precomputed.hasSegment(closed.getStart(), closed.getEnd()));
+        CampusMap detour = precomputed.withEdgeOverrides(
+                EdgeOverrides.none().close(closed.getStart(), closed.getEnd()));
+
+        Path<Point> after = detour.findShortestPath("MGH", "CSE");
+        assertTrue(after.getCost() > before.getCost());
+        assertFalse(uses(after, closed.getStart(), closed.getEnd()));
+        for(RoutingStrategy strategy : RoutingStrategy.values()){
+            Path<Point> path = detour.findShortestPath("MGH", "CSE", strategy);
+            assertEquals(strategy.name(), after.getCost(), path.getCost(), 1e-9);
+            assertFalse(strategy.name(), uses(path, closed.getStart(), closed.getEnd()));
+        }
+        // The map the closure was made from still routes through the segment.
+        assertEquals(before, precomputed.findShortestPath("MGH", "CSE"));
+    }
+
+    @Test
+    public void hierarchyKeptOnlyWhileCostsAreUnchanged() {
+        CampusMap hierarchy = new CampusMap(RoutingStrategy.CONTRACTION_HIERARCHY);
+        Path<Point>.Segment segment = segmentOf(hierarchy.findShortestPath("MGH", "CSE"), 2);
+        CampusMap same = hierarchy.withEdgeOverrides(
+                EdgeOverrides.none().withCost(segment.getStart(), segment.getEnd(), segment.getCost()));
+        assertSame(hierarchy.contractionHierarchy(), same.contractionHierarchy());
+
+        CampusMap closed = hierarchy.withEdgeOverrides(
+                EdgeOverrides.none().close(segment.getStart(), segment.getEnd()));
+        assertNotSame(hierarchy.contractionHierarchy(), closed.contractionHierarchy());
+        assertFalse(uses(closed.findShortestPath("MGH", "CSE"), segment.getStart(), segment.getEnd()));
+    }
+
+    @Test
+    public void keptRoutesAreStillShortest() {
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        Path<Point> route = precomputed.findShortestPath("MGH", "CSE");
+        Path<Point>.Segment closed = segmentOf(route, 1);
+        Path<Point>.Segment dearer = segmentOf(precomputed.findShortestPath("KNE", "SAV"), 1);
+        EdgeOverrides overrides = EdgeOverrides.none()
+                .close(closed.getStart(), closed.getEnd())
+                .withCost(dearer.getStart(), dearer.getEnd(), dearer.getCost() * 10);
+        CampusMap changed = precomputed.withEdgeOverrides(overrides);
+        assertEquals(2, changed.edgeOverrides().size());
+        assertFalse(changed.keepsRoute(route));
+        assertFalse(changed.keepsRoute(route.reverse()));
+        int kept = 0;
+        for(String start : campusMap.buildingNames().keySet()){
+            for(String end : campusMap.buildingNames().keySet()){
+                Path<Point> old = precomputed.findShortestPath(start, end);
+                Path<Point> now = changed.findShortestPath(start, end, RoutingStrategy.INDEXED_DIJKSTRA);
+                if(changed.keepsRoute(old)){
+                    kept++;
+                    assertEquals(now.getCost(), old.getCost(), 1e-9);
+                    assertEquals(old, changed.findShortestPath(start, end));
+                }
+            }
+        }
+        assertTrue(kept > 0);
+
+        // Reopening makes a segment cheaper again, which may shorten any route.
+        CampusMap reopened = changed.withEdgeOverrides(overrides.reopen(closed.getStart(), closed.getEnd()));
+        assertFalse(reopened.keepsRoute(precomputed.findShortestPath("KNE", "SAV")));
+        assertEquals(route.getCost(), reopened.findShortestPath("MGH", "CSE").getCost(), 1e-9);
+        assertSame(reopened, reopened.withEdgeOverrides(reopened.edgeOverrides()));
+        assertFalse(precomputed.keepsRoute(route));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSegmentCost() {
+        EdgeOverrides.none().withCost(new Point(0, 0), new Point(1, 1), -1);
+    }
+
+    @Test
+    public void alternativePaths() {
+        Path<Point> shortest = campusMap.findShortestPath("MGH", "CSE");
+        List<Path<Point>> paths = campusMap.findAlternativePaths("MGH", "CSE", 5, null);
+        assertEquals(5, paths.size());
+        assertEquals(shortest, paths.get(0));
+        List<List<Point>> seen = new ArrayList<>();
+        double last = 0;
+        for(Path<Point> path : paths){
+            assertEquals(shortest.getStart(), path.getStart());
+            assertEquals(shortest.getEnd(), path.getEnd());
+            assertTrue(path.getCost() >= last);
+            last = path.getCost();
+            List<Point> points = new ArrayList<>();
+            points.add(path.getStart());
+            for(Path<Point>.Segment segment : path){
+                assertTrue(campusMap.hasSegment(segment.getStart(), segment.getEnd()));
+                assertFalse("route visits a point twice", points.contains(segment.getEnd()));
+                points.add(segment.getEnd());
+            }
+            assertFalse("route found twice", seen.contains(points));
+            seen.add(points);
+        }
+
+        // The alternatives avoid a closed segment just as the shortest path does.
+        Path<Point>.Segment closed = segmentOf(shortest, 2);
+        CampusMap changed = campusMap.withEdgeOverrides(EdgeOverrides.none().close(closed.getStart(),
+                                                                                   closed.getEnd()));
+        for(Path<Point> path : changed.findAlternativePaths("MGH", "CSE", 5, null)){
+            assertFalse(uses(path, closed.getStart(), closed.getEnd()));
+        }
+        assertTrue(campusMap.findAlternativePaths("MGH", "CSE", 0, null).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void alternativePathsUnknownBuilding() {
+        campusMap.findAlternativePaths("MGH", "NOT A BUILDING", 3, null);
+    }
+
+    @Test
+    public void profilesWithoutAttributes() {
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        Path<Point> shortest = precomputed.findShortestPath("MGH", "CSE");
+        assertEquals(shortest, precomputed.findShortestPath("MGH", "CSE", RoutingProfile.SHORTEST, null));
+        // On flat, outdoor, stair-free segments only the cost of the covered profile differs.
+        assertEquals(shortest.getCost(),
+                     precomputed.findShortestPath("MGH", "CSE", RoutingProfile.ACCESSIBLE, null).getCost(), 1e-9);
+        assertEquals(2 * shortest.getCost(),
+                     precomputed.findShortestPath("MGH", "CSE", RoutingProfile.COVERED, null).getCost(), 1e-9);
+        assertSame(RoutingProfile.ACCESSIBLE, RoutingProfile.named("accessible"));
+        assertNull(RoutingProfile.named("fastest"));
+    }
+
+    @Test
+    public void accessibleRouteAvoidsStairsAndSteepSegments() {
+        Path<Point> shortest = campusMap.findShortestPath("MGH", "CSE");
+        Path<Point>.Segment stairs = segmentOf(shortest, 2);
+        Path<Point>.Segment steep = segmentOf(shortest, 4);
+        Path<Point>.Segment ramp = segmentOf(shortest, 5);
+        List<CampusSegment> segments = Arrays.asList(
+                new CampusSegment(stairs.getStart().getX(), stairs.getStart().getY(),
+                                  stairs.getEnd().getX(), stairs.getEnd().getY(), 3, true, false),
+                new CampusSegment(steep.getEnd().getX(), steep.getEnd().getY(),
+                                  steep.getStart().getX(), steep.getStart().getY(), steep.getCost() / 5, false, false),
+                new CampusSegment(ramp.getStart().getX(), ramp.getStart().getY(),
+                                  ramp.getEnd().getX(), ramp.getEnd().getY(), ramp.getCost() / 12, false, true));
+        EdgeAttributes attributes = EdgeAttributes.of(segments);
+        assertEquals(3, attributes.size());
+        assertTrue(attributes.hasStairs(stairs.getEnd(), stairs.getStart()));
+        assertEquals(-3, attributes.climbOf(stairs.getEnd(), stairs.getStart()), 0.0);
+        assertTrue(attributes.isIndoor(ramp.getStart(), ramp.getEnd()));
+
+        for(RoutingStrategy strategy : Arrays.asList(RoutingStrategy.ASTAR, RoutingStrategy.CONTRACTION_HIERARCHY)){
+            CampusMap map = new CampusMap(strategy).withEdgeAttributes(attributes);
+            assertSame(map, map.withEdgeAttributes(EdgeAttributes.of(segments)));
+            // The default routes do not change.
+            assertEquals(shortest, map.findShortestPath("MGH", "CSE"));
+            Path<Point> accessible = map.findShortestPath("MGH", "CSE", RoutingProfile.ACCESSIBLE, null);
+            assertFalse(uses(accessible, stairs.getStart(), stairs.getEnd()));
+            assertFalse(uses(accessible, steep.getStart(), steep.getEnd()));
+            assertTrue(accessible.getCost() > shortest.getCost());
+
+            // Closed segments stay closed under every profile.
+            CampusMap closed = map.withEdgeOverrides(EdgeOverrides.none().close(ramp.getStart(), ramp.getEnd()));
+            assertEquals(attributes, closed.edgeAttributes());
+            assertFalse(uses(closed.findShortestPath("MGH", "CSE", RoutingProfile.ACCESSIBLE, null),
+                             ramp.getStart(), ramp.getEnd()));
+        }
+    }
+
+    @Test
+    public void costOverrideKeepsSteepSegmentInaccessible() {
+        Path<Point> shortest = campusMap.findShortestPath("MGH", "CSE");
+        Path<Point>.Segment steep = segmentOf(shortest, 4);
+        EdgeAttributes attributes = EdgeAttributes.of(Collections.singletonList(
+                new CampusSegment(steep.getStart().getX(), steep.getStart().getY(),
+                                  steep.getEnd().getX(), steep.getEnd().getY(), steep.getCost() / 5, false, false)));
+        CampusMap map = new CampusMap(RoutingStrategy.ASTAR).withEdgeAttributes(attributes);
+
+        // A cheaper or dearer segment is no less steep.
+        for(double cost : new double[]{0, steep.getCost() * 3, steep.getCost() * 10}){
+            CampusMap changed = map.withEdgeOverrides(
+                    EdgeOverrides.none().withCost(steep.getStart(), steep.getEnd(), cost));
+            assertFalse(uses(changed.findShortestPath("MGH", "CSE", RoutingProfile.ACCESSIBLE, null),
+                             steep.getStart(), steep.getEnd()));
+        }
+    }
+
+    @Test
+    public void attributesKeepDefaultRouting() {
+        Path<Point> shortest = campusMap.findShortestPath("MGH", "CSE");
+        Path<Point>.Segment stairs = segmentOf(shortest, 2);
+        EdgeAttributes attributes = EdgeAttributes.of(Collections.singletonList(
+                new CampusSegment(stairs.getStart().getX(), stairs.getStart().getY(),
+                                  stairs.getEnd().getX(), stairs.getEnd().getY(), 3, true, false)));
+
+        CampusMap hierarchy = new CampusMap(RoutingStrategy.CONTRACTION_HIERARCHY);
+        assertSame(hierarchy.contractionHierarchy(), hierarchy.withEdgeAttributes(attributes).contractionHierarchy());
+
+        CampusMap precomputed = new CampusMap(RoutingStrategy.PRECOMPUTED);
+        CampusMap described = precomputed.withEdgeAttributes(attributes);
+        assertSame(precomputed.getRouteTable(), described.getRouteTable());
+        assertEquals(shortest, described.findShortestPath("MGH", "CSE"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeProfileCost() {
+        campusMap.findShortestPath("MGH", "CSE", new RoutingProfile("negative", (distance, length, climb, stairs, indoor) -> -1),
+                                   null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void profileUnknownBuilding() {
+        campusMap.findShortestPath("MGH", "NOT A BUILDING", RoutingProfile.ACCESSIBLE, null);
+    }
+
+    private static Path<Point>.Segment segmentOf(Path<Point> path, int index) {
+        Iterator<Path<Point>.Segment> segments = path.iterator();
+        for(int i = 0; i < index; i++){
+            segments.next();
+        }
+        return segments.next();
+    }
+
+    private static boolean uses(Path<Point> path, Point a, Point b) {
+        for(Path<Point>.Segment segment : path){
+            if((segment.getStart().equals(a) && segment.getEnd().equals(b))
+                    || (segment.getStart().equals(b) && segment.getEnd().equals(a))){
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,243 @@
+package pathfinder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusSegment;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class CampusPathsParserTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<double[]> parse(String text) {
+        List<double[]> lines = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                (x1, y1, x2, y2, distance) -> lines.add(new double[]{x1, y1, x2, y2, distance}));
+        return lines;
+    }
+
+    private static void assertSameBits(double expected, double actual) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    @Test
+    public void testCampusFileMatchesDoubleParseDouble() throws IOException {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
+        InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/campus_paths.tsv");
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            reader.readLine();
+            int i = 0;
+            for(String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("\t");
+                CampusPath path = paths.get(i++);
+                assertSameBits(Double.parseDouble(fields[0]), path.getX1());
+                assertSameBits(Double.parseDouble(fields[1]), path.getY1());
+                assertSameBits(Double.parseDouble(fields[2]), path.getX2());
+                assertSameBits(Double.parseDouble(fields[3]), path.getY2());
+                assertSameBits(Double.parseDouble(fields[4]), path.getDistance());
+            }
+            assertEquals(i, paths.size());
+        }
+    }
+
+    @Test
+    public void testNumberForms() {
+        String[] numbers = {"0", "-0", "+1.5", "-12.25", "7.", ".5", "0.000123", "1e3", "-2.5E-2",
+                            "1931.3420286677003", "123456789012345678901234", "0.1", "NaN"};
+        StringBuilder text = new StringBuilder("x1\ty1\tx2\ty2\tdistance\n");
+        for(String number : numbers) {
+            text.append(number).append("\t1\t2\t3\t").append(number).append('\n');
+        }
+        List<double[]> lines = parse(text.toString());
+        assertEquals(numbers.length, lines.size());
+        for(int i = 0; i < numbers.length; i++) {
+            assertSameBits(Double.parseDouble(numbers[i]), lines.get(i)[0]);
+            assertSameBits(Double.parseDouble(numbers[i]), lines.get(i)[4]);
+            assertSameBits(3.0, lines.get(i)[3]);
+        }
+    }
+
+    @Test
+    public void testLineEndings() {
+        List<double[]> lines = parse("header\r\n1\t2\t3\t4\t5\r\n\n6\t7\t8\t9\t10");
+        assertEquals(2, lines.size());
+        assertSameBits(5.0, lines.get(0)[4]);
+        assertSameBits(6.0, lines.get(1)[0]);
+        assertSameBits(10.0, lines.get(1)[4]);
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testMissingField() {
+        parse("header\n1\t2\t3\t4\n");
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testExtraField() {
+        parse("header\n1\t2\t3\t4\t5\t6\n");
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testTrailingTab() {
+        parse("header\n1\t2\t3\t4\t5\t\n");
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testTrailingTabAtEnd() {
+        parse("header\n1\t2\t3\t4\t5\t");
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testBadNumber() {
+        parse("header\n1\t2\tthree\t4\t5\n");
+    }
+
+    @Test
+    public void testLargeStream() {
+        final int lineCount = 200000;
+        // Generates the lines as they are read, so the whole file never exists in memory.
+        InputStream stream = new InputStream() {
+            private byte[] line = "x1\ty1\tx2\ty2\tdistance\n".getBytes(StandardCharsets.UTF_8);
+            private int index = 0;
+            private int lines = 0;
+
+            @Override
+            public int read() {
+                if(index == line.length) {
+                    if(lines == lineCount) {
+                        return -1;
+                    }
+                    lines++;
+                    line = (lines + ".25\t" + lines + "\t0.5\t-1\t" + lines * 2 + ".125\n").getBytes(StandardCharsets.UTF_8);
+                    index = 0;
+                }
+                return line[index++];
+            }
+        };
+        final double[] sum = new double[1];
+        final int[] count = new int[1];
+        CampusPathsParser.parseCampusPaths(stream, (x1, y1, x2, y2, distance) -> {
+            assertEquals(x1 - 0.25, y1, 0.0);
+            sum[0] += distance;
+            count[0]++;
+        });
+        assertEquals(lineCount, count[0]);
+        assertEquals((double) lineCount * (lineCount + 1) + 0.125 * lineCount, sum[0], 1e-3);
+    }
+
+    private Path copyResource(String name) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.copy(CampusPathsParser.class.getResourceAsStream("/data/" + name), file,
+                   StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    private static List<double[]> parseParallel(Path file, ForkJoinPool pool, int chunkBytes) {
+        List<double[]> lines = new ArrayList<>();
+        CampusPathsParser.parseCampusPathsParallel(file, (x1, y1, x2, y2, distance) ->
+                lines.add(new double[]{x1, y1, x2, y2, distance}), pool, chunkBytes);
+        return lines;
+    }
+
+    private static void assertSameLines(List<double[]> expected, List<double[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            for(int j = 0; j < 5; j++) {
+                assertSameBits(expected.get(i)[j], actual.get(i)[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws IOException {
+        Path file = copyResource("campus_paths.tsv");
+        List<double[]> expected = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths(file, (x1, y1, x2, y2, distance) ->
+                expected.add(new double[]{x1, y1, x2, y2, distance}));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for(int chunkBytes : new int[]{100, 4096, 1 << 20}) {
+                assertSameLines(expected, parseParallel(file, pool, chunkBytes));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelLineEndings() throws IOException {
+        Path file = folder.newFile("paths.tsv").toPath();
+        Files.write(file, "header\r\n1\t2\t3\t4\t5\r\n\n\n6\t7\t8\t9\t10\n11\t12\t13\t14\t15".getBytes());
+        List<double[]> expected = parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(3, expected.size());
+        for(int chunkBytes = 1; chunkBytes < 40; chunkBytes++) {
+            assertSameLines(expected, parseParallel(file, ForkJoinPool.commonPool(), chunkBytes));
+        }
+    }
+
+    @Test
+    public void testParallelEmptyFile() throws IOException {
+        Path file = folder.newFile("empty.tsv").toPath();
+        assertEquals(0, parseParallel(file, ForkJoinPool.commonPool(), 16).size());
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testParallelBadLine() throws IOException {
+        Path file = folder.newFile("bad.tsv").toPath();
+        Files.write(file, "header\n1\t2\t3\t4\t5\n1\t2\t3\t4\n1\t2\t3\t4\t5\n".getBytes());
+        parseParallel(file, ForkJoinPool.commonPool(), 8);
+    }
+
+    @Test
+    public void testCampusSegments() throws IOException {
+        Path file = folder.newFile("segments.tsv").toPath();
+        Files.write(file, ("start-x\tstart-y\tend-x\tend-y\tclimb\tstairs\tindoor\n"
+                           + "1\t2\t3\t4\t-2.5\ttrue\tfalse\n"
+                           + "3\t4\t5\t6\t0\tfalse\ttrue\n").getBytes());
+        List<CampusSegment> segments = CampusPathsParser.parseCampusSegments(file);
+        assertEquals(2, segments.size());
+        assertEquals(new CampusSegment(1, 2, 3, 4, -2.5, true, false), segments.get(0));
+        assertEquals(new CampusSegment(3, 4, 5, 6, 0, false, true), segments.get(1));
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testCampusSegmentsBadFlag() throws IOException {
+        Path file = folder.newFile("segments.tsv").toPath();
+        Files.write(file, "header\n1\t2\t3\t4\t0\tyes\tfalse\n".getBytes());
+        CampusPathsParser.parseCampusSegments(file);
+    }
+
+    @Test
+    public void testCampusMapFromFilesMatchesResources() throws IOException {
+        CampusMap expected = new CampusMap();
+        CampusMap actual = new CampusMap(RoutingStrategy.DIJKSTRA, copyResource("campus_buildings.tsv"),
+                                         copyResource("campus_paths.tsv"));
+        assertEquals(expected.buildingNames(), actual.buildingNames());
+        for(String start : expected.buildingNames().keySet()) {
+            for(String end : expected.buildingNames().keySet()) {
+                assertEquals(expected.findShortestPath(start, end), actual.findShortestPath(start, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.Node;
+import org.junit.Test;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ContractionHierarchyTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testPathToSelf() {
+        Graph<Integer, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(0));
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(new CsrGraph<>(graph));
+        assertEquals(new Path<>(0), hierarchy.findShortestPath(0, 0, null));
+    }
+
+    @Test
+    public void testNoPath() {
+        Graph<Integer, Double> graph = new Graph<>();
+        Node<Integer, Double> a = new Node<>(0);
+        Node<Integer, Double> b = new Node<>(1);
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(a, b, 1.0);
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(new CsrGraph<>(graph));
+        assertNull(hierarchy.findShortestPath(1, 0, null));
+        assertEquals(1.0, hierarchy.findShortestPath(0, 1, null).getCost(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownNode() {
+        Graph<Integer, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(0));
+        new ContractionHierarchy<>(new CsrGraph<>(graph)).findShortestPath(0, 1, null);
+    }
+
+    @Test
+    public void testRandomDirectedGraphs() {
+        Random random = new Random(331);
+        for(int round = 0; round < 5; round++) {
+            CsrGraph<Integer> graph = new CsrGraph<>(randomGraph(random, 150, 600));
+            ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph);
+            for(int query = 0; query < 200; query++) {
+                int start = random.nextInt(150);
+                int end = random.nextInt(150);
+                Path<Integer> expected = IndexedDijkstra.dijkstraSearch(graph, start, end);
+                Path<Integer> actual = hierarchy.findShortestPath(start, end, null);
+                if(expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+                    assertEquals(Integer.valueOf(start), actual.getStart());
+                    assertEquals(Integer.valueOf(end), actual.getEnd());
+                    Integer last = start;
+                    for(Path<Integer>.Segment segment : actual) {
+                        assertEquals(last, segment.getStart());
+                        last = segment.getEnd();
+                    }
+                }
+            }
+        }
+    }
+
+    private static Graph<Integer, Double> randomGraph(Random random, int nodes, int edges) {
+        Graph<Integer, Double> graph = new Graph<>();
+        for(int i = 0; i < nodes; i++) {
+            graph.addNode(new Node<>(i));
+        }
+        for(int i = 0; i < edges; i++) {
+            Node<Integer, Double> from = graph.getNode(random.nextInt(nodes));
+            Node<Integer, Double> to = graph.getNode(random.nextInt(nodes));
+            graph.addEdge(from, to, (double) (1 + random.nextInt(20)));
+        }
+        return graph;
+    }
+}
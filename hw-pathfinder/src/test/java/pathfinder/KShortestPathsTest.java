@@ -0,0 +1,194 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.Node;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class KShortestPathsTest {
+
+    CsrGraph<String> graph;
+
+    @Before
+    public void setUp() {
+        Graph<String, Double> g = new Graph<>();
+        List<Node<String, Double>> nodes = new ArrayList<>();
+        for(String label : new String[]{"C", "D", "E", "F", "G", "H"}) {
+            Node<String, Double> node = new Node<>(label);
+            nodes.add(node);
+            g.addNode(node);
+        }
+        addEdge(g, nodes, "C", "D", 3.0);
+        addEdge(g, nodes, "C", "E", 2.0);
+        addEdge(g, nodes, "D", "F", 4.0);
+        addEdge(g, nodes, "E", "D", 1.0);
+        addEdge(g, nodes, "E", "F", 2.0);
+        addEdge(g, nodes, "E", "G", 3.0);
+        addEdge(g, nodes, "F", "G", 2.0);
+        addEdge(g, nodes, "F", "H", 1.0);
+        addEdge(g, nodes, "G", "H", 2.0);
+        graph = new CsrGraph<>(g);
+    }
+
+    private static void addEdge(Graph<String, Double> g, List<Node<String, Double>> nodes, String from, String to,
+                                double cost) {
+        Node<String, Double> start = null;
+        Node<String, Double> end = null;
+        for(Node<String, Double> node : nodes) {
+            if(node.getLabel().equals(from)) {
+                start = node;
+            }
+            if(node.getLabel().equals(to)) {
+                end = node;
+            }
+        }
+        g.addEdge(start, end, cost);
+    }
+
+    private static List<String> nodesOf(Path<String> path) {
+        List<String> nodes = new ArrayList<>();
+        nodes.add(path.getStart());
+        for(Path<String>.Segment segment : path) {
+            nodes.add(segment.getEnd());
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testThreeShortest() {
+        List<Path<String>> paths = KShortestPaths.kShortestPaths(graph, graph.transpose(), "C", "H", 3, null);
+        assertEquals(3, paths.size());
+        assertEquals(IndexedDijkstra.dijkstraSearch(graph, "C", "H"), paths.get(0));
+        assertEquals(List.of("C", "E", "F", "H"), nodesOf(paths.get(0)));
+        assertEquals(List.of("C", "E", "G", "H"), nodesOf(paths.get(1)));
+        assertEquals(5.0, paths.get(0).getCost(), 0.0);
+        assertEquals(7.0, paths.get(1).getCost(), 0.0);
+        assertEquals(8.0, paths.get(2).getCost(), 0.0);
+    }
+
+    @Test
+    public void testFewerThanK() {
+        // C-E-F-H, C-E-G-H, C-D-F-H, C-E-D-F-H, C-E-F-G-H, C-D-F-G-H and C-E-D-F-G-H
+        List<Path<String>> paths = KShortestPaths.kShortestPaths(graph, graph.transpose(), "C", "H", 20, null);
+        assertEquals(7, paths.size());
+        assertEquals(11.0, paths.get(6).getCost(), 0.0);
+    }
+
+    @Test
+    public void testUnreachable() {
+        assertTrue(KShortestPaths.kShortestPaths(graph, graph.transpose(), "H", "C", 3, null).isEmpty());
+        assertTrue(KShortestPaths.kShortestPaths(graph, graph.transpose(), "C", "H", 0, null).isEmpty());
+    }
+
+    @Test
+    public void testToItself() {
+        List<Path<String>> paths = KShortestPaths.kShortestPaths(graph, graph.transpose(), "E", "E", 3, null);
+        assertEquals(1, paths.size());
+        assertEquals(new Path<>("E"), paths.get(0));
+    }
+
+    @Test
+    public void testClosedEdgeLeavesFewerThanK() {
+        Graph<String, Double> g = new Graph<>();
+        List<Node<String, Double>> nodes = new ArrayList<>();
+        for(String label : new String[]{"A", "B", "C", "D"}) {
+            Node<String, Double> node = new Node<>(label);
+            nodes.add(node);
+            g.addNode(node);
+        }
+        for(String[] edge : new String[][]{{"A", "B"}, {"B", "D"}, {"A", "C"}}) {
+            addEdge(g, nodes, edge[0], edge[1], 1.0);
+            addEdge(g, nodes, edge[1], edge[0], 1.0);
+        }
+        addEdge(g, nodes, "C", "D", Double.POSITIVE_INFINITY);
+        addEdge(g, nodes, "D", "C", Double.POSITIVE_INFINITY);
+        CsrGraph<String> closed = new CsrGraph<>(g);
+        List<Path<String>> paths = KShortestPaths.kShortestPaths(closed, closed.transpose(), "A", "D", 3, null);
+        assertEquals(1, paths.size());
+        assertEquals(List.of("A", "B", "D"), nodesOf(paths.get(0)));
+        assertEquals(2.0, paths.get(0).getCost(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownNode() {
+        KShortestPaths.kShortestPaths(graph, graph.transpose(), "C", "Z", 3, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        KShortestPaths.kShortestPaths(graph, graph.transpose(), "C", "H", -1, null);
+    }
+
+    @Test
+    public void testMatchesAllSimplePaths() {
+        Random random = new Random(331);
+        for(int round = 0; round < 20; round++) {
+            int n = 8;
+            Graph<String, Double> g = new Graph<>();
+            List<Node<String, Double>> nodes = new ArrayList<>();
+            for(int v = 0; v < n; v++) {
+                Node<String, Double> node = new Node<>("v" + v);
+                nodes.add(node);
+                g.addNode(node);
+            }
+            for(int e = 0; e < 20; e++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if(u != v) {
+                    g.addEdge(nodes.get(u), nodes.get(v), random.nextDouble() * 10);
+                }
+            }
+            CsrGraph<String> csr = new CsrGraph<>(g);
+
+            // Every simple path from v0 to v7, by depth first search
+            List<Double> costs = new ArrayList<>();
+            allPaths(csr, csr.idOf("v0"), csr.idOf("v7"), new boolean[n], 0, costs);
+            Collections.sort(costs);
+
+            List<Path<String>> paths = KShortestPaths.kShortestPaths(csr, csr.transpose(), "v0", "v7", 10, null);
+            assertEquals(Math.min(10, costs.size()), paths.size());
+            Set<List<String>> distinct = new HashSet<>();
+            for(int i = 0; i < paths.size(); i++) {
+                assertEquals(costs.get(i), paths.get(i).getCost(), 1e-9);
+                List<String> visited = nodesOf(paths.get(i));
+                assertEquals("path visits a node twice", visited.size(), new HashSet<>(visited).size());
+                assertTrue("path found twice", distinct.add(visited));
+            }
+        }
+    }
+
+    /**
+     * Adds the cost of every simple path from v to dest, avoiding the nodes on, to costs, taking
+     * only the cheapest of parallel edges.
+     */
+    private static void allPaths(CsrGraph<String> g, int v, int dest, boolean[] on, double cost, List<Double> costs) {
+        if(v == dest) {
+            costs.add(cost);
+            return;
+        }
+        on[v] = true;
+        for(int u = 0; u < g.size(); u++) {
+            double cheapest = Double.POSITIVE_INFINITY;
+            for(int e = g.firstEdge(v); e < g.endEdge(v); e++) {
+                if(g.target(e) == u) {
+                    cheapest = Math.min(cheapest, g.weight(e));
+                }
+            }
+            if(!on[u] && cheapest < Double.POSITIVE_INFINITY) {
+                allPaths(g, u, dest, on, cost + cheapest, costs);
+            }
+        }
+        on[v] = false;
+    }
+}
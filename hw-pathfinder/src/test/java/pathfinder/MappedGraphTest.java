@@ -0,0 +1,106 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusGraphFile;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.MappedGraph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedGraphTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<CampusBuilding> buildings;
+    private CsrGraph<Point> graph;
+    private MappedGraph mapped;
+
+    @Before
+    public void setUp() throws IOException {
+        buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
+        graph = CampusGraphFile.buildGraph(buildings, paths);
+        Path file = folder.newFile("campus.graph").toPath();
+        CampusGraphFile.write(graph, buildings, file);
+        mapped = MappedGraph.open(file);
+    }
+
+    @Test
+    public void testSameNodesAndEdges() {
+        assertEquals(graph.size(), mapped.size());
+        assertEquals(graph.edgeCount(), mapped.edgeCount());
+        for(int v = 0; v < graph.size(); v++) {
+            assertEquals(graph.labelOf(v), mapped.labelOf(v));
+            assertEquals(v, mapped.idOf(graph.labelOf(v)));
+            assertEquals(graph.firstEdge(v), mapped.firstEdge(v));
+            assertEquals(graph.endEdge(v), mapped.endEdge(v));
+        }
+        for(int e = 0; e < graph.edgeCount(); e++) {
+            assertEquals(graph.target(e), mapped.target(e));
+            assertEquals(graph.weight(e), mapped.weight(e), 0.0);
+        }
+        assertEquals(buildings, mapped.getBuildings());
+    }
+
+    @Test
+    public void testUnknownPoint() {
+        assertEquals(-1, mapped.idOf(new Point(-1.0, -1.0)));
+        assertEquals(-1, mapped.idOf(null));
+    }
+
+    @Test
+    public void testSearchesMatchHeapGraph() {
+        EuclideanHeuristic heuristic = new EuclideanHeuristic(mapped);
+        for(CampusBuilding from : buildings) {
+            Point start = new Point(from.getX(), from.getY());
+            ShortestPathTree<Point> tree = IndexedDijkstra.shortestPathTree(mapped, start);
+            for(CampusBuilding to : buildings) {
+                Point end = new Point(to.getX(), to.getY());
+                assertEquals(IndexedDijkstra.dijkstraSearch(graph, start, end),
+                             IndexedDijkstra.dijkstraSearch(mapped, start, end));
+                assertEquals(IndexedDijkstra.dijkstraSearch(graph, start, end).getCost(),
+                             IndexedDijkstra.aStarSearch(mapped, heuristic, start, end, null).getCost(), 1e-9);
+                assertEquals(IndexedDijkstra.dijkstraSearch(graph, start, end), tree.pathTo(end));
+            }
+        }
+    }
+
+    @Test
+    public void testMappedCampusMapMatchesCampusMap() throws IOException {
+        Path file = folder.newFile("campus-map.graph").toPath();
+        CampusGraphFile.write(graph, buildings, file);
+        MappedCampusMap map = new MappedCampusMap(file);
+        CampusMap campusMap = new CampusMap();
+        assertEquals(campusMap.buildingNames(), map.buildingNames());
+        for(String start : campusMap.buildingNames().keySet()) {
+            for(String end : campusMap.buildingNames().keySet()) {
+                assertEquals(campusMap.findShortestPath(start, end), map.findShortestPath(start, end));
+            }
+        }
+        assertEquals(map.findShortestPath("MGH", "CSE"),
+                     map.findShortestPath("MGH", "CSE", RoutingStrategy.CONTRACTION_HIERARCHY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMappedCampusMapUnknownBuilding() throws IOException {
+        Path file = folder.newFile("campus-map.graph").toPath();
+        CampusGraphFile.write(graph, buildings, file);
+        new MappedCampusMap(file).findShortestPath("MGH", "NOT A BUILDING");
+    }
+}
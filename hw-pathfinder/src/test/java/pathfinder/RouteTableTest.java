@@ -0,0 +1,197 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.Node;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RouteTableTest {
+
+    Graph<String, Double> graph;
+    RouteTable<String> table;
+
+    @Before
+    public void setUp() {
+        graph = new Graph<>();
+        Node<String, Double> a = new Node<>("A");
+        Node<String, Double> b = new Node<>("B");
+        Node<String, Double> c = new Node<>("C");
+        Node<String, Double> d = new Node<>("D");
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addEdge(a, b, 1.0);
+        graph.addEdge(b, c, 2.0);
+        graph.addEdge(a, c, 5.0);
+        table = new RouteTable<>(new CsrGraph<>(graph), Arrays.asList("A", "C", "D"));
+    }
+
+    @Test
+    public void testCosts() {
+        assertEquals(3, table.size());
+        assertEquals(0.0, table.cost(0, 0), 0.0);
+        assertEquals(3.0, table.cost(0, 1), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, table.cost(1, 0), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, table.cost(0, 2), 0.0);
+    }
+
+    @Test
+    public void testPaths() {
+        assertEquals(DijkstraUtil.dijkstraSearch(graph, "A", "C"), table.path(0, 1));
+        assertEquals(new Path<>("D"), table.path(2, 2));
+        assertNull(table.path(1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSite() {
+        new RouteTable<>(new CsrGraph<>(graph), Arrays.asList("A", "E"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSiteOutOfRange() {
+        table.cost(0, 3);
+    }
+
+    @Test
+    public void testBoundedShortestPathTree() {
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        ShortestPathTree<String> tree = IndexedDijkstra.shortestPathTree(csr, "A", 2.0);
+        assertEquals("A", tree.getStart());
+        assertEquals(1.0, tree.costTo("B"), 0.0);
+        assertTrue(tree.isReachable("B"));
+        assertFalse(tree.isReachable("C"));
+        assertNull(tree.pathTo("C"));
+        assertEquals(Double.POSITIVE_INFINITY, tree.costTo("C"), 0.0);
+        assertEquals(3.0, IndexedDijkstra.shortestPathTree(csr, "A").costTo("C"), 0.0);
+    }
+
+    @Test
+    public void testSymmetricTableServesReversedRoutes() {
+        Graph<String, Double> twoWay = new Graph<>();
+        Node<String, Double> a = new Node<>("A");
+        Node<String, Double> b = new Node<>("B");
+        Node<String, Double> c = new Node<>("C");
+        Node<String, Double> d = new Node<>("D");
+        twoWay.addNode(a);
+        twoWay.addNode(b);
+        twoWay.addNode(c);
+        twoWay.addNode(d);
+        twoWay.addEdge(a, b, 1.0);
+        twoWay.addEdge(b, a, 1.0);
+        twoWay.addEdge(b, c, 2.0);
+        twoWay.addEdge(c, b, 2.0);
+        twoWay.addEdge(a, c, 5.0);
+        twoWay.addEdge(c, a, 5.0);
+        RouteTable<String> symmetric = new RouteTable<>(new CsrGraph<>(twoWay), Arrays.asList("A", "C", "B", "D"));
+        assertTrue(symmetric.isSymmetric());
+        assertFalse(table.isSymmetric());
+        String[] sites = {"A", "C", "B", "D"};
+        for(int i = 0; i < sites.length; i++) {
+            for(int j = 0; j < sites.length; j++) {
+                Path<String> expected = DijkstraUtil.dijkstraSearch(twoWay, sites[i], sites[j]);
+                assertEquals(expected, symmetric.path(i, j));
+                assertEquals(expected == null ? Double.POSITIVE_INFINITY : expected.getCost(),
+                             symmetric.cost(i, j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testReweightedMatchesNewTable() {
+        Random random = new Random(2023);
+        int n = 300;
+        List<String> labels = new ArrayList<>();
+        for(int v = 0; v < n; v++) {
+            labels.add("v" + v);
+        }
+        // A random two-way graph: each node joined to a few others, both ways at the same cost.
+        List<List<int[]>> out = new ArrayList<>();
+        for(int v = 0; v < n; v++) {
+            out.add(new ArrayList<>());
+        }
+        for(int v = 1; v < n; v++) {
+            for(int k = 0; k < 2; k++) {
+                int u = random.nextInt(v);
+                int cost = 1 + random.nextInt(20);
+                out.get(v).add(new int[]{u, cost});
+                out.get(u).add(new int[]{v, cost});
+            }
+        }
+        int[] offsets = new int[n + 1];
+        for(int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + out.get(v).size();
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for(int v = 0; v < n; v++) {
+            for(int i = 0; i < out.get(v).size(); i++) {
+                targets[offsets[v] + i] = out.get(v).get(i)[0];
+                weights[offsets[v] + i] = out.get(v).get(i)[1];
+            }
+        }
+        CsrGraph<String> base = new CsrGraph<>(labels, offsets, targets, weights);
+        List<String> sites = labels.subList(0, 40);
+        RouteTable<String> original = new RouteTable<>(base, sites);
+
+        // Closed and dearer edges, both ways, so only routes through them need searching again.
+        Map<Integer, Double> dearer = new HashMap<>();
+        // One cheaper edge, which can shorten any route.
+        Map<Integer, Double> cheaper = new HashMap<>();
+        // One edge closed one way only, which makes the graph no longer symmetric.
+        Map<Integer, Double> oneWay = new HashMap<>();
+        for(int k = 0; k < 30; k++) {
+            int v = random.nextInt(n);
+            for(int e = base.firstEdge(v); e < base.endEdge(v); e++) {
+                double cost = k % 2 == 0 ? Double.POSITIVE_INFINITY : base.weight(e) * 3;
+                dearer.put(e, cost);
+                int u = base.target(e);
+                for(int r = base.firstEdge(u); r < base.endEdge(u); r++) {
+                    if(base.target(r) == v) {
+                        dearer.put(r, cost);
+                    }
+                }
+            }
+        }
+        cheaper.putAll(dearer);
+        cheaper.put(0, 0.0);
+        oneWay.put(0, Double.POSITIVE_INFINITY);
+
+        for(Map<Integer, Double> changes : Arrays.asList(dearer, cheaper, oneWay)) {
+            CsrGraph<String> changed = base.withWeights(changes);
+            RouteTable<String> repaired = original.reweighted(changed);
+            RouteTable<String> expected = new RouteTable<>(changed, sites);
+            assertEquals(expected.isSymmetric(), repaired.isSymmetric());
+            for(int i = 0; i < sites.size(); i++) {
+                for(int j = 0; j < sites.size(); j++) {
+                    assertEquals(expected.cost(i, j), repaired.cost(i, j), 1e-9);
+                    Path<String> path = repaired.path(i, j);
+                    if(path == null) {
+                        assertEquals(Double.POSITIVE_INFINITY, expected.cost(i, j), 0.0);
+                    } else {
+                        assertEquals(expected.cost(i, j), path.getCost(), 1e-9);
+                    }
+                }
+            }
+        }
+        assertEquals("Reweighting changed the base graph", weights[0], base.weight(0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReweightedOtherGraph() {
+        Graph<String, Double> other = new Graph<>();
+        other.addNode(new Node<>("A"));
+        table.reweighted(new CsrGraph<>(other));
+    }
+}
@@ -0,0 +1,82 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.CoordinateTable;
+import pathfinder.datastructures.Point;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestCoordinateTable {
+
+    @Test
+    public void testEmptyTable() {
+        CoordinateTable table = new CoordinateTable();
+        assertEquals(0, table.size());
+        assertEquals(-1, table.idOf(1.0, 2.0));
+    }
+
+    @Test
+    public void testInternGivesDenseIds() {
+        CoordinateTable table = new CoordinateTable();
+        assertEquals(0, table.intern(1.0, 2.0));
+        assertEquals(1, table.intern(2.0, 1.0));
+        assertEquals(0, table.intern(1.0, 2.0));
+        assertEquals(2, table.intern(1.5, 2.0));
+        assertEquals(3, table.size());
+        assertEquals(1, table.idOf(2.0, 1.0));
+        assertEquals(-1, table.idOf(2.0, 2.0));
+    }
+
+    @Test
+    public void testCoordinatesOfId() {
+        CoordinateTable table = new CoordinateTable();
+        table.intern(3.25, -4.5);
+        int id = table.intern(1234.5678, 9876.54321);
+        assertEquals(1234.5678, table.x(id), 0.0);
+        assertEquals(9876.54321, table.y(id), 0.0);
+        assertEquals(new Point(1234.5678, 9876.54321), table.pointOf(id));
+    }
+
+    @Test
+    public void testSameAsPointEquality() {
+        CoordinateTable table = new CoordinateTable();
+        int positive = table.intern(0.0, 1.0);
+        int negative = table.intern(-0.0, 1.0);
+        assertNotEquals(new Point(0.0, 1.0), new Point(-0.0, 1.0));
+        assertNotEquals(positive, negative);
+        assertEquals(table.intern(Double.NaN, 1.0), table.intern(Double.NaN, 1.0));
+    }
+
+    @Test
+    public void testGrowsPastExpectedSize() {
+        CoordinateTable table = new CoordinateTable(2);
+        Random random = new Random(331);
+        double[] xs = new double[10000];
+        double[] ys = new double[10000];
+        for(int i = 0; i < xs.length; i++) {
+            xs[i] = random.nextInt(1000) + i * 0.5;
+            ys[i] = random.nextDouble();
+            assertEquals(i, table.intern(xs[i], ys[i]));
+        }
+        assertEquals(xs.length, table.size());
+        for(int i = 0; i < xs.length; i++) {
+            assertEquals(i, table.idOf(xs[i], ys[i]));
+            assertEquals(xs[i], table.x(i), 0.0);
+            assertEquals(ys[i], table.y(i), 0.0);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnknownId() {
+        CoordinateTable table = new CoordinateTable();
+        table.intern(1.0, 2.0);
+        table.x(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeExpectedSize() {
+        new CoordinateTable(-1);
+    }
+}
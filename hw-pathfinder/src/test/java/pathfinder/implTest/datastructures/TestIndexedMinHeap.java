@@ -0,0 +1,102 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestIndexedMinHeap {
+
+    @Test
+    public void testEmptyHeap() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(2));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPollEmptyHeap() {
+        new IndexedMinHeap(4).poll();
+    }
+
+    @Test
+    public void testPollsInPriorityOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.offer(3, 4.0);
+        heap.offer(0, 2.0);
+        heap.offer(4, 9.0);
+        heap.offer(1, 1.0);
+        assertEquals(4, heap.size());
+        assertEquals(1.0, heap.peekKey(), 0.0);
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(4, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.offer(0, 5.0);
+        heap.offer(1, 3.0);
+        heap.offer(2, 4.0);
+        assertTrue(heap.offer(0, 1.0));
+        assertFalse(heap.offer(1, 8.0));
+        assertEquals(3, heap.size());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.offer(2, 3.0);
+        heap.offer(0, 1.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(0));
+        assertFalse(heap.contains(2));
+        assertTrue(heap.offer(2, 5.0));
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testReinsertAfterPoll() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.offer(1, 2.0);
+        assertEquals(1, heap.poll());
+        assertFalse(heap.contains(1));
+        heap.offer(1, 7.0);
+        assertTrue(heap.contains(1));
+        assertEquals(7.0, heap.peekKey(), 0.0);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(331);
+        IndexedMinHeap heap = new IndexedMinHeap(200);
+        double[] best = new double[200];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for(int i = 0; i < 1000; i++) {
+            int id = random.nextInt(200);
+            double key = random.nextDouble();
+            heap.offer(id, key);
+            best[id] = Math.min(best[id], key);
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while(!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int id = heap.poll();
+            assertEquals(best[id], key, 0.0);
+            assertTrue(key >= last);
+            last = key;
+        }
+    }
+}
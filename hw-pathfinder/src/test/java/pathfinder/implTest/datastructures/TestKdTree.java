@@ -0,0 +1,147 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.KdTree;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestKdTree {
+
+    @Test
+    public void testEmptyTree() {
+        KdTree tree = new KdTree(Collections.emptyList());
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.nearest(1.0, 2.0));
+        assertArrayEquals(new int[0], tree.nearest(1.0, 2.0, 3));
+    }
+
+    @Test
+    public void testSinglePoint() {
+        KdTree tree = new KdTree(Collections.singletonList(new Point(3.0, 4.0)));
+        assertEquals(0, tree.nearest(-100.0, 50.0));
+        assertArrayEquals(new int[]{0}, tree.nearest(0.0, 0.0, 5));
+    }
+
+    @Test
+    public void testNearestOfFewPoints() {
+        KdTree tree = new KdTree(Arrays.asList(new Point(0, 0), new Point(10, 0),
+                                               new Point(0, 10), new Point(10, 10)));
+        assertEquals(0, tree.nearest(1, 2));
+        assertEquals(1, tree.nearest(9, -5));
+        assertEquals(2, tree.nearest(-3, 7));
+        assertEquals(3, tree.nearest(100, 100));
+        assertArrayEquals(new int[]{3, 1, 2}, tree.nearest(9, 6, 3));
+    }
+
+    @Test
+    public void testTiesPreferLowestIndex() {
+        KdTree tree = new KdTree(Arrays.asList(new Point(1, 1), new Point(-1, 1),
+                                               new Point(1, 1), new Point(1, -1)));
+        assertEquals(0, tree.nearest(1, 1));
+        assertArrayEquals(new int[]{0, 2}, tree.nearest(1, 1, 2));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, tree.nearest(0, 0, 4));
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(331);
+        List<Point> points = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            // A coarse grid of coordinates, so that many points share an x, a y or both.
+            points.add(new Point(random.nextInt(60), random.nextInt(60)));
+        }
+        KdTree tree = new KdTree(points);
+        for(int query = 0; query < 200; query++) {
+            double x = random.nextDouble() * 80 - 10;
+            double y = random.nextDouble() * 80 - 10;
+            int[] expected = linearScan(points, x, y, 7);
+            assertArrayEquals(expected, tree.nearest(x, y, 7));
+            assertEquals(expected[0], tree.nearest(x, y));
+        }
+    }
+
+    @Test
+    public void testMoreThanSize() {
+        List<Point> points = Arrays.asList(new Point(5, 5), new Point(1, 1), new Point(3, 3));
+        assertArrayEquals(new int[]{1, 2, 0}, new KdTree(points).nearest(0, 0, 10));
+    }
+
+    @Test
+    public void testWithinRadius() {
+        KdTree tree = new KdTree(Arrays.asList(new Point(0, 0), new Point(3, 4), new Point(6, 8),
+                                               new Point(-3, -4), new Point(1, 0)));
+        assertArrayEquals(new int[]{0, 4, 1, 3}, tree.withinRadius(0, 0, 5));
+        assertArrayEquals(new int[]{0}, tree.withinRadius(0, 0, 0));
+        assertArrayEquals(new int[0], tree.withinRadius(100, 100, 10));
+        assertArrayEquals(new int[]{2, 1, 4, 0, 3}, tree.withinRadius(6, 8, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testWithinRadiusMatchesLinearScan() {
+        Random random = new Random(332);
+        List<Point> points = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            points.add(new Point(random.nextInt(60), random.nextInt(60)));
+        }
+        KdTree tree = new KdTree(points);
+        for(int query = 0; query < 200; query++) {
+            double x = random.nextDouble() * 80 - 10;
+            double y = random.nextDouble() * 80 - 10;
+            double radius = random.nextDouble() * 8;
+            int[] all = linearScan(points, x, y, points.size());
+            int count = 0;
+            while(count < all.length && squaredDistance(points.get(all[count]), x, y) <= radius * radius) {
+                count++;
+            }
+            assertArrayEquals(Arrays.copyOf(all, count), tree.withinRadius(x, y, radius));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRadius() {
+        new KdTree(Collections.singletonList(new Point(0, 0))).withinRadius(0, 0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        new KdTree(Collections.singletonList(new Point(0, 0))).nearest(0, 0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaNCoordinate() {
+        new KdTree(Collections.singletonList(new Point(0, 0))).nearest(Double.NaN, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPoint() {
+        new KdTree(Arrays.asList(new Point(0, 0), null));
+    }
+
+    private static int[] linearScan(List<Point> points, double x, double y, int k) {
+        List<Integer> ids = new ArrayList<>();
+        for(int i = 0; i < points.size(); i++) {
+            ids.add(i);
+        }
+        ids.sort(Comparator.<Integer>comparingDouble(i -> squaredDistance(points.get(i), x, y))
+                           .thenComparingInt(i -> i));
+        int[] nearest = new int[k];
+        for(int i = 0; i < k; i++) {
+            nearest[i] = ids.get(i);
+        }
+        return nearest;
+    }
+
+    private static double squaredDistance(Point point, double x, double y) {
+        double dx = x - point.getX();
+        double dy = y - point.getY();
+        return dx * dx + dy * dy;
+    }
+}
@@ -5,9 +5,12 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 
 public class TestPath {
@@ -106,4 +109,75 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testExtendDoesNotChangeSharedPrefix() {
+        Path<Point> prefix = new Path<>(new Point(1.0, 2.0)).extend(new Point(3.0, 2.0), 2.0D);
+        Path<Point> left = prefix.extend(new Point(3.0, 4.0), 2.0D);
+        Path<Point> right = prefix.extend(new Point(5.0, 2.0), 2.0D);
+        assertEquals(new Point(3.0, 2.0), prefix.getEnd());
+        assertEquals(2.0D, prefix.getCost(), EPSILON);
+        assertEquals(1, segmentsOf(prefix).size());
+        assertEquals(new Point(3.0, 4.0), left.getEnd());
+        assertEquals(new Point(5.0, 2.0), right.getEnd());
+        assertNotEquals(left, right);
+    }
+
+    @Test
+    public void testIterateAfterExtendingIteratedPath() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0));
+        for(int i = 1; i <= 5; i++) {
+            path = path.extend(new Point(i, 0.0), 1.0D);
+        }
+        assertEquals(5, segmentsOf(path).size());
+        path = path.extend(new Point(6.0, 0.0), 1.0D);
+        List<Path<Point>.Segment> segments = segmentsOf(path);
+        assertEquals(6, segments.size());
+        for(int i = 0; i < segments.size(); i++) {
+            assertEquals(new Point(i, 0.0), segments.get(i).getStart());
+            assertEquals(new Point(i + 1, 0.0), segments.get(i).getEnd());
+        }
+    }
+
+    @Test
+    public void testLongPathEqualityAndHashcode() {
+        Path<Point> a = new Path<>(new Point(0.0, 0.0));
+        Path<Point> b = new Path<>(new Point(0.0, 0.0));
+        for(int i = 1; i <= 10000; i++) {
+            a = a.extend(new Point(i, 0.0), 1.0D);
+            b = b.extend(new Point(i, 0.0), 1.0D);
+        }
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(10000.0D, a.getCost(), EPSILON);
+        assertFalse(a.equals(b.extend(new Point(0.0, 0.0), 1.0D)));
+    }
+
+    private static List<Path<Point>.Segment> segmentsOf(Path<Point> path) {
+        List<Path<Point>.Segment> segments = new ArrayList<>();
+        for(Path<Point>.Segment segment : path) {
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    @Test
+    public void testReverse() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0)).extend(new Point(1.0, 0.0), 0.1)
+                                                          .extend(new Point(1.0, 2.0), 0.2)
+                                                          .extend(new Point(4.0, 2.0), 0.3);
+        Path<Point> reversed = path.reverse();
+        Path<Point> expected = new Path<>(new Point(4.0, 2.0)).extend(new Point(1.0, 2.0), 0.3)
+                                                              .extend(new Point(1.0, 0.0), 0.2)
+                                                              .extend(new Point(0.0, 0.0), 0.1);
+        assertEquals(expected, reversed);
+        assertEquals(0.3 + 0.2 + 0.1, reversed.getCost(), 0.0);
+        assertEquals(path, reversed.reverse());
+    }
+
+    @Test
+    public void testReverseEmptyPath() {
+        Path<Point> path = new Path<>(new Point(1.0, 2.0));
+        assertEquals(path, path.reverse());
+    }
 }